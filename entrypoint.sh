@@ -1,16 +1,26 @@
 #!/bin/sh
-if [ "$ALGORITHM_TYPE" = "basic" ]; then
-    java -Dreleases.file.name=/app/releases.txt \
+# Every run maps the AppCDS archive created at image build, classes missing from it are loaded as usual
+JAVA_CDS="-XX:SharedArchiveFile=/app/happyqa.jsa -Xshare:auto"
+
+if [ "$ALGORITHM_TYPE" = "basic" ] || [ "$ALGORITHM_TYPE" = "advanced" ]; then
+    if [ -n "$RELEASES_DIR" ]; then
+        exec java $JAVA_CDS -Dmode=batch \
+             -Dalgorithm=$ALGORITHM_TYPE \
+             -Dreleases.dir=$RELEASES_DIR \
+             -Dsprint.duration=$SPRINT_DURATION \
+             -Doutput.dir=/app/output \
+             -jar happyqa.jar;
+    fi
+    exec java $JAVA_CDS -Dalgorithm=$ALGORITHM_TYPE \
+         -Dreleases.file.name=/app/releases.txt \
          -Dsprint.duration=$SPRINT_DURATION \
          -Doutput.file.name=/app/output/output.txt \
          -Doutput.file.name.advanced=/app/output/output-advanced.txt \
-         -jar basic.jar;
-elif [ "$ALGORITHM_TYPE" = "advanced" ]; then
-    java -Dreleases.file.name=/app/releases.txt \
-         -Dsprint.duration=$SPRINT_DURATION \
-         -Doutput.file.name=/app/output/output.txt \
-         -Doutput.file.name.advanced=/app/output/output-advanced.txt \
-         -jar advanced.jar;
+         -jar happyqa.jar;
+elif [ "$ALGORITHM_TYPE" = "server" ]; then
+    exec java $JAVA_CDS -Dmode=server \
+         -Dserver.port=$SERVER_PORT \
+         -jar happyqa.jar;
 else
-    echo 'Invalid ALGORITHM_TYPE. Use basic or advanced.' && exit 1;
-fi
\ No newline at end of file
+    echo 'Invalid ALGORITHM_TYPE. Use basic, advanced or server.' && exit 1;
+fi
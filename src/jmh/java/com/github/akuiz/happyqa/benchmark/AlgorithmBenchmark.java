@@ -0,0 +1,113 @@
+package com.github.akuiz.happyqa.benchmark;
+
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.release.Release;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the scheduling algorithms.
+ * Both schedulers trim and sort the given list in place, so every invocation copies the generated input itself.
+ * The copy is part of the measured time, copyReleaseList and copyReleaseTable measure it alone.
+ * Run with "-prof gc" to get gc.alloc.rate.norm.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class AlgorithmBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"10", "30", "90"})
+    public int sprintDuration;
+
+    @Param({"UNIFORM", "FRONT_LOADED", "BACK_LOADED"})
+    public ReleaseGenerator.Distribution distribution;
+
+    private List<Release> generatedReleases;
+
+    private ReleaseTable generatedReleaseTable;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        generatedReleases = ReleaseGenerator.generate(size, sprintDuration, distribution);
+        generatedReleaseTable = ReleaseTable.fromReleaseList(generatedReleases);
+    }
+
+    @Benchmark
+    public List<Release> copyReleaseList() {
+        return new ArrayList<>(generatedReleases);
+    }
+
+    @Benchmark
+    public ReleaseTable copyReleaseTable() {
+        return generatedReleaseTable.copy();
+    }
+
+    @Benchmark
+    public List<Release> createOptimalTestingSchedule() {
+        return Algorithm.createOptimalTestingSchedule(new ArrayList<>(generatedReleases), sprintDuration);
+    }
+
+    @Benchmark
+    public List<Release> releaseScheduleAdvanced() {
+        return Algorithm.releaseScheduleAdvanced(new ArrayList<>(generatedReleases), sprintDuration);
+    }
+
+    @Benchmark
+    public List<Release> trimReleaseList() {
+        List<Release> releases = new ArrayList<>(generatedReleases);
+        Algorithm.trimReleaseList(releases, sprintDuration);
+        return releases;
+    }
+
+    @Benchmark
+    public ReleaseTable createOptimalTestingScheduleTable() {
+        return Algorithm.createOptimalTestingSchedule(generatedReleaseTable.copy(), sprintDuration);
+    }
+
+    @Benchmark
+    public ReleaseTable releaseScheduleAdvancedTable() {
+        return Algorithm.releaseScheduleAdvanced(generatedReleaseTable.copy(), sprintDuration);
+    }
+
+    @Benchmark
+    public ReleaseTable releaseScheduleAdvancedExact() {
+        return Algorithm.releaseScheduleAdvancedExact(generatedReleaseTable.copy(), sprintDuration);
+    }
+
+    @Benchmark
+    public ReleaseTable createOptimalWeightedTestingSchedule() {
+        return Algorithm.createOptimalWeightedTestingSchedule(generatedReleaseTable.copy(), sprintDuration);
+    }
+
+    @Benchmark
+    public ReleaseTable createOptimalTestingScheduleNonDestructive() {
+        return Algorithm.createOptimalTestingScheduleNonDestructive(generatedReleaseTable, sprintDuration);
+    }
+
+    @Benchmark
+    public ReleaseTable releaseScheduleAdvancedNonDestructive() {
+        return Algorithm.releaseScheduleAdvancedNonDestructive(generatedReleaseTable, sprintDuration);
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.akuiz.happyqa.benchmark;
+
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.Release;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of reading releases.txt and writing output files.
+ * Files live in a temporary directory that is removed after the trial.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class FileUtilsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"10", "30", "90"})
+    public int sprintDuration;
+
+    @Param({"UNIFORM", "FRONT_LOADED", "BACK_LOADED"})
+    public ReleaseGenerator.Distribution distribution;
+
+    private Path directory;
+
+    private Path releasesFile;
+
+    private String outputFileName;
+
+    private String detailedOutputFileName;
+
+    private List<Release> releases;
+
+    private ReleaseTable releaseTable;
+
+    @Setup(Level.Trial)
+    public void createFiles() throws IOException {
+        directory = Files.createTempDirectory("happyqa-benchmark");
+        releasesFile = directory.resolve("releases.txt");
+        outputFileName = directory.resolve("output.txt").toString();
+        detailedOutputFileName = directory.resolve("output-advanced.txt").toString();
+        ReleaseGenerator.writeReleasesFile(releasesFile, size, sprintDuration, distribution);
+        releases = ReleaseGenerator.generate(size, sprintDuration, distribution);
+        releaseTable = ReleaseTable.fromReleaseList(releases);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        Files.deleteIfExists(releasesFile);
+        Files.deleteIfExists(Path.of(outputFileName));
+        Files.deleteIfExists(Path.of(detailedOutputFileName));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<Release> readReleaseDetailsFromFile() throws IOException {
+        return FileUtils.readReleaseDetailsFromFile(releasesFile.toString());
+    }
+
+    @Benchmark
+    public ReleaseTable readReleaseTableFromFile() throws IOException {
+        return FileUtils.readReleaseTableFromFile(releasesFile.toString());
+    }
+
+    @Benchmark
+    public void writeReleaseListToFile() {
+        FileUtils.writeReleaseListToFile(releases, outputFileName, false);
+    }
+
+    @Benchmark
+    public void writeReleaseListToFileDetailed() {
+        FileUtils.writeReleaseListToFile(releases, outputFileName, true);
+    }
+
+    @Benchmark
+    public void writeScheduleToFiles() throws IOException {
+        FileUtils.writeScheduleToFiles(releaseTable, outputFileName, detailedOutputFileName);
+    }
+}
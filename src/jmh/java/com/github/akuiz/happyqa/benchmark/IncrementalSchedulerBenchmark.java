@@ -0,0 +1,84 @@
+package com.github.akuiz.happyqa.benchmark;
+
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.algorithm.IncrementalScheduler;
+import com.github.akuiz.happyqa.algorithm.ScheduleChange;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of a what-if query "release X slips by two days" against the full recompute of the changed releases.
+ * Every invocation asks about the next release in input order.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class IncrementalSchedulerBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"10", "90"})
+    public int sprintDuration;
+
+    @Param({"UNIFORM", "FRONT_LOADED", "BACK_LOADED"})
+    public ReleaseGenerator.Distribution distribution;
+
+    private ReleaseTable generatedReleaseTable;
+
+    private IncrementalScheduler incrementalScheduler;
+
+    private int nextRow;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        generatedReleaseTable = ReleaseTable.fromReleaseList(ReleaseGenerator.generate(size, sprintDuration, distribution));
+        incrementalScheduler = new IncrementalScheduler(sprintDuration);
+        for (int row = 0; row < generatedReleaseTable.size(); row++) {
+            incrementalScheduler.insert(generatedReleaseTable.getDeliveryDay(row), generatedReleaseTable.getTimeToTest(row),
+                    generatedReleaseTable.getOrdinal(row));
+        }
+    }
+
+    @Benchmark
+    public ScheduleChange whatIfSlipped() {
+        int row = nextRow();
+        return incrementalScheduler.whatIfUpdated(generatedReleaseTable.getOrdinal(row),
+                generatedReleaseTable.getDeliveryDay(row) + 2, generatedReleaseTable.getTimeToTest(row));
+    }
+
+    @Benchmark
+    public ReleaseTable fullRecomputeSlipped() {
+        int row = nextRow();
+        ReleaseTable releaseTable = generatedReleaseTable.copy();
+        releaseTable.truncate(row);
+        releaseTable.add(generatedReleaseTable.getDeliveryDay(row) + 2, generatedReleaseTable.getTimeToTest(row));
+        for (int other = row + 1; other < generatedReleaseTable.size(); other++) {
+            releaseTable.add(generatedReleaseTable.getDeliveryDay(other), generatedReleaseTable.getTimeToTest(other));
+        }
+        return Algorithm.createOptimalTestingSchedule(releaseTable, sprintDuration);
+    }
+
+    private int nextRow() {
+        int row = nextRow;
+        nextRow = (nextRow + 1) % generatedReleaseTable.size();
+        return row;
+    }
+}
@@ -0,0 +1,104 @@
+package com.github.akuiz.happyqa.benchmark;
+
+import com.github.akuiz.happyqa.release.Release;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * This class generates reproducible release inputs for the benchmarks.
+ * The same size, sprint duration, distribution and seed always produce the same releases.
+ */
+
+public final class ReleaseGenerator {
+
+    /**
+     * Seed shared by all benchmarks, so the numbers can be compared between runs
+     */
+    public static final long SEED = 0x5EED_CAFEL;
+
+    /**
+     * Shape of the delivery day distribution within a sprint
+     */
+    public enum Distribution {
+        /**
+         * Every day of the sprint is equally likely
+         */
+        UNIFORM,
+        /**
+         * Most releases are delivered at the beginning of the sprint
+         */
+        FRONT_LOADED,
+        /**
+         * Most releases are delivered at the end of the sprint, so many of them get trimmed
+         */
+        BACK_LOADED
+    }
+
+    private ReleaseGenerator() {
+    }
+
+    /**
+     * Generates a list of releases with ids assigned the same way as the input file parser does
+     *
+     * @param size           number of releases
+     * @param sprintDuration duration of the sprint in days
+     * @param distribution   delivery day distribution
+     */
+    public static List<Release> generate(int size, int sprintDuration, Distribution distribution) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Release> releases = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Release release = new Release(deliveryDay(random, sprintDuration, distribution), timeToTest(random, sprintDuration));
+            release.setOrdinal(i);
+            releases.add(release);
+        }
+        return releases;
+    }
+
+    /**
+     * Writes generated releases to a file in the releases.txt format
+     *
+     * @param file           target file
+     * @param size           number of releases
+     * @param sprintDuration duration of the sprint in days
+     * @param distribution   delivery day distribution
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void writeReleasesFile(Path file, int size, int sprintDuration, Distribution distribution) throws IOException {
+        SplittableRandom random = new SplittableRandom(SEED);
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < size; i++) {
+                writer.write(Integer.toString(deliveryDay(random, sprintDuration, distribution)));
+                writer.write(' ');
+                writer.write(Integer.toString(timeToTest(random, sprintDuration)));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static int deliveryDay(SplittableRandom random, int sprintDuration, Distribution distribution) {
+        double u = random.nextDouble();
+        switch (distribution) {
+            case FRONT_LOADED:
+                u = u * u * u;
+                break;
+            case BACK_LOADED:
+                u = 1 - u * u * u;
+                break;
+            default:
+                break;
+        }
+        return 1 + Math.min(sprintDuration - 1, (int) (u * sprintDuration));
+    }
+
+    private static int timeToTest(SplittableRandom random, int sprintDuration) {
+        // Most releases are quick to test, a few of them take a large part of the sprint
+        return 1 + random.nextInt(Math.max(1, sprintDuration / 3));
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.akuiz.happyqa;
+
+import com.github.akuiz.happyqa.algorithm.Scheduler;
+import com.github.akuiz.happyqa.cache.ScheduleCache;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class schedules every release file of a directory in one JVM. Files are spread over a work-stealing pool,
+ * so a few large files don't hold back the small ones. Outputs of a file named 'team.txt' are 'team-output.txt' and
+ * 'team-output-advanced.txt' in the output directory.
+ */
+
+public class BatchScheduler {
+
+    private final Scheduler scheduler;
+
+    private final int parallelism;
+
+    private final ScheduleCache cache;
+
+    /**
+     * Creates a batch scheduler
+     *
+     * @param scheduler   scheduler applied to every file
+     * @param parallelism number of files scheduled at the same time
+     */
+    public BatchScheduler(Scheduler scheduler, int parallelism) {
+        this(scheduler, parallelism, null);
+    }
+
+    /**
+     * Creates a batch scheduler taking outputs of files scheduled before from the cache
+     *
+     * @param scheduler   scheduler applied to every file
+     * @param parallelism number of files scheduled at the same time
+     * @param cache       cache of the outputs, null disables caching
+     */
+    public BatchScheduler(Scheduler scheduler, int parallelism, ScheduleCache cache) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.scheduler = scheduler;
+        this.parallelism = parallelism;
+        this.cache = cache;
+    }
+
+    /**
+     * Schedules release files of a directory. A file that fails does not stop the others.
+     *
+     * @param releasesDirectory directory with release files, subdirectories are not visited
+     * @param glob              pattern of the release file names, e.g. *.txt
+     * @param outputDirectory   directory for the output files, created if missing
+     * @return number of scheduled files
+     * @throws IOException if the directory can't be read or any file fails, failures of files are suppressed exceptions
+     */
+    public int schedule(Path releasesDirectory, String glob, Path outputDirectory) throws IOException {
+        List<Path> releaseFiles = new ArrayList<>();
+        try (DirectoryStream<Path> directory = Files.newDirectoryStream(releasesDirectory, glob)) {
+            for (Path file : directory) {
+                if (Files.isRegularFile(file)) {
+                    releaseFiles.add(file);
+                }
+            }
+        }
+        Collections.sort(releaseFiles);
+        Files.createDirectories(outputDirectory);
+
+        List<Callable<Void>> tasks = new ArrayList<>(releaseFiles.size());
+        for (Path releaseFile : releaseFiles) {
+            tasks.add(() -> {
+                scheduleFile(releaseFile, outputDirectory);
+                return null;
+            });
+        }
+
+        // Every file is scheduled before the failures are collected
+        List<Future<Void>> results;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            results = pool.invokeAll(tasks);
+        } finally {
+            pool.shutdown();
+        }
+
+        IOException failure = null;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                results.get(i).get();
+            } catch (ExecutionException | CancellationException | InterruptedException e) {
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                if (failure == null) {
+                    failure = new IOException("Failed to schedule release files in " + releasesDirectory);
+                }
+                failure.addSuppressed(new IOException(releaseFiles.get(i) + ": " + cause.getMessage(), cause));
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return releaseFiles.size();
+    }
+
+    private void scheduleFile(Path releaseFile, Path outputDirectory) throws IOException {
+        String name = releaseFile.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String baseName = extension > 0 ? name.substring(0, extension) : name;
+        Path output = outputDirectory.resolve(baseName + "-output.txt");
+        Path outputAdvanced = outputDirectory.resolve(baseName + "-output-advanced.txt");
+
+        String cacheKey = null;
+        if (cache != null) {
+            cacheKey = ScheduleCache.key(releaseFile, scheduler);
+            if (cache.copyTo(cacheKey, output, outputAdvanced)) {
+                return;
+            }
+        }
+
+        // Files are scheduled in parallel, so every file is parsed on a single thread
+        ReleaseTable releaseTable = FileUtils.readReleaseTableFromFile(releaseFile.toString());
+        ReleaseTable schedule = scheduler.schedule(releaseTable);
+        FileUtils.writeScheduleToFiles(schedule, output.toString(), outputAdvanced.toString());
+
+        if (cache != null) {
+            cache.put(cacheKey, output, outputAdvanced);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.github.akuiz.happyqa;
+
+import com.github.akuiz.happyqa.algorithm.ExternalSortScheduler;
+import com.github.akuiz.happyqa.algorithm.PipelineScheduler;
+import com.github.akuiz.happyqa.algorithm.Scheduler;
+import com.github.akuiz.happyqa.cache.ScheduleCache;
+import com.github.akuiz.happyqa.fileUtils.BinaryReleaseFormat;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.metrics.SchedulingMetrics;
+import com.github.akuiz.happyqa.release.OffHeapReleaseTable;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import com.github.akuiz.happyqa.server.ScheduleServer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This class is the single launcher of the application. System property 'algorithm' selects basic or advanced
+ * algorithm at runtime and property 'mode' selects what is scheduled: one release file, a whole directory of release
+ * files, a release file watched for appended releases or requests of the scheduling server. Mode 'convert' converts a
+ * release file between text and binary format.
+ * Argument --stats [file] writes times and counts of the scheduling phases to a JSON file after the run.
+ */
+
+public class HappyQA {
+
+    public static void main(String[] args) throws IOException {
+
+        // Get mode: file, batch, watch, convert or server. file by default
+        String mode = System.getProperty("mode", "file");
+
+        // Get algorithm: basic or advanced. advanced by default
+        launch(mode, Scheduler.Type.of(System.getProperty("algorithm", Scheduler.Type.DEFAULT.toString())), args);
+    }
+
+    /**
+     * Schedules release files in the given mode with the given algorithm. In server mode the algorithm is a parameter
+     * of every request instead.
+     *
+     * @param mode file, batch, watch, convert or server
+     * @param args command line arguments, --stats [file] writes the phase metrics to a JSON file, stats.json by default
+     */
+    static void launch(String mode, Scheduler.Type type, String[] args) throws IOException {
+        // The server keeps running in its own threads and registers its own metrics
+        if ("server".equals(mode)) {
+            ScheduleServer.main(args);
+            return;
+        }
+
+        // Phase totals are available over JMX while the run lasts
+        SchedulingMetrics.registerMBean();
+        Path statsFile = statsFile(args);
+        long startNanos = System.nanoTime();
+
+        if ("file".equals(mode)) {
+            run(type);
+        } else if ("batch".equals(mode)) {
+            runBatch(type);
+        } else if ("watch".equals(mode)) {
+            runWatch(type);
+        } else if ("convert".equals(mode)) {
+            runConvert();
+        } else {
+            throw new IllegalArgumentException("Unknown mode: " + mode + ", use file, batch, watch, convert or server");
+        }
+
+        if (statsFile != null) {
+            SchedulingMetrics.writeJson(statsFile, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Returns the file given by --stats, --stats=file or system property stats.file, or null when stats are not requested
+     */
+    static Path statsFile(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].startsWith("--stats=")) {
+                return Path.of(args[i].substring("--stats=".length()));
+            }
+            if ("--stats".equals(args[i])) {
+                boolean fileGiven = i + 1 < args.length && !args[i + 1].startsWith("--");
+                return Path.of(fileGiven ? args[i + 1] : "stats.json");
+            }
+        }
+        String statsFile = System.getProperty("stats.file");
+        return statsFile == null ? null : Path.of(statsFile);
+    }
+
+    /**
+     * Schedules a single release file with the given algorithm, configured by system properties
+     */
+    static void run(Scheduler.Type type) throws IOException {
+
+        String releasesFileName = System.getProperty("releases.file.name", "releases.txt");
+        String outputFileName = System.getProperty("output.file.name", "output.txt");
+        String outputFileNameAdvanced = System.getProperty("output.file.name.advanced", "output-advanced.txt");
+
+        // Get sprint duration, number of testers, weighted and exact modes
+        Scheduler scheduler = Scheduler.fromSystemProperties(type);
+
+        // A binary input may carry the sprint duration its releases are meant for, it is used unless one is given
+        boolean binaryInput = BinaryReleaseFormat.isBinary(Path.of(releasesFileName));
+        if (binaryInput && System.getProperty("sprint.duration") == null) {
+            int sprintDurationHint = BinaryReleaseFormat.readHeader(Path.of(releasesFileName)).getSprintDurationHint();
+            if (sprintDurationHint > 0) {
+                scheduler = new Scheduler(type, sprintDurationHint, scheduler.getTesters(), scheduler.isWeighted(), scheduler.isExact());
+            }
+        }
+
+        // Get number of threads parsing the input file. All available processors by default
+        int parseParallelism = Integer.parseInt(System.getProperty("parse.parallelism",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        // Lines may start with a partition key, e.g. the team, and every partition is scheduled on its own
+        boolean partitioned = Boolean.parseBoolean(System.getProperty("partitioned", "false"));
+
+        // Outputs of the same input and settings are taken from the cache, if it is enabled.
+        // Cache keys don't tell partitioned runs apart, so they are not cached.
+        ScheduleCache cache = partitioned ? null : createCache();
+        String cacheKey = null;
+        if (cache != null) {
+            cacheKey = ScheduleCache.key(Path.of(releasesFileName), scheduler, Path.of(outputFileName),
+                    Path.of(outputFileNameAdvanced));
+            if (cache.copyTo(cacheKey, Path.of(outputFileName), Path.of(outputFileNameAdvanced))) {
+                return;
+            }
+        }
+
+        // Inputs larger than the heap are scheduled with external sort within the given memory budget, e.g. 256m
+        String externalMemoryBudget = System.getProperty("external.memory.budget");
+
+        // or stored off-heap in scratch files of the given directory
+        String offHeapDirectory = System.getProperty("offheap.dir");
+
+        // or streamed through concurrent stages that keep only a few releases per testing day
+        boolean pipeline = Boolean.parseBoolean(System.getProperty("pipeline", "false"));
+
+        // Only one of them is used, so a combination is rejected instead of ignoring all but one
+        int largeInputModes = (externalMemoryBudget != null ? 1 : 0) + (offHeapDirectory != null ? 1 : 0) + (pipeline ? 1 : 0);
+        if (largeInputModes > 1) {
+            throw new IllegalArgumentException("Only one of external.memory.budget, offheap.dir and pipeline can be used");
+        }
+
+        if (partitioned) {
+            if (binaryInput || FileUtils.isGzipped(releasesFileName)) {
+                throw new IllegalArgumentException("Partitioned mode reads text input only");
+            }
+            if (externalMemoryBudget != null || offHeapDirectory != null || pipeline) {
+                throw new IllegalArgumentException("Partitioned mode can't be combined with external.memory.budget, offheap.dir or pipeline");
+            }
+            // Get number of partitions scheduled at the same time. All available processors by default
+            int parallelism = Integer.parseInt(System.getProperty("partition.parallelism",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+            new PartitionedScheduler(scheduler, parallelism).schedule(Path.of(releasesFileName),
+                    Path.of(outputFileName), Path.of(outputFileNameAdvanced));
+        } else if (externalMemoryBudget != null) {
+            if (type != Scheduler.Type.BASIC) {
+                throw new IllegalArgumentException("External sort mode supports the basic algorithm only");
+            }
+            if (scheduler.getTesters() != 1 || scheduler.isWeighted()) {
+                throw new IllegalArgumentException("External sort mode supports a single tester and no weights only");
+            }
+            if (binaryInput) {
+                throw new IllegalArgumentException("External sort mode reads text input only, use offheap.dir for binary input");
+            }
+            if (FileUtils.isGzipped(releasesFileName) || outputFileName.endsWith(FileUtils.GZIP_SUFFIX)
+                    || outputFileNameAdvanced.endsWith(FileUtils.GZIP_SUFFIX)) {
+                throw new IllegalArgumentException("External sort mode reads and writes uncompressed files only, use offheap.dir for gzip");
+            }
+            Path temporaryDirectory = Path.of(System.getProperty("external.temp.dir", System.getProperty("java.io.tmpdir")));
+            new ExternalSortScheduler(parseSize(externalMemoryBudget), temporaryDirectory).schedule(Path.of(releasesFileName),
+                    scheduler.getSprintDuration(), Path.of(outputFileName), Path.of(outputFileNameAdvanced));
+        } else if (pipeline) {
+            if (type != Scheduler.Type.BASIC) {
+                throw new IllegalArgumentException("Pipeline mode supports the basic algorithm only");
+            }
+            if (scheduler.getTesters() != 1 || scheduler.isWeighted()) {
+                throw new IllegalArgumentException("Pipeline mode supports a single tester and no weights only");
+            }
+            if (binaryInput || FileUtils.isGzipped(releasesFileName)) {
+                throw new IllegalArgumentException("Pipeline mode reads text input only");
+            }
+            // Get number of blocks buffered between two stages of the pipeline. 8 by default
+            int bufferCapacity = Integer.parseInt(System.getProperty("pipeline.buffer",
+                    String.valueOf(PipelineScheduler.DEFAULT_BUFFER_CAPACITY)));
+            new PipelineScheduler(bufferCapacity).schedule(Path.of(releasesFileName), scheduler.getSprintDuration(),
+                    Path.of(outputFileName), Path.of(outputFileNameAdvanced));
+        } else if (offHeapDirectory != null) {
+            try (OffHeapReleaseTable releaseTable = FileUtils.readOffHeapReleaseTableFromFile(releasesFileName,
+                    Path.of(offHeapDirectory))) {
+                ReleaseTable optimalReleaseTestingSchedule = scheduler.schedule(releaseTable);
+                FileUtils.writeScheduleToFiles(optimalReleaseTestingSchedule, outputFileName, outputFileNameAdvanced);
+            }
+        } else {
+            // Parse input file and initialise releaseTable variable.
+            ReleaseTable releaseTable = FileUtils.readReleaseTableFromFile(releasesFileName, parseParallelism);
+
+            //Start the algorithm
+            ReleaseTable optimalReleaseTestingSchedule = scheduler.schedule(releaseTable);
+
+            // Output releases to test with their start testing day and end testing day,
+            // and release schedule with all details, in a single pass over the schedule.
+            FileUtils.writeScheduleToFiles(optimalReleaseTestingSchedule, outputFileName, outputFileNameAdvanced);
+        }
+
+        if (cache != null) {
+            cache.put(cacheKey, Path.of(outputFileName), Path.of(outputFileNameAdvanced));
+        }
+    }
+
+    /**
+     * Schedules every release file of a directory with the given algorithm, configured by system properties
+     */
+    static void runBatch(Scheduler.Type type) throws IOException {
+
+        Path releasesDirectory = Path.of(System.getProperty("releases.dir", "."));
+        String releasesGlob = System.getProperty("releases.glob", "*.txt");
+        Path outputDirectory = Path.of(System.getProperty("output.dir", releasesDirectory.resolve("output").toString()));
+
+        // Get number of files scheduled at the same time. All available processors by default
+        int parallelism = Integer.parseInt(System.getProperty("batch.parallelism",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        ScheduleCache cache = createCache();
+        int files = new BatchScheduler(Scheduler.fromSystemProperties(type), parallelism, cache)
+                .schedule(releasesDirectory, releasesGlob, outputDirectory);
+        System.out.println("Scheduled " + files + " release files into " + outputDirectory);
+        if (cache != null) {
+            System.out.println("Cache hits: " + cache.getMemoryHits() + " in memory, " + cache.getDiskHits()
+                    + " on disk, misses: " + cache.getMisses());
+        }
+    }
+
+    /**
+     * Keeps the outputs of a release file up to date while releases are appended to it, until the process is stopped
+     */
+    static void runWatch(Scheduler.Type type) throws IOException {
+
+        Path releasesFile = Path.of(System.getProperty("releases.file.name", "releases.txt"));
+        Path output = Path.of(System.getProperty("output.file.name", "output.txt"));
+        Path outputAdvanced = Path.of(System.getProperty("output.file.name.advanced", "output-advanced.txt"));
+
+        // Appended lines are parsed as text, the file may not exist yet
+        if (Files.exists(releasesFile)
+                && (BinaryReleaseFormat.isBinary(releasesFile) || FileUtils.isGzipped(releasesFile.toString()))) {
+            throw new IllegalArgumentException("Watch mode reads text input only");
+        }
+
+        ReleaseWatcher watcher = new ReleaseWatcher(releasesFile, output, outputAdvanced, Scheduler.fromSystemProperties(type));
+        System.out.println("Watching " + releasesFile + " for appended releases");
+        try {
+            watcher.watch();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Converts a release file from text to binary format or back, the format of the input is detected
+     */
+    static void runConvert() throws IOException {
+
+        Path releasesFile = Path.of(System.getProperty("releases.file.name", "releases.txt"));
+        boolean binaryInput = BinaryReleaseFormat.isBinary(releasesFile);
+
+        // Get output file. Input file with .bin or .txt extension instead of its own and .gz by default
+        String baseName = releasesFile.getFileName().toString().replaceFirst("(\\.[^.]*)?(\\.gz)?$", "");
+        Path convertedFile = Path.of(System.getProperty("convert.output.file.name",
+                releasesFile.resolveSibling(baseName + (binaryInput ? ".txt" : ".bin")).toString()));
+        if (convertedFile.toAbsolutePath().equals(releasesFile.toAbsolutePath())) {
+            throw new IllegalArgumentException("Converted file must differ from the input: " + convertedFile);
+        }
+
+        int releases;
+        if (binaryInput) {
+            releases = BinaryReleaseFormat.convertToText(releasesFile, convertedFile);
+        } else {
+            // Sprint duration, if given, is stored as a hint for scheduling the binary file
+            releases = BinaryReleaseFormat.convertToBinary(releasesFile, convertedFile,
+                    Integer.parseInt(System.getProperty("sprint.duration", "0")));
+        }
+        System.out.println("Converted " + releases + " releases into " + convertedFile);
+    }
+
+    /**
+     * Creates the schedule cache when system property cache.dir is set, otherwise returns null
+     */
+    private static ScheduleCache createCache() throws IOException {
+        String cacheDirectory = System.getProperty("cache.dir");
+        if (cacheDirectory == null) {
+            return null;
+        }
+        // Get sizes of the memory and disk tiers. 64m and 1g by default
+        long memoryBudget = parseSize(System.getProperty("cache.memory.budget", "64m"));
+        long diskCapacity = parseSize(System.getProperty("cache.disk.capacity", "1g"));
+        return new ScheduleCache(memoryBudget, Path.of(cacheDirectory), diskCapacity);
+    }
+
+    /**
+     * Parses a size in bytes with an optional k, m or g suffix
+     */
+    private static long parseSize(String size) {
+        String value = size.trim().toLowerCase();
+        long multiplier = 1;
+        if (value.endsWith("k")) {
+            multiplier = 1L << 10;
+        } else if (value.endsWith("m")) {
+            multiplier = 1L << 20;
+        } else if (value.endsWith("g")) {
+            multiplier = 1L << 30;
+        }
+        if (multiplier > 1) {
+            value = value.substring(0, value.length() - 1);
+        }
+        return Long.parseLong(value) * multiplier;
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.akuiz.happyqa;
+
+import com.github.akuiz.happyqa.algorithm.Scheduler;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class schedules a release file of several teams in one JVM run. Every line may start with a partition key,
+ * e.g. the team or tester pool of the release, and every partition is scheduled on its own on a work-stealing pool.
+ * Outputs have one section per partition, sorted by partition key, so they don't depend on the order the partitions
+ * are scheduled in. Each section is the same as the output of a release file with only the lines of its partition.
+ */
+
+public class PartitionedScheduler {
+
+    private final Scheduler scheduler;
+
+    private final int parallelism;
+
+    /**
+     * Creates a partitioned scheduler
+     *
+     * @param scheduler   scheduler applied to every partition
+     * @param parallelism number of partitions scheduled at the same time
+     */
+    public PartitionedScheduler(Scheduler scheduler, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.scheduler = scheduler;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Schedules releases of a partitioned file and writes one section per partition into both output files
+     *
+     * @param releasesFile       the path to the input file
+     * @param outputFile         output file with delivery day and end testing day of the releases
+     * @param outputFileAdvanced output file with all details of the releases
+     * @return number of partitions
+     * @throws IOException if an I/O error occurs.
+     */
+    public int schedule(Path releasesFile, Path outputFile, Path outputFileAdvanced) throws IOException {
+        SortedMap<String, ReleaseTable> partitions = FileUtils.readPartitionedReleaseTablesFromFile(releasesFile.toString());
+        SortedMap<String, ReleaseTable> schedules = schedule(partitions);
+        FileUtils.writePartitionedScheduleToFiles(schedules, outputFile.toString(), outputFileAdvanced.toString());
+        return schedules.size();
+    }
+
+    /**
+     * Schedules every partition independently. Tables of the partitions are trimmed in place.
+     *
+     * @param partitions release tables by partition key
+     * @return release schedules by partition key
+     * @throws InterruptedIOException if the thread is interrupted while waiting for the partitions
+     */
+    public SortedMap<String, ReleaseTable> schedule(SortedMap<String, ReleaseTable> partitions) throws InterruptedIOException {
+        // Largest partitions are started first, so a large one doesn't start last and hold the run back
+        List<Map.Entry<String, ReleaseTable>> entries = new ArrayList<>(partitions.entrySet());
+        entries.sort((entry1, entry2) -> Integer.compare(entry2.getValue().size(), entry1.getValue().size()));
+
+        List<Callable<ReleaseTable>> tasks = new ArrayList<>(entries.size());
+        for (Map.Entry<String, ReleaseTable> entry : entries) {
+            tasks.add(() -> scheduler.schedule(entry.getValue()));
+        }
+
+        List<Future<ReleaseTable>> results;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            results = pool.invokeAll(tasks);
+        } finally {
+            pool.shutdown();
+        }
+
+        SortedMap<String, ReleaseTable> schedules = new TreeMap<>(partitions.comparator());
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                schedules.put(entries.get(i).getKey(), results.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while scheduling partitions");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException("Failed to schedule partition " + entries.get(i).getKey(), cause);
+            }
+        }
+        return schedules;
+    }
+}
@@ -0,0 +1,303 @@
+package com.github.akuiz.happyqa;
+
+import com.github.akuiz.happyqa.algorithm.IncrementalScheduler;
+import com.github.akuiz.happyqa.algorithm.Scheduler;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.fileUtils.ReleaseDecoder;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+
+/**
+ * This class keeps output files up to date while releases are appended to the input file. Only the bytes appended
+ * since the last update are parsed, complete lines only, and release IDs continue the numbering of the earlier lines.
+ * The basic algorithm with a single tester and no weights updates the schedule incrementally, other settings
+ * reschedule all releases parsed so far. Output files are replaced atomically, so readers never see a partial one.
+ * When the input file gets shorter than the parsed part, it is parsed again from the start.
+ * An appended line that is not in releases.txt format is reported and skipped, the lines after it are scheduled.
+ */
+
+public class ReleaseWatcher {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path releasesFile;
+
+    private final Path output;
+
+    private final Path outputAdvanced;
+
+    private final Scheduler scheduler;
+
+    private final boolean incremental;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Releases of the lines decoded by the last update
+     */
+    private final ReleaseTable appendedReleases = new ReleaseTable();
+
+    /**
+     * All releases parsed so far, used when the schedule is not incremental
+     */
+    private ReleaseTable releaseTable;
+
+    private IncrementalScheduler incrementalScheduler;
+
+    private ReleaseDecoder decoder;
+
+    /**
+     * Offset of the first byte not parsed yet, always at a line start
+     */
+    private long parsedOffset;
+
+    /**
+     * Whether the outputs of the current input were written at least once
+     */
+    private boolean written;
+
+    /**
+     * Number of invalid lines skipped so far
+     */
+    private int skippedLines;
+
+    /**
+     * Creates a watcher, no file is read until the first update
+     *
+     * @param releasesFile   input file with releases
+     * @param output         output file with the schedule
+     * @param outputAdvanced output file with the schedule details
+     * @param scheduler      scheduler settings
+     */
+    public ReleaseWatcher(Path releasesFile, Path output, Path outputAdvanced, Scheduler scheduler) {
+        this.releasesFile = releasesFile;
+        this.output = output;
+        this.outputAdvanced = outputAdvanced;
+        this.scheduler = scheduler;
+        this.incremental = scheduler.getType() == Scheduler.Type.BASIC && scheduler.getTesters() == 1
+                && !scheduler.isWeighted();
+        reset();
+    }
+
+    /**
+     * Parses lines appended since the last update and rewrites the output files if there are new releases.
+     * The output files are also written by the first update, even for an empty input.
+     *
+     * @return number of new releases
+     * @throws IOException if the files can't be read or written
+     */
+    public int update() throws IOException {
+        int appended;
+        try (FileChannel channel = FileChannel.open(releasesFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < parsedOffset) {
+                // The file was truncated or replaced, start over
+                reset();
+            }
+            long lineEnd = lastLineEnd(channel, parsedOffset, size);
+            appended = decode(channel, parsedOffset, lineEnd);
+            parsedOffset = lineEnd;
+        }
+
+        if (appended > 0 || !written) {
+            writeAtomically(currentSchedule());
+            written = true;
+        }
+        return appended;
+    }
+
+    /**
+     * Updates the output files after every change of the input file until the thread is interrupted
+     *
+     * @throws IOException if the files can't be read or written
+     */
+    public void watch() throws IOException, InterruptedException {
+        Path directory = releasesFile.toAbsolutePath().getParent();
+        Path fileName = releasesFile.getFileName();
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            // Register before the first update, so no append between them is missed
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            update();
+
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // Overflow means events were lost, the file may have changed
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context());
+                }
+                if (changed) {
+                    try {
+                        update();
+                    } catch (NoSuchFileException e) {
+                        // Deleted before it was read, the next create event brings it back
+                    }
+                }
+                if (!key.reset()) {
+                    throw new IOException("Directory " + directory + " is no longer accessible");
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of appended lines skipped as not in releases.txt format
+     */
+    public int getSkippedLines() {
+        return skippedLines;
+    }
+
+    /**
+     * Returns the schedule of all releases parsed so far
+     */
+    public ReleaseTable currentSchedule() {
+        if (incremental) {
+            return incrementalScheduler.getSchedule();
+        }
+        // Scheduling trims the table in place, parsed releases are kept for the next update
+        return scheduler.schedule(releaseTable.copy());
+    }
+
+    private void reset() {
+        releaseTable = new ReleaseTable();
+        incrementalScheduler = new IncrementalScheduler(scheduler.getSprintDuration());
+        decoder = new ReleaseDecoder(appendedReleases);
+        parsedOffset = 0;
+        written = false;
+    }
+
+    /**
+     * Returns the offset after the last line break between the offsets, or the start offset if there is none
+     */
+    private long lastLineEnd(FileChannel channel, long start, long end) throws IOException {
+        long chunkEnd = end;
+        while (chunkEnd > start) {
+            long chunkStart = Math.max(start, chunkEnd - BUFFER_SIZE);
+            buffer.clear().limit((int) (chunkEnd - chunkStart));
+            readFully(channel, chunkStart);
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return chunkStart + i + 1;
+                }
+            }
+            chunkEnd = chunkStart;
+        }
+        return start;
+    }
+
+    /**
+     * Decodes complete lines between the offsets and adds their releases to the schedule
+     */
+    private int decode(FileChannel channel, long start, long end) throws IOException {
+        appendedReleases.truncate(0);
+        int firstOrdinal = decoder.getNextOrdinal();
+        long firstLineNumber = decoder.getLineNumber();
+        try {
+            for (long position = start; position < end; position += buffer.limit()) {
+                buffer.clear().limit((int) Math.min(BUFFER_SIZE, end - position));
+                readFully(channel, position);
+                decoder.decode(buffer);
+            }
+        } catch (NumberFormatException e) {
+            // The decoder stopped within a line, decode the appended lines again one by one
+            appendedReleases.truncate(0);
+            decodeSkippingInvalidLines(channel, start, end, firstOrdinal, firstLineNumber);
+        }
+
+        if (incremental) {
+            for (int row = 0; row < appendedReleases.size(); row++) {
+                incrementalScheduler.insert(appendedReleases.getDeliveryDay(row), appendedReleases.getTimeToTest(row),
+                        appendedReleases.getOrdinal(row));
+            }
+        } else {
+            releaseTable.addAll(appendedReleases, 0);
+        }
+        return appendedReleases.size();
+    }
+
+    /**
+     * Decodes complete lines between the offsets one by one, an invalid line is reported and adds no release
+     */
+    private void decodeSkippingInvalidLines(FileChannel channel, long start, long end, int ordinal, long lineNumber)
+            throws IOException {
+        byte[] line = new byte[128];
+        int length = 0;
+        for (long position = start; position < end; position += buffer.limit()) {
+            buffer.clear().limit((int) Math.min(BUFFER_SIZE, end - position));
+            readFully(channel, position);
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+                if (b != '\n') {
+                    continue;
+                }
+                int size = appendedReleases.size();
+                ReleaseDecoder lineDecoder = new ReleaseDecoder(appendedReleases, ordinal, lineNumber);
+                try {
+                    lineDecoder.decode(ByteBuffer.wrap(line, 0, length));
+                    ordinal = lineDecoder.getNextOrdinal();
+                } catch (NumberFormatException e) {
+                    appendedReleases.truncate(size);
+                    skippedLines++;
+                    System.err.println(releasesFile + ": " + e.getMessage() + ", the line is skipped");
+                }
+                lineNumber++;
+                length = 0;
+            }
+        }
+        // Both offsets are line starts, so the next update starts with a new line
+        decoder = new ReleaseDecoder(appendedReleases, ordinal, lineNumber);
+    }
+
+    private void readFully(FileChannel channel, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("File " + releasesFile + " was truncated while reading");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Writes the outputs next to the target files and moves them in place
+     */
+    private void writeAtomically(ReleaseTable schedule) throws IOException {
+        Path temporaryOutput = temporaryFile(output);
+        Path temporaryOutputAdvanced = temporaryFile(outputAdvanced);
+        try {
+            FileUtils.writeScheduleToFiles(schedule, temporaryOutput.toString(), temporaryOutputAdvanced.toString());
+            Files.move(temporaryOutput, output, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temporaryOutputAdvanced, outputAdvanced, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryOutput);
+            Files.deleteIfExists(temporaryOutputAdvanced);
+        }
+    }
+
+    /**
+     * Creates an empty file next to the target. The .gz suffix of the target is kept, so the output is gzipped as well.
+     */
+    private static Path temporaryFile(Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        String name = target.getFileName().toString();
+        return Files.createTempFile(directory, name + ".", name.endsWith(FileUtils.GZIP_SUFFIX) ? ".tmp" + FileUtils.GZIP_SUFFIX : ".tmp");
+    }
+}
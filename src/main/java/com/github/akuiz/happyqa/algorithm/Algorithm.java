@@ -1,11 +1,19 @@
 package com.github.akuiz.happyqa.algorithm;
 
+import com.github.akuiz.happyqa.metrics.Phase;
+import com.github.akuiz.happyqa.metrics.PhaseTimer;
+import com.github.akuiz.happyqa.release.OffHeapReleaseTable;
 import com.github.akuiz.happyqa.release.Release;
+import com.github.akuiz.happyqa.release.ReleaseTable;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.function.Function;
 
 public class Algorithm {
 
@@ -35,12 +43,13 @@ public class Algorithm {
          */
 
         // Sort the releases by the end testing day in ascending order.
-        releaseList.sort(Comparator.comparingInt(Release::getEndTestingDay));
+        reorder(releaseList, releases -> ReleaseSort.byEndTestingDay(releases, null));
 
         // Create a placeholder optimal release to add first one from the sorted list as optimal
         Release optimalRelease = new Release(0, 0);//releaseList.get(0);
 
         // Go through all releases
+        PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
         for (Release release : releaseList) {
             // Next release that does not overlap with optimal release -> add it to the release schedule and make it optimal.
             if (release.getStartTestingDay() > optimalRelease.getEndTestingDay()) {
@@ -48,6 +57,7 @@ public class Algorithm {
                 optimalReleasTestingSchedule.add(optimalRelease);
             }
         }
+        timer.stop(optimalReleasTestingSchedule.size());
         // Optimal release schedule
         return optimalReleasTestingSchedule;
     }
@@ -59,7 +69,10 @@ public class Algorithm {
      * @param sprintDuration duration of the sprint in days
      */
     public static void trimReleaseList(List<Release> releaselist, int sprintDuration) {
+        PhaseTimer timer = PhaseTimer.start(Phase.TRIM);
+        int size = releaselist.size();
         releaselist.removeIf(release -> release.getEndTestingDay() > sprintDuration);
+        timer.stop(size - releaselist.size());
     }
 
     /**
@@ -86,15 +99,7 @@ public class Algorithm {
          */
 
         // Sort the release list by startTestingDay (ascending) following by testing time descending.
-        releaseList.sort((r1, r2) -> {
-            // First, compare by startTestingDay (ascending)
-            int startTestingComparison = Integer.compare(r1.getStartTestingDay(), r2.getStartTestingDay());
-            if (startTestingComparison != 0) {
-                return startTestingComparison;
-            }
-            // If startTestingDay is the same, compare by testing (descending)
-            return Integer.compare(r2.getTimeToTest(), r1.getTimeToTest());
-        });
+        reorder(releaseList, releases -> ReleaseSort.byStartTestingDayThenLongestFirst(releases, null));
 
         // Initialise an empty release list for optimal release testing schedule
         List<Release> optimalReleaseTestingSchedule = new ArrayList<>();
@@ -104,13 +109,15 @@ public class Algorithm {
         * */
         Release optimalRelease = new Release(sprintDuration + 1, 1);
 
-        // Go through the sorted release backwards
-        for (int i = releaseList.size() - 1; i >= 0; i--) {
+        // Go through the sorted release backwards, with an iterator as the list may have no fast random access
+        PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+        for (ListIterator<Release> iterator = releaseList.listIterator(releaseList.size()); iterator.hasPrevious(); ) {
+            Release release = iterator.previous();
             // If a release doesn't overlap with optimal release
-            if (releaseList.get(i).getEndTestingDay() < optimalRelease.getStartTestingDay()) {
+            if (release.getEndTestingDay() < optimalRelease.getStartTestingDay()) {
                 // 'Make it' optimal and also 'move' this release next to the optimal by adjusting startTestingDay
-                optimalRelease = new Release(releaseList.get(i).getDeliveryDay(), optimalRelease.getStartTestingDay() - releaseList.get(i).getTimeToTest(), releaseList.get(i).getTimeToTest());
-                optimalRelease.setId(releaseList.get(i).getId());
+                optimalRelease = new Release(release.getDeliveryDay(), optimalRelease.getStartTestingDay() - release.getTimeToTest(), release.getTimeToTest());
+                optimalRelease.copyIdFrom(release);
                 // Add optimal release to the final schedule
                 optimalReleaseTestingSchedule.add(optimalRelease);
             }
@@ -118,6 +125,474 @@ public class Algorithm {
 
         //Since we were going through the release backwards, it's better to reverse it for better understanding.
         Collections.reverse(optimalReleaseTestingSchedule);
+        timer.stop(optimalReleaseTestingSchedule.size());
+        return optimalReleaseTestingSchedule;
+    }
+
+    /**
+     * This method puts releases of the list into the sorted order. Sort keys are read from an array copy of the list
+     * and releases are written back through a list iterator, so a list without fast random access, e.g. a LinkedList,
+     * is sorted in O(n log n) too.
+     *
+     * @param releaseList given list of releases
+     * @param sort        returns positions of the releases of a random access list in the sorted order
+     */
+    private static void reorder(List<Release> releaseList, Function<List<Release>, int[]> sort) {
+        Release[] releases = releaseList.toArray(new Release[0]);
+        int[] positions = sort.apply(Arrays.asList(releases));
+        ListIterator<Release> iterator = releaseList.listIterator();
+        for (int position : positions) {
+            iterator.next();
+            iterator.set(releases[position]);
+        }
+    }
+
+    /**
+     * This method provides the same schedule as {@link #createOptimalTestingSchedule(List, int)} but leaves the given
+     * list untouched. Releases are trimmed and sorted through an array of positions in the list, so the same list can
+     * be scheduled many times, e.g. for different sprint durations.
+     *
+     * @param releaseList    given list of releases
+     * @param sprintDuration duration of the sprint in days
+     */
+    public static List<Release> createOptimalTestingScheduleNonDestructive(List<Release> releaseList, int sprintDuration) {
+        List<Release> releases = randomAccess(releaseList);
+
+        // Positions of 'in time to test' releases sorted by the end testing day in ascending order.
+        int[] sortedPositions = ReleaseSort.byEndTestingDay(releases, trimmedPositions(releases, sprintDuration));
+
+        PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+        List<Release> optimalReleaseTestingSchedule = new ArrayList<>();
+        int optimalEndTestingDay = 0;
+        for (int position : sortedPositions) {
+            Release release = releases.get(position);
+            // Next release that does not overlap with optimal release -> add it to the release schedule and make it optimal.
+            if (release.getStartTestingDay() > optimalEndTestingDay) {
+                optimalEndTestingDay = release.getEndTestingDay();
+                optimalReleaseTestingSchedule.add(release);
+            }
+        }
+        timer.stop(optimalReleaseTestingSchedule.size());
+        return optimalReleaseTestingSchedule;
+    }
+
+    /**
+     * This method provides the same schedule as {@link #releaseScheduleAdvanced(List, int)} but leaves the given
+     * list untouched. Releases are trimmed and sorted through an array of positions in the list, so the same list can
+     * be scheduled many times, e.g. for different sprint durations.
+     *
+     * @param releaseList    given list of releases
+     * @param sprintDuration duration of the sprint in days
+     */
+    public static List<Release> releaseScheduleAdvancedNonDestructive(List<Release> releaseList, int sprintDuration) {
+        List<Release> releases = randomAccess(releaseList);
+
+        // Positions of 'in time to test' releases sorted by startTestingDay (ascending) following by testing time descending.
+        int[] sortedPositions = ReleaseSort.byStartTestingDayThenLongestFirst(releases, trimmedPositions(releases, sprintDuration));
+
+        PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+        List<Release> optimalReleaseTestingSchedule = new ArrayList<>();
+        int optimalStartTestingDay = sprintDuration + 1;
+        for (int i = sortedPositions.length - 1; i >= 0; i--) {
+            Release release = releases.get(sortedPositions[i]);
+            // If a release doesn't overlap with optimal release, 'move' it next to the optimal and make it optimal
+            if (release.getEndTestingDay() < optimalStartTestingDay) {
+                optimalStartTestingDay -= release.getTimeToTest();
+                Release optimalRelease = new Release(release.getDeliveryDay(), optimalStartTestingDay, release.getTimeToTest());
+                optimalRelease.copyIdFrom(release);
+                optimalReleaseTestingSchedule.add(optimalRelease);
+            }
+        }
+        Collections.reverse(optimalReleaseTestingSchedule);
+        timer.stop(optimalReleaseTestingSchedule.size());
         return optimalReleaseTestingSchedule;
     }
+
+    /**
+     * This method provides the same schedule as {@link #createOptimalTestingSchedule(List, int)} for releases stored
+     * in a primitive table. No objects are allocated per release: the table is trimmed in place, sorted through an
+     * array of row indexes and the schedule is returned as another table.
+     *
+     * @param releaseTable   given table of releases
+     * @param sprintDuration duration of the sprint in days
+     */
+    public static ReleaseTable createOptimalTestingSchedule(ReleaseTable releaseTable, int sprintDuration) {
+
+        //remove all 'too late to test' releases
+        trimReleaseTable(releaseTable, sprintDuration);
+
+        // Sort the releases by the end testing day in ascending order.
+        return scheduleSortedByEndTestingDay(releaseTable, ReleaseSort.byEndTestingDay(releaseTable, null));
+    }
+
+    /**
+     * This method provides the same schedule as {@link #createOptimalTestingSchedule(ReleaseTable, int)} but leaves
+     * the given table untouched, releases are trimmed and sorted through an array of row indexes.
+     *
+     * @param releaseTable   given table of releases
+     * @param sprintDuration duration of the sprint in days
+     */
+    public static ReleaseTable createOptimalTestingScheduleNonDestructive(ReleaseTable releaseTable, int sprintDuration) {
+        int[] sortedRows = ReleaseSort.byEndTestingDay(releaseTable, trimmedRows(releaseTable, sprintDuration));
+        return scheduleSortedByEndTestingDay(releaseTable, sortedRows);
+    }
+
+    /**
+     * This method removes all 'too late to test' releases from the provided release table based on the sprint duration.
+     * Remaining releases keep their order.
+     *
+     * @param releaseTable   given table of releases
+     * @param sprintDuration duration of the sprint in days
+     */
+    public static void trimReleaseTable(ReleaseTable releaseTable, int sprintDuration) {
+        PhaseTimer timer = PhaseTimer.start(Phase.TRIM);
+        int size = 0;
+        for (int row = 0; row < releaseTable.size(); row++) {
+            if (releaseTable.getEndTestingDay(row) <= sprintDuration) {
+                releaseTable.copyRow(row, size++);
+            }
+        }
+        int trimmed = releaseTable.size() - size;
+        releaseTable.truncate(size);
+        timer.stop(trimmed);
+    }
+
+    /**
+     * This method provides the same schedule as {@link #releaseScheduleAdvanced(List, int)} for releases stored
+     * in a primitive table. No objects are allocated per release: the table is trimmed in place, sorted through an
+     * array of row indexes and the schedule is returned as another table with adjusted start testing days.
+     *
+     * @param releaseTable   given table of releases
+     * @param sprintDuration duration of the sprint in days
+     */
+    public static ReleaseTable releaseScheduleAdvanced(ReleaseTable releaseTable, int sprintDuration) {
+
+        //remove all 'too late to test' releases
+        trimReleaseTable(releaseTable, sprintDuration);
+
+        // Sort the release table by startTestingDay (ascending) following by testing time descending.
+        int[] sortedRows = ReleaseSort.byStartTestingDayThenLongestFirst(releaseTable, null);
+        return scheduleSortedByStartTestingDay(releaseTable, sortedRows, sprintDuration);
+    }
+
+    /**
+     * This method provides the same schedule as {@link #releaseScheduleAdvanced(ReleaseTable, int)} but leaves
+     * the given table untouched, releases are trimmed and sorted through an array of row indexes.
+     *
+     * @param releaseTable   given table of releases
+     * @param sprintDuration duration of the sprint in days
+     */
+    public static ReleaseTable releaseScheduleAdvancedNonDestructive(ReleaseTable releaseTable, int sprintDuration) {
+        int[] sortedRows = ReleaseSort.byStartTestingDayThenLongestFirst(releaseTable, trimmedRows(releaseTable, sprintDuration));
+        return scheduleSortedByStartTestingDay(releaseTable, sortedRows, sprintDuration);
+    }
+
+    /**
+     * This method provides best release testing schedule for several testers working in parallel, considering the
+     * following
+     * release testing must start on the same day of the delivery
+     * each tester tests one release at a time
+     * any taken release must be completed within a sprint
+     * Each release of the schedule is assigned to a tester, one tester gives the same schedule as
+     * {@link #createOptimalTestingSchedule(ReleaseTable, int)} with no testers assigned.
+     * The table is trimmed in place.
+     *
+     * @param releaseTable   given table of releases
+     * @param sprintDuration duration of the sprint in days
+     * @param testers        number of testers
+     */
+    public static ReleaseTable createOptimalTestingSchedule(ReleaseTable releaseTable, int sprintDuration, int testers) {
+        if (checkTesters(testers) == 1) {
+            return createOptimalTestingSchedule(releaseTable, sprintDuration);
+        }
+
+        //remove all 'too late to test' releases
+        trimReleaseTable(releaseTable, sprintDuration);
+
+        // Sort the releases by the end testing day in ascending order.
+        int[] sortedRows = ReleaseSort.byEndTestingDay(releaseTable, null);
+        PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+        ReleaseTable schedule = MultiTesterScheduler.scheduleSortedByEndTestingDay(releaseTable, sortedRows, testers);
+        timer.stop(schedule.size());
+        return schedule;
+    }
+
+    /**
+     * This method provides the maximal release testing schedule, considering the following
+     * release testing can be postponed
+     * no 'parallel' testing of releases
+     * any taken release must be completed within a sprint
+     * Unlike {@link #releaseScheduleAdvanced(ReleaseTable, int)}, which keeps every release that fits after the
+     * ones already taken, a long release is dropped whenever that leaves room for more releases, so the number of
+     * releases is always the maximal one. The table is trimmed in place.
+     *
+     * @param releaseTable   given table of releases
+     * @param sprintDuration duration of the sprint in days
+     */
+    public static ReleaseTable releaseScheduleAdvancedExact(ReleaseTable releaseTable, int sprintDuration) {
+
+        //remove all 'too late to test' releases
+        trimReleaseTable(releaseTable, sprintDuration);
+
+        // Sort the release table by startTestingDay (ascending) following by testing time descending.
+        int[] sortedRows = ReleaseSort.byStartTestingDayThenLongestFirst(releaseTable, null);
+        PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+        ReleaseTable schedule = MooreHodgsonScheduler.scheduleSortedByStartTestingDay(releaseTable, sortedRows, sprintDuration);
+        timer.stop(schedule.size());
+        return schedule;
+    }
+
+    /**
+     * This method provides release testing schedule for several testers working in parallel, considering the
+     * following
+     * release testing can be postponed
+     * each tester tests one release at a time
+     * any taken release must be completed within a sprint
+     * Each release of the schedule is assigned to a tester, one tester gives the same schedule as
+     * {@link #releaseScheduleAdvanced(ReleaseTable, int)} with no testers assigned.
+     * The table is trimmed in place.
+     *
+     * @param releaseTable   given table of releases
+     * @param sprintDuration duration of the sprint in days
+     * @param testers        number of testers
+     */
+    public static ReleaseTable releaseScheduleAdvanced(ReleaseTable releaseTable, int sprintDuration, int testers) {
+        if (checkTesters(testers) == 1) {
+            return releaseScheduleAdvanced(releaseTable, sprintDuration);
+        }
+
+        //remove all 'too late to test' releases
+        trimReleaseTable(releaseTable, sprintDuration);
+
+        // Sort the release table by startTestingDay (ascending) following by testing time descending.
+        int[] sortedRows = ReleaseSort.byStartTestingDayThenLongestFirst(releaseTable, null);
+        PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+        ReleaseTable schedule = MultiTesterScheduler.scheduleSortedByStartTestingDay(releaseTable, sortedRows, sprintDuration, testers);
+        timer.stop(schedule.size());
+        return schedule;
+    }
+
+    /**
+     * This method provides release testing schedule with the maximal total weight of releases, considering the following
+     * release testing must start on the same day of the delivery
+     * no 'parallel' testing of releases
+     * any taken release must be completed within a sprint
+     * Releases without a weight count as 1. The table is trimmed in place.
+     *
+     * @param releaseTable   given table of releases
+     * @param sprintDuration duration of the sprint in days
+     */
+    public static ReleaseTable createOptimalWeightedTestingSchedule(ReleaseTable releaseTable, int sprintDuration) {
+
+        //remove all 'too late to test' releases
+        trimReleaseTable(releaseTable, sprintDuration);
+
+        // Sort the releases by the end testing day in ascending order.
+        int[] sortedRows = ReleaseSort.byEndTestingDay(releaseTable, null);
+        PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+        ReleaseTable schedule = WeightedScheduler.scheduleSortedByEndTestingDay(releaseTable, sortedRows);
+        timer.stop(schedule.size());
+        return schedule;
+    }
+
+    /**
+     * This method provides the same schedule as {@link #createOptimalTestingSchedule(ReleaseTable, int)} for releases
+     * stored off-heap. The table is left untouched, trimmed and sorted rows are kept in its scratch directory,
+     * so the heap holds only the schedule.
+     *
+     * @param releaseTable   given off-heap table of releases
+     * @param sprintDuration duration of the sprint in days
+     * @throws IOException if a scratch file can't be created
+     */
+    public static ReleaseTable createOptimalTestingSchedule(OffHeapReleaseTable releaseTable, int sprintDuration) throws IOException {
+        try (OffHeapReleaseSort.Rows sortedRows = OffHeapReleaseSort.byEndTestingDay(releaseTable,
+                OffHeapReleaseSort.trimmedRows(releaseTable, sprintDuration))) {
+            PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+            ReleaseTable optimalReleaseTestingSchedule = new ReleaseTable();
+            int optimalEndTestingDay = 0;
+            for (int i = 0; i < sortedRows.size(); i++) {
+                int row = sortedRows.get(i);
+                // Next release that does not overlap with optimal release -> add it to the release schedule and make it optimal.
+                if (releaseTable.getStartTestingDay(row) > optimalEndTestingDay) {
+                    optimalEndTestingDay = releaseTable.getEndTestingDay(row);
+                    optimalReleaseTestingSchedule.add(releaseTable.getDeliveryDay(row), releaseTable.getStartTestingDay(row),
+                            releaseTable.getTimeToTest(row), releaseTable.getOrdinal(row));
+                }
+            }
+            timer.stop(optimalReleaseTestingSchedule.size());
+            return optimalReleaseTestingSchedule;
+        }
+    }
+
+    /**
+     * This method provides the same schedule as {@link #releaseScheduleAdvanced(ReleaseTable, int)} for releases
+     * stored off-heap. The table is left untouched, trimmed and sorted rows are kept in its scratch directory,
+     * so the heap holds only the schedule.
+     *
+     * @param releaseTable   given off-heap table of releases
+     * @param sprintDuration duration of the sprint in days
+     * @throws IOException if a scratch file can't be created
+     */
+    public static ReleaseTable releaseScheduleAdvanced(OffHeapReleaseTable releaseTable, int sprintDuration) throws IOException {
+        try (OffHeapReleaseSort.Rows sortedRows = OffHeapReleaseSort.byStartTestingDayThenLongestFirst(releaseTable,
+                OffHeapReleaseSort.trimmedRows(releaseTable, sprintDuration))) {
+            PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+            ReleaseTable optimalReleaseTestingSchedule = new ReleaseTable();
+            int optimalStartTestingDay = sprintDuration + 1;
+            for (int i = sortedRows.size() - 1; i >= 0; i--) {
+                int row = sortedRows.get(i);
+                // If a release doesn't overlap with optimal release, 'move' it next to the optimal and make it optimal
+                if (releaseTable.getEndTestingDay(row) < optimalStartTestingDay) {
+                    optimalStartTestingDay -= releaseTable.getTimeToTest(row);
+                    optimalReleaseTestingSchedule.add(releaseTable.getDeliveryDay(row), optimalStartTestingDay,
+                            releaseTable.getTimeToTest(row), releaseTable.getOrdinal(row));
+                }
+            }
+            optimalReleaseTestingSchedule.reverse();
+            timer.stop(optimalReleaseTestingSchedule.size());
+            return optimalReleaseTestingSchedule;
+        }
+    }
+
+    /**
+     * This method provides the same schedule as {@link #releaseScheduleAdvancedExact(ReleaseTable, int)} for releases
+     * stored off-heap. The table is left untouched, trimmed and sorted rows are kept in its scratch directory,
+     * so the heap holds only the releases taken so far.
+     *
+     * @param releaseTable   given off-heap table of releases
+     * @param sprintDuration duration of the sprint in days
+     * @throws IOException if a scratch file can't be created
+     */
+    public static ReleaseTable releaseScheduleAdvancedExact(OffHeapReleaseTable releaseTable, int sprintDuration) throws IOException {
+        try (OffHeapReleaseSort.Rows sortedRows = OffHeapReleaseSort.byStartTestingDayThenLongestFirst(releaseTable,
+                OffHeapReleaseSort.trimmedRows(releaseTable, sprintDuration))) {
+            PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+            ReleaseTable schedule = MooreHodgsonScheduler.scheduleSortedByStartTestingDay(releaseTable, sortedRows, sprintDuration);
+            timer.stop(schedule.size());
+            return schedule;
+        }
+    }
+
+    /**
+     * This method provides basic algorithm schedule sizes for every sprint duration from 1 to the given maximal one in
+     * a single sort and scan. Schedules for particular durations can be requested from the result.
+     * The given table is left untouched.
+     *
+     * @param releaseTable      given table of releases
+     * @param maxSprintDuration maximal duration of the sprint in days
+     */
+    public static SprintSweep sweepSprintDurations(ReleaseTable releaseTable, int maxSprintDuration) {
+        int[] sortedRows = ReleaseSort.byEndTestingDay(releaseTable, trimmedRows(releaseTable, maxSprintDuration));
+        return SprintSweep.basic(releaseTable, maxSprintDuration, sortedRows);
+    }
+
+    /**
+     * This method provides advanced algorithm schedule sizes for every sprint duration from 1 to the given maximal one.
+     * Releases are sorted once, the backward scan is repeated for each duration.
+     * The given table is left untouched.
+     *
+     * @param releaseTable      given table of releases
+     * @param maxSprintDuration maximal duration of the sprint in days
+     */
+    public static SprintSweep sweepSprintDurationsAdvanced(ReleaseTable releaseTable, int maxSprintDuration) {
+        int[] sortedRows = ReleaseSort.byStartTestingDayThenLongestFirst(releaseTable, trimmedRows(releaseTable, maxSprintDuration));
+        return SprintSweep.advanced(releaseTable, maxSprintDuration, sortedRows);
+    }
+
+    /**
+     * Basic algorithm scan over rows sorted by the end testing day
+     */
+    private static ReleaseTable scheduleSortedByEndTestingDay(ReleaseTable releaseTable, int[] sortedRows) {
+        PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+        ReleaseTable optimalReleaseTestingSchedule = new ReleaseTable();
+
+        // End testing day of the last optimal release, 0 works as a placeholder before the first one
+        int optimalEndTestingDay = 0;
+
+        for (int row : sortedRows) {
+            // Next release that does not overlap with optimal release -> add it to the release schedule and make it optimal.
+            if (releaseTable.getStartTestingDay(row) > optimalEndTestingDay) {
+                optimalEndTestingDay = releaseTable.getEndTestingDay(row);
+                optimalReleaseTestingSchedule.add(releaseTable.getDeliveryDay(row), releaseTable.getStartTestingDay(row),
+                        releaseTable.getTimeToTest(row), releaseTable.getOrdinal(row));
+            }
+        }
+        timer.stop(optimalReleaseTestingSchedule.size());
+        return optimalReleaseTestingSchedule;
+    }
+
+    /**
+     * Advanced algorithm backward scan over rows sorted by start testing day following by testing time descending
+     */
+    static ReleaseTable scheduleSortedByStartTestingDay(ReleaseTable releaseTable, int[] sortedRows, int sprintDuration) {
+        PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+        ReleaseTable optimalReleaseTestingSchedule = new ReleaseTable();
+
+        // Start testing day of the last optimal release. Placeholder is set after sprint duration.
+        int optimalStartTestingDay = sprintDuration + 1;
+
+        // Go through the sorted release backwards
+        for (int i = sortedRows.length - 1; i >= 0; i--) {
+            int row = sortedRows[i];
+            // If a release ends within the sprint and doesn't overlap with optimal release, 'move' it next to the
+            // optimal and make it optimal. Rows of a sprint sweep may end after a shorter sprint.
+            int endTestingDay = releaseTable.getEndTestingDay(row);
+            if (endTestingDay <= sprintDuration && endTestingDay < optimalStartTestingDay) {
+                optimalStartTestingDay -= releaseTable.getTimeToTest(row);
+                optimalReleaseTestingSchedule.add(releaseTable.getDeliveryDay(row), optimalStartTestingDay,
+                        releaseTable.getTimeToTest(row), releaseTable.getOrdinal(row));
+            }
+        }
+
+        //Since we were going through the release backwards, reverse the schedule.
+        optimalReleaseTestingSchedule.reverse();
+        timer.stop(optimalReleaseTestingSchedule.size());
+        return optimalReleaseTestingSchedule;
+    }
+
+    private static int checkTesters(int testers) {
+        if (testers < 1) {
+            throw new IllegalArgumentException("Number of testers must be positive: " + testers);
+        }
+        return testers;
+    }
+
+    /**
+     * Returns rows of the table that can be tested within the sprint, in their table order
+     */
+    private static int[] trimmedRows(ReleaseTable releaseTable, int sprintDuration) {
+        PhaseTimer timer = PhaseTimer.start(Phase.TRIM);
+        int[] rows = new int[releaseTable.size()];
+        int count = 0;
+        for (int row = 0; row < releaseTable.size(); row++) {
+            if (releaseTable.getEndTestingDay(row) <= sprintDuration) {
+                rows[count++] = row;
+            }
+        }
+        timer.stop(rows.length - count);
+        return count == rows.length ? rows : Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Returns positions of the releases that can be tested within the sprint, in their list order
+     */
+    private static int[] trimmedPositions(List<Release> releaseList, int sprintDuration) {
+        PhaseTimer timer = PhaseTimer.start(Phase.TRIM);
+        int[] positions = new int[releaseList.size()];
+        int count = 0;
+        for (int position = 0; position < positions.length; position++) {
+            if (releaseList.get(position).getEndTestingDay() <= sprintDuration) {
+                positions[count++] = position;
+            }
+        }
+        timer.stop(positions.length - count);
+        return count == positions.length ? positions : Arrays.copyOf(positions, count);
+    }
+
+    /**
+     * Returns the list itself when it has fast random access, otherwise its array-backed copy
+     */
+    private static List<Release> randomAccess(List<Release> releaseList) {
+        return releaseList instanceof RandomAccess ? releaseList : new ArrayList<>(releaseList);
+    }
 }
@@ -0,0 +1,123 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class checks advanced algorithm schedules against an exhaustive search, which is only possible for small inputs.
+ * Every subset of releases is tried: a subset fits the sprint when testing its releases in delivery order, each as
+ * early as possible, ends within the sprint. It shares no code with the schedulers it verifies.
+ */
+
+public final class BruteForceVerifier {
+
+    /**
+     * Largest number of 'in time to test' releases the exhaustive search accepts
+     */
+    public static final int MAX_RELEASES = 20;
+
+    private BruteForceVerifier() {
+    }
+
+    /**
+     * Returns the maximal number of postponable releases a single tester can test within the sprint
+     *
+     * @param releaseTable   given table of releases, left untouched
+     * @param sprintDuration duration of the sprint in days
+     * @throws IllegalArgumentException if more than {@link #MAX_RELEASES} releases can be tested within the sprint
+     */
+    public static int maxAdvancedScheduleSize(ReleaseTable releaseTable, int sprintDuration) {
+        int[][] releases = inTimeToTestReleases(releaseTable, sprintDuration);
+        if (releases.length > MAX_RELEASES) {
+            throw new IllegalArgumentException("Too many releases for exhaustive search: " + releases.length);
+        }
+
+        // Delivery order makes the earliest possible end of any subset
+        Arrays.sort(releases, (a, b) -> Integer.compare(a[0], b[0]));
+
+        int best = 0;
+        for (int subset = 0; subset < 1 << releases.length; subset++) {
+            int count = Integer.bitCount(subset);
+            if (count <= best) {
+                continue;
+            }
+            long endTestingDay = Long.MIN_VALUE;
+            for (int i = 0; i < releases.length && endTestingDay <= sprintDuration; i++) {
+                if ((subset & 1 << i) != 0) {
+                    endTestingDay = Math.max(endTestingDay + 1, releases[i][0]) + releases[i][1] - 1;
+                }
+            }
+            if (endTestingDay <= sprintDuration) {
+                best = count;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Checks that a schedule is valid for the given releases: every release of the schedule is one of the given
+     * releases taken once, it is tested after the delivery, within the sprint, and not in parallel with another one.
+     * For small inputs the schedule size is also compared with the exhaustive search.
+     *
+     * @param releaseTable   given table of releases, left untouched
+     * @param schedule       schedule to check
+     * @param sprintDuration duration of the sprint in days
+     * @throws IllegalStateException if the schedule is not valid or not optimal
+     */
+    public static void verifyAdvancedSchedule(ReleaseTable releaseTable, ReleaseTable schedule, int sprintDuration) {
+        Map<Integer, Integer> rowsByOrdinal = new HashMap<>();
+        for (int row = 0; row < releaseTable.size(); row++) {
+            rowsByOrdinal.put(releaseTable.getOrdinal(row), row);
+        }
+
+        long[] testingDays = new long[schedule.size()];
+        for (int i = 0; i < schedule.size(); i++) {
+            Integer row = rowsByOrdinal.remove(schedule.getOrdinal(i));
+            if (row == null) {
+                throw new IllegalStateException("Release " + schedule.getOrdinal(i) + " is unknown or scheduled twice");
+            }
+            if (releaseTable.getDeliveryDay(row) != schedule.getDeliveryDay(i)
+                    || releaseTable.getTimeToTest(row) != schedule.getTimeToTest(i)) {
+                throw new IllegalStateException("Release " + schedule.getOrdinal(i) + " does not match the input");
+            }
+            if (schedule.getStartTestingDay(i) < schedule.getDeliveryDay(i)) {
+                throw new IllegalStateException("Release " + schedule.getOrdinal(i) + " is tested before delivery");
+            }
+            if (schedule.getEndTestingDay(i) > sprintDuration) {
+                throw new IllegalStateException("Release " + schedule.getOrdinal(i) + " is tested after the sprint end");
+            }
+            testingDays[i] = ((long) schedule.getStartTestingDay(i) << 32) | (schedule.getEndTestingDay(i) & 0xFFFFFFFFL);
+        }
+
+        Arrays.sort(testingDays);
+        for (int i = 1; i < testingDays.length; i++) {
+            if ((int) (testingDays[i] >> 32) <= (int) testingDays[i - 1]) {
+                throw new IllegalStateException("Releases are tested in parallel");
+            }
+        }
+
+        if (inTimeToTestReleases(releaseTable, sprintDuration).length <= MAX_RELEASES) {
+            int best = maxAdvancedScheduleSize(releaseTable, sprintDuration);
+            if (schedule.size() != best) {
+                throw new IllegalStateException("Schedule has " + schedule.size() + " releases, the maximum is " + best);
+            }
+        }
+    }
+
+    /**
+     * Returns delivery day and time to test of the releases that can be tested within the sprint
+     */
+    private static int[][] inTimeToTestReleases(ReleaseTable releaseTable, int sprintDuration) {
+        int[][] releases = new int[releaseTable.size()][];
+        int count = 0;
+        for (int row = 0; row < releaseTable.size(); row++) {
+            if (releaseTable.getEndTestingDay(row) <= sprintDuration) {
+                releases[count++] = new int[]{releaseTable.getDeliveryDay(row), releaseTable.getTimeToTest(row)};
+            }
+        }
+        return Arrays.copyOf(releases, count);
+    }
+}
@@ -0,0 +1,405 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.fileUtils.ReleaseDecoder;
+import com.github.akuiz.happyqa.fileUtils.ScheduleWriter;
+import com.github.akuiz.happyqa.metrics.Phase;
+import com.github.akuiz.happyqa.metrics.PhaseTimer;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * This class runs the basic algorithm ({@link Algorithm#createOptimalTestingSchedule(List, int)}) over release files
+ * that don't fit in the heap.
+ * The input is streamed, 'in time to test' releases are collected into runs that fit into the memory budget.
+ * Every full run is sorted by end testing day and spilled to a temporary file as (end testing day, start testing day,
+ * ordinal) records. Runs are then k-way merged straight into the greedy scan and picked releases are streamed to the
+ * output files.
+ */
+
+public class ExternalSortScheduler {
+
+    /**
+     * Size of a spilled record: end testing day, start testing day and ordinal
+     */
+    private static final int RECORD_SIZE = 3 * Integer.BYTES;
+
+    /**
+     * Heap bytes used per release of a run: five table columns plus sort keys and the sorted row index
+     */
+    private static final int RUN_BYTES_PER_RELEASE = 40;
+
+    private static final int MIN_BLOCK_SIZE = 1 << 16;
+
+    private static final int MAX_BLOCK_SIZE = 1 << 20;
+
+    /**
+     * Picked releases formatted into the outputs at a time
+     */
+    private static final int SCHEDULE_BLOCK_SIZE = 1 << 12;
+
+    /**
+     * Maximal number of releases kept in memory before a run is spilled
+     */
+    private final int runCapacity;
+
+    /**
+     * Size of input and output buffers
+     */
+    private final int blockSize;
+
+    private final long memoryBudget;
+
+    private final Path temporaryDirectory;
+
+    /**
+     * Creates a scheduler
+     *
+     * @param memoryBudget       approximate number of heap bytes the scheduler may use
+     * @param temporaryDirectory directory for spilled runs
+     */
+    public ExternalSortScheduler(long memoryBudget, Path temporaryDirectory) {
+        if (memoryBudget < 1 << 20) {
+            throw new IllegalArgumentException("Memory budget must be at least 1 MB, but was " + memoryBudget);
+        }
+        this.memoryBudget = memoryBudget;
+        this.temporaryDirectory = temporaryDirectory;
+        this.blockSize = (int) Math.max(MIN_BLOCK_SIZE, Math.min(MAX_BLOCK_SIZE, memoryBudget / 16));
+        // Part of the budget is left for the input block and releases decoded from it
+        this.runCapacity = (int) Math.min(Integer.MAX_VALUE - 8, (memoryBudget / 2) / RUN_BYTES_PER_RELEASE);
+    }
+
+    /**
+     * Schedules releases of the input file and writes the schedule in the same format as
+     * {@link FileUtils#writeReleaseListToFile(List, String, boolean)} does.
+     *
+     * @param releasesFile       the path to the input file
+     * @param sprintDuration     duration of the sprint in days
+     * @param outputFile         output file with delivery day and end testing day of the releases
+     * @param outputFileAdvanced output file with all details of the releases
+     * @return number of scheduled releases
+     * @throws IOException if an I/O error occurs.
+     */
+    public int schedule(Path releasesFile, int sprintDuration, Path outputFile, Path outputFileAdvanced) throws IOException {
+        List<Path> runFiles = new ArrayList<>();
+        try {
+            ReleaseTable run = readRuns(releasesFile, sprintDuration, runFiles);
+            // Scan and write are streamed together, both are measured as the scan phase
+            PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+            try (ScheduleStreamWriter writer = new ScheduleStreamWriter(outputFile, outputFileAdvanced)) {
+                GreedyScan scan = new GreedyScan(writer);
+                if (runFiles.isEmpty()) {
+                    // Everything fits into memory, no need to merge
+                    for (int row : ReleaseSort.byEndTestingDay(run, null)) {
+                        scan.accept(run.getEndTestingDay(row), run.getStartTestingDay(row), run.getOrdinal(row));
+                    }
+                } else {
+                    if (!run.isEmpty()) {
+                        runFiles.add(spill(run));
+                    }
+                    // Let the last run be collected before merge buffers are allocated
+                    run = null;
+                    merge(runFiles, scan);
+                }
+                writer.complete();
+                timer.stop(writer.getCount());
+                return writer.getCount();
+            }
+        } finally {
+            for (Path runFile : runFiles) {
+                Files.deleteIfExists(runFile);
+            }
+        }
+    }
+
+    /**
+     * Streams the input file, spilling every full run. Returns the last, not spilled run.
+     */
+    private ReleaseTable readRuns(Path releasesFile, int sprintDuration, List<Path> runFiles) throws IOException {
+        ReleaseTable run = new ReleaseTable(Math.min(runCapacity, 1 << 16));
+        ReleaseTable block = new ReleaseTable();
+        ReleaseDecoder decoder = new ReleaseDecoder(block);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(blockSize);
+        PhaseTimer timer = PhaseTimer.start(Phase.PARSE);
+        long releases = 0;
+        long bytes;
+        try (FileChannel channel = FileChannel.open(releasesFile, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                decoder.decode(buffer);
+                buffer.clear();
+                releases += block.size();
+                run = collect(block, run, sprintDuration, runFiles);
+            }
+            bytes = channel.size();
+        }
+        decoder.finish();
+        releases += block.size();
+        run = collect(block, run, sprintDuration, runFiles);
+        // Trimming and spilling of the blocks are measured within the parse phase as well
+        timer.stop(releases, bytes);
+        return run;
+    }
+
+    /**
+     * Moves 'in time to test' releases of the decoded block into the run, spilling the run when it gets full
+     */
+    private ReleaseTable collect(ReleaseTable block, ReleaseTable run, int sprintDuration, List<Path> runFiles) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.TRIM);
+        int trimmed = 0;
+        for (int row = 0; row < block.size(); row++) {
+            if (block.getEndTestingDay(row) > sprintDuration) {
+                trimmed++;
+                continue;
+            }
+            run.add(block.getDeliveryDay(row), block.getStartTestingDay(row), block.getTimeToTest(row), block.getOrdinal(row));
+            if (run.size() == runCapacity) {
+                runFiles.add(spill(run));
+                run.truncate(0);
+            }
+        }
+        block.truncate(0);
+        timer.stop(trimmed);
+        return run;
+    }
+
+    /**
+     * Sorts the run by end testing day and writes it to a temporary file
+     */
+    private Path spill(ReleaseTable run) throws IOException {
+        Path runFile = Files.createTempFile(temporaryDirectory, "happyqa-run", ".bin");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(blockSize - blockSize % RECORD_SIZE);
+        try (FileChannel channel = FileChannel.open(runFile, StandardOpenOption.WRITE)) {
+            for (int row : ReleaseSort.byEndTestingDay(run, null)) {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    writeFully(channel, buffer);
+                }
+                buffer.putInt(run.getEndTestingDay(row));
+                buffer.putInt(run.getStartTestingDay(row));
+                buffer.putInt(run.getOrdinal(row));
+            }
+            writeFully(channel, buffer);
+        }
+        return runFile;
+    }
+
+    /**
+     * Merges sorted runs by end testing day. Ordinals of a run are all smaller than ordinals of the next run,
+     * so breaking ties by ordinal keeps the order of a stable in-memory sort.
+     */
+    private void merge(List<Path> runFiles, GreedyScan scan) throws IOException {
+        int runBufferSize = (int) Math.max(RECORD_SIZE * 1024L,
+                Math.min(MAX_BLOCK_SIZE, memoryBudget / 2 / runFiles.size()));
+        runBufferSize -= runBufferSize % RECORD_SIZE;
+
+        PriorityQueue<RunCursor> cursors = new PriorityQueue<>(runFiles.size(),
+                (cursor1, cursor2) -> Long.compare(cursor1.key(), cursor2.key()));
+        try {
+            for (Path runFile : runFiles) {
+                RunCursor cursor = new RunCursor(FileChannel.open(runFile, StandardOpenOption.READ), runBufferSize);
+                if (cursor.next()) {
+                    cursors.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+            while (!cursors.isEmpty()) {
+                RunCursor cursor = cursors.poll();
+                scan.accept(cursor.endTestingDay, cursor.startTestingDay, cursor.ordinal);
+                if (cursor.next()) {
+                    cursors.add(cursor);
+                } else {
+                    cursor.close();
+                }
+            }
+        } finally {
+            for (RunCursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Greedy scan of the basic algorithm over releases coming in end testing day order
+     */
+    private static class GreedyScan {
+
+        private final ScheduleStreamWriter writer;
+
+        private int optimalEndTestingDay;
+
+        GreedyScan(ScheduleStreamWriter writer) {
+            this.writer = writer;
+        }
+
+        void accept(int endTestingDay, int startTestingDay, int ordinal) throws IOException {
+            // Next release that does not overlap with optimal release -> add it to the release schedule and make it optimal.
+            if (startTestingDay > optimalEndTestingDay) {
+                optimalEndTestingDay = endTestingDay;
+                writer.write(endTestingDay, startTestingDay, ordinal);
+            }
+        }
+    }
+
+    /**
+     * Reads records of a spilled run
+     */
+    private static class RunCursor implements AutoCloseable {
+
+        private final FileChannel channel;
+
+        private final ByteBuffer buffer;
+
+        int endTestingDay;
+
+        int startTestingDay;
+
+        int ordinal;
+
+        RunCursor(FileChannel channel, int bufferSize) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.buffer.flip();
+        }
+
+        boolean next() throws IOException {
+            if (buffer.remaining() < RECORD_SIZE) {
+                buffer.compact();
+                while (buffer.position() < RECORD_SIZE && channel.read(buffer) >= 0) {
+                    // Keep reading until a whole record is available or the run is over
+                }
+                buffer.flip();
+                if (buffer.remaining() < RECORD_SIZE) {
+                    return false;
+                }
+            }
+            endTestingDay = buffer.getInt();
+            startTestingDay = buffer.getInt();
+            ordinal = buffer.getInt();
+            return true;
+        }
+
+        /**
+         * Merge key: end testing day, then ordinal
+         */
+        long key() {
+            return ((long) endTestingDay << 32) | ordinal;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Streams picked releases into the bodies of both output files. The number of releases is the first line of the
+     * output, so it is written when the schedule is complete and bodies are appended to it.
+     * Releases are collected in a reused block and formatted by {@link ScheduleWriter}, nothing is allocated per release.
+     */
+    private static class ScheduleStreamWriter implements AutoCloseable {
+
+        private final Path outputFile;
+
+        private final Path outputFileAdvanced;
+
+        private final Path body;
+
+        private final Path bodyAdvanced;
+
+        private final FileChannel bodyChannel;
+
+        private final FileChannel bodyChannelAdvanced;
+
+        private final ScheduleWriter scheduleWriter = new ScheduleWriter();
+
+        private final ReleaseTable block = new ReleaseTable(SCHEDULE_BLOCK_SIZE);
+
+        private int count;
+
+        ScheduleStreamWriter(Path outputFile, Path outputFileAdvanced) throws IOException {
+            this.outputFile = outputFile;
+            this.outputFileAdvanced = outputFileAdvanced;
+            this.body = partFile(outputFile);
+            this.bodyAdvanced = partFile(outputFileAdvanced);
+            this.bodyChannel = FileChannel.open(body, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.bodyChannelAdvanced = FileChannel.open(bodyAdvanced, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(int endTestingDay, int startTestingDay, int ordinal) throws IOException {
+            // Basic algorithm never postpones testing, so delivery day is the start testing day
+            block.add(startTestingDay, startTestingDay, endTestingDay - startTestingDay + 1, ordinal);
+            count++;
+            if (block.size() == SCHEDULE_BLOCK_SIZE) {
+                writeBlock();
+            }
+        }
+
+        private void writeBlock() throws IOException {
+            scheduleWriter.writeReleases(block, bodyChannel, bodyChannelAdvanced);
+            block.truncate(0);
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        /**
+         * Writes the number of releases followed by the streamed body into every output file
+         */
+        void complete() throws IOException {
+            writeBlock();
+            bodyChannel.close();
+            bodyChannelAdvanced.close();
+            assemble(outputFile, body);
+            assemble(outputFileAdvanced, bodyAdvanced);
+        }
+
+        private void assemble(Path output, Path streamedBody) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(output)) {
+                writer.write(String.valueOf(count));
+                writer.newLine();
+            }
+            try (FileChannel target = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                 FileChannel source = FileChannel.open(streamedBody, StandardOpenOption.READ)) {
+                long size = source.size();
+                for (long position = 0; position < size; ) {
+                    position += source.transferTo(position, size - position, target);
+                }
+            }
+        }
+
+        private static Path partFile(Path output) {
+            Path absolute = output.toAbsolutePath();
+            return absolute.resolveSibling(absolute.getFileName() + ".part");
+        }
+
+        @Override
+        public void close() throws IOException {
+            bodyChannel.close();
+            bodyChannelAdvanced.close();
+            Files.deleteIfExists(body);
+            Files.deleteIfExists(bodyAdvanced);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.release.ReleaseId;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class keeps the basic algorithm schedule of a changing set of releases up to date. Releases are indexed by the
+ * end testing day in a balanced tree, so a change only affects picks of its end testing day and later ones.
+ * The suffix is rescanned until a day picked before and after the change, from that day on the scan is the same as
+ * before. Insert, remove and update take O(log n) plus the size of the rescanned suffix.
+ * What-if queries run the same rescan over the unchanged index and return the difference, so planning many
+ * alternatives costs no full recompute and no copy of the releases.
+ * Schedules are the same as {@link Algorithm#createOptimalTestingSchedule(ReleaseTable, int)} provides for the
+ * releases in ordinal order. Releases are identified by their ordinals.
+ */
+
+public class IncrementalScheduler {
+
+    /**
+     * Duration of the sprint in days
+     */
+    private final int sprintDuration;
+
+    /**
+     * All inserted releases, rows of removed ones are not reused
+     */
+    private final ReleaseTable releaseTable = new ReleaseTable();
+
+    /**
+     * Rows of the current releases, 'too late to test' ones included
+     */
+    private final Map<Integer, Integer> rowsByOrdinal = new HashMap<>();
+
+    /**
+     * Rows of the 'in time to test' releases by end testing day, in ordinal order within a day
+     */
+    private final TreeMap<Integer, Bucket> buckets = new TreeMap<>();
+
+    /**
+     * Row picked by the scan for an end testing day, days without a pick are absent
+     */
+    private final TreeMap<Integer, Integer> pickedRows = new TreeMap<>();
+
+    /**
+     * Creates a scheduler with no releases
+     *
+     * @param sprintDuration duration of the sprint in days
+     */
+    public IncrementalScheduler(int sprintDuration) {
+        this.sprintDuration = sprintDuration;
+    }
+
+    /**
+     * Adds a release and updates the schedule
+     *
+     * @param deliveryDay #day of the sprint when the release is delivered
+     * @param timeToTest  #days to test the release
+     * @param ordinal     ordinal of the release, it orders releases ending on the same day
+     * @throws IllegalArgumentException if a release with the ordinal is already added
+     */
+    public void insert(int deliveryDay, int timeToTest, int ordinal) {
+        if (rowsByOrdinal.containsKey(ordinal)) {
+            throw new IllegalArgumentException("Release " + ReleaseId.toId(ordinal) + " is already added");
+        }
+        int row = releaseTable.add(deliveryDay, deliveryDay, timeToTest, ordinal);
+        rowsByOrdinal.put(ordinal, row);
+        int endTestingDay = releaseTable.getEndTestingDay(row);
+        if (endTestingDay <= sprintDuration) {
+            buckets.computeIfAbsent(endTestingDay, day -> new Bucket()).insert(row, ordinal, releaseTable);
+            rescanFrom(endTestingDay);
+        }
+    }
+
+    /**
+     * Removes a release and updates the schedule
+     *
+     * @param ordinal ordinal of the release
+     * @throws IllegalArgumentException if there is no release with the ordinal
+     */
+    public void remove(int ordinal) {
+        int row = rowOf(ordinal);
+        rowsByOrdinal.remove(ordinal);
+        int endTestingDay = releaseTable.getEndTestingDay(row);
+        if (endTestingDay <= sprintDuration) {
+            Bucket bucket = buckets.get(endTestingDay);
+            bucket.remove(row);
+            if (bucket.size == 0) {
+                buckets.remove(endTestingDay);
+            }
+            rescanFrom(endTestingDay);
+        }
+    }
+
+    /**
+     * Changes delivery day and time to test of a release and updates the schedule
+     *
+     * @param ordinal     ordinal of the release
+     * @param deliveryDay new #day of the sprint when the release is delivered
+     * @param timeToTest  new #days to test the release
+     * @throws IllegalArgumentException if there is no release with the ordinal
+     */
+    public void update(int ordinal, int deliveryDay, int timeToTest) {
+        remove(ordinal);
+        insert(deliveryDay, timeToTest, ordinal);
+    }
+
+    /**
+     * Returns how the schedule would change if a release was added. The scheduler is not changed.
+     *
+     * @param deliveryDay #day of the sprint when the release is delivered
+     * @param timeToTest  #days to test the release
+     * @param ordinal     ordinal of the release
+     * @throws IllegalArgumentException if a release with the ordinal is already added
+     */
+    public ScheduleChange whatIfInserted(int deliveryDay, int timeToTest, int ordinal) {
+        if (rowsByOrdinal.containsKey(ordinal)) {
+            throw new IllegalArgumentException("Release " + ReleaseId.toId(ordinal) + " is already added");
+        }
+        return whatIf(-1, true, deliveryDay, timeToTest, ordinal);
+    }
+
+    /**
+     * Returns how the schedule would change if a release was removed. The scheduler is not changed.
+     *
+     * @param ordinal ordinal of the release
+     * @throws IllegalArgumentException if there is no release with the ordinal
+     */
+    public ScheduleChange whatIfRemoved(int ordinal) {
+        return whatIf(rowOf(ordinal), false, 0, 0, ordinal);
+    }
+
+    /**
+     * Returns how the schedule would change if a release had another delivery day or time to test, e.g. if it slipped
+     * by two days. The scheduler is not changed.
+     *
+     * @param ordinal     ordinal of the release
+     * @param deliveryDay new #day of the sprint when the release is delivered
+     * @param timeToTest  new #days to test the release
+     * @throws IllegalArgumentException if there is no release with the ordinal
+     */
+    public ScheduleChange whatIfUpdated(int ordinal, int deliveryDay, int timeToTest) {
+        int row = rowOf(ordinal);
+        if (releaseTable.getDeliveryDay(row) == deliveryDay && releaseTable.getTimeToTest(row) == timeToTest) {
+            return new ScheduleChange(new ReleaseTable(0), new ReleaseTable(0), pickedRows.size());
+        }
+        return whatIf(row, true, deliveryDay, timeToTest, ordinal);
+    }
+
+    /**
+     * Returns whether a release with the ordinal is added
+     */
+    public boolean contains(int ordinal) {
+        return rowsByOrdinal.containsKey(ordinal);
+    }
+
+    /**
+     * Returns number of current releases
+     */
+    public int size() {
+        return rowsByOrdinal.size();
+    }
+
+    /**
+     * Returns number of releases in the schedule
+     */
+    public int getScheduleSize() {
+        return pickedRows.size();
+    }
+
+    /**
+     * Returns the current schedule, it is not changed by later changes of the releases
+     */
+    public ReleaseTable getSchedule() {
+        ReleaseTable optimalReleaseTestingSchedule = new ReleaseTable(pickedRows.size());
+        for (int row : pickedRows.values()) {
+            addRow(optimalReleaseTestingSchedule, row);
+        }
+        return optimalReleaseTestingSchedule;
+    }
+
+    public int getSprintDuration() {
+        return sprintDuration;
+    }
+
+    /**
+     * Repeats the basic algorithm scan from a day on. Picks before the day are not affected.
+     */
+    private void rescanFrom(int fromDay) {
+        // The last release ending on the day may be gone together with its bucket
+        if (!buckets.containsKey(fromDay)) {
+            pickedRows.remove(fromDay);
+        }
+
+        // End testing day of the last optimal release before the day, 0 works as a placeholder like in the full scan
+        Integer lastPickedDay = pickedRows.lowerKey(fromDay);
+        int optimalEndTestingDay = lastPickedDay == null ? 0 : lastPickedDay;
+
+        for (Map.Entry<Integer, Bucket> entry : buckets.tailMap(fromDay, true).entrySet()) {
+            int day = entry.getKey();
+            int row = entry.getValue().firstStartingAfter(optimalEndTestingDay, -1, releaseTable);
+            Integer previousRow = row < 0 ? pickedRows.remove(day) : pickedRows.put(day, row);
+            if (row >= 0) {
+                optimalEndTestingDay = day;
+                // Same state as the previous scan had after this day, the rest of the schedule is unchanged
+                if (previousRow != null) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rescans the suffix as if a row was removed and a release was added, comparing picks with the current ones
+     *
+     * @param excludedRow row of the removed release, -1 if none is removed
+     * @param extra       whether a release is added
+     */
+    private ScheduleChange whatIf(int excludedRow, boolean extra, int deliveryDay, int timeToTest, int ordinal) {
+        ReleaseTable added = new ReleaseTable(4);
+        ReleaseTable dropped = new ReleaseTable(4);
+
+        // Days where the scan differs from the index, a release ending after the sprint changes nothing
+        Integer excludedDay = null;
+        if (excludedRow >= 0 && releaseTable.getEndTestingDay(excludedRow) <= sprintDuration) {
+            excludedDay = releaseTable.getEndTestingDay(excludedRow);
+        }
+        Integer extraDay = null;
+        int extraEndTestingDay = deliveryDay + timeToTest - 1;
+        if (extra && extraEndTestingDay <= sprintDuration) {
+            extraDay = extraEndTestingDay;
+        }
+        if (excludedDay == null && extraDay == null) {
+            return new ScheduleChange(added, dropped, pickedRows.size());
+        }
+        int fromDay = excludedDay == null ? extraDay : extraDay == null ? excludedDay : Math.min(excludedDay, extraDay);
+        int lastChangedDay = excludedDay == null ? extraDay : extraDay == null ? excludedDay : Math.max(excludedDay, extraDay);
+
+        Integer lastPickedDay = pickedRows.lowerKey(fromDay);
+        int optimalEndTestingDay = lastPickedDay == null ? 0 : lastPickedDay;
+
+        for (Integer day = nextDay(fromDay, true, extraDay); day != null; day = nextDay(day, false, extraDay)) {
+            Bucket bucket = buckets.get(day);
+            int row = bucket == null ? -1 : bucket.firstStartingAfter(optimalEndTestingDay, excludedRow, releaseTable);
+            // The added release wins over rows of the same day with larger ordinals
+            boolean extraPicked = day.equals(extraDay) && deliveryDay > optimalEndTestingDay
+                    && (row < 0 || releaseTable.getOrdinal(row) > ordinal);
+            Integer previousRow = pickedRows.get(day);
+
+            if (extraPicked || row >= 0) {
+                if (previousRow == null || extraPicked || previousRow != row) {
+                    if (previousRow != null) {
+                        addRow(dropped, previousRow);
+                    }
+                    if (extraPicked) {
+                        added.add(deliveryDay, deliveryDay, timeToTest, ordinal);
+                    } else {
+                        addRow(added, row);
+                    }
+                }
+                optimalEndTestingDay = day;
+                // Past the changed days the scan is back in the state of the index
+                if (previousRow != null && day >= lastChangedDay) {
+                    break;
+                }
+            } else if (previousRow != null) {
+                addRow(dropped, previousRow);
+            }
+        }
+        return new ScheduleChange(added, dropped, pickedRows.size() + added.size() - dropped.size());
+    }
+
+    /**
+     * Returns the first day after the given one, or from it when inclusive, that has a bucket or is the extra day
+     */
+    private Integer nextDay(int day, boolean inclusive, Integer extraDay) {
+        Integer bucketDay = inclusive ? buckets.ceilingKey(day) : buckets.higherKey(day);
+        if (extraDay == null || extraDay < day || (extraDay == day && !inclusive)) {
+            return bucketDay;
+        }
+        return bucketDay == null || extraDay < bucketDay ? extraDay : bucketDay;
+    }
+
+    private int rowOf(int ordinal) {
+        Integer row = rowsByOrdinal.get(ordinal);
+        if (row == null) {
+            throw new IllegalArgumentException("Release " + ReleaseId.toId(ordinal) + " is not added");
+        }
+        return row;
+    }
+
+    private void addRow(ReleaseTable schedule, int row) {
+        schedule.add(releaseTable.getDeliveryDay(row), releaseTable.getStartTestingDay(row),
+                releaseTable.getTimeToTest(row), releaseTable.getOrdinal(row));
+    }
+
+    /**
+     * Rows of releases ending on the same day, in ordinal order
+     */
+    private static class Bucket {
+
+        private int[] rows = new int[2];
+
+        private int size;
+
+        void insert(int row, int ordinal, ReleaseTable releaseTable) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            // Releases usually come in ordinal order, so the position is found from the end
+            int position = size;
+            while (position > 0 && releaseTable.getOrdinal(rows[position - 1]) > ordinal) {
+                rows[position] = rows[position - 1];
+                position--;
+            }
+            rows[position] = row;
+            size++;
+        }
+
+        void remove(int row) {
+            for (int i = 0; i < size; i++) {
+                if (rows[i] == row) {
+                    System.arraycopy(rows, i + 1, rows, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Returns the first row starting after the day, skipping the excluded row, -1 if there is none
+         */
+        int firstStartingAfter(int day, int excludedRow, ReleaseTable releaseTable) {
+            for (int i = 0; i < size; i++) {
+                if (rows[i] != excludedRow && releaseTable.getStartTestingDay(rows[i]) > day) {
+                    return rows[i];
+                }
+            }
+            return -1;
+        }
+    }
+}
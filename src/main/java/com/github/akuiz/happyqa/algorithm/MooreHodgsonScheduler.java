@@ -0,0 +1,184 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.release.OffHeapReleaseTable;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.util.Arrays;
+
+/**
+ * This class finds the maximal number of postponable releases that can be tested by a single tester within a sprint.
+ * Read backwards from the sprint end, every release is available from the first day and has to be finished by
+ * (sprint duration + 1 - delivery day). That is the problem of minimizing the number of late jobs, which Moore-Hodgson
+ * algorithm solves exactly: releases are taken by the reversed deadline and whenever the taken ones do not fit,
+ * the longest of them is dropped. Time is O(n log n), the taken releases are kept in a primitive max-heap.
+ */
+
+final class MooreHodgsonScheduler {
+
+    private MooreHodgsonScheduler() {
+    }
+
+    /**
+     * Exact advanced algorithm
+     *
+     * @param releaseTable   given table of releases
+     * @param sortedRows     'in time to test' rows sorted by start testing day following by testing time descending
+     * @param sprintDuration duration of the sprint in days
+     * @return schedule in start testing day order, releases are tested back to back up to the sprint end
+     */
+    static ReleaseTable scheduleSortedByStartTestingDay(ReleaseTable releaseTable, int[] sortedRows, int sprintDuration) {
+        int size = sortedRows.length;
+
+        // Taken releases, the longest one on top. Key packs time to test and position in the reversed order.
+        long[] heap = new long[size];
+        int heapSize = 0;
+
+        // Total time to test of the taken releases
+        long takenDays = 0;
+
+        // Go through the sorted release backwards, i.e. by the reversed deadline
+        for (int i = size - 1; i >= 0; i--) {
+            int row = sortedRows[i];
+            int timeToTest = releaseTable.getTimeToTest(row);
+            heapSize = push(heap, heapSize, key(timeToTest, i));
+            takenDays += timeToTest;
+
+            // Releases must be tested between the delivery day and the sprint end
+            long availableDays = (long) sprintDuration + 1 - releaseTable.getStartTestingDay(row);
+            if (takenDays > availableDays) {
+                takenDays -= timeToTest(heap[0]);
+                heapSize = pop(heap, heapSize);
+            }
+        }
+
+        // Mark taken releases, they keep the reversed deadline order
+        boolean[] taken = new boolean[size];
+        for (int k = 0; k < heapSize; k++) {
+            taken[position(heap[k])] = true;
+        }
+
+        // Test taken releases back to back, the latest delivered one ends on the last day of the sprint
+        ReleaseTable optimalReleaseTestingSchedule = new ReleaseTable(heapSize);
+        int optimalStartTestingDay = sprintDuration + 1;
+        for (int i = size - 1; i >= 0; i--) {
+            if (taken[i]) {
+                int row = sortedRows[i];
+                optimalStartTestingDay -= releaseTable.getTimeToTest(row);
+                optimalReleaseTestingSchedule.add(releaseTable.getDeliveryDay(row), optimalStartTestingDay,
+                        releaseTable.getTimeToTest(row), releaseTable.getOrdinal(row));
+            }
+        }
+
+        //Since we were going through the release backwards, reverse the schedule.
+        optimalReleaseTestingSchedule.reverse();
+        return optimalReleaseTestingSchedule;
+    }
+
+    /**
+     * Exact advanced algorithm over an off-heap table. Every taken release takes at least a day of the sprint, so the
+     * heap of taken releases, the only structure kept on the Java heap, stays about as small as the sprint.
+     *
+     * @param releaseTable   given off-heap table of releases
+     * @param sortedRows     'in time to test' rows sorted by start testing day following by testing time descending
+     * @param sprintDuration duration of the sprint in days
+     * @return schedule in start testing day order, releases are tested back to back up to the sprint end
+     */
+    static ReleaseTable scheduleSortedByStartTestingDay(OffHeapReleaseTable releaseTable, OffHeapReleaseSort.Rows sortedRows,
+                                                        int sprintDuration) {
+        long[] heap = new long[16];
+        int heapSize = 0;
+        long takenDays = 0;
+
+        // Go through the sorted release backwards, i.e. by the reversed deadline
+        for (int i = sortedRows.size() - 1; i >= 0; i--) {
+            int row = sortedRows.get(i);
+            int timeToTest = releaseTable.getTimeToTest(row);
+            if (heapSize == heap.length) {
+                heap = Arrays.copyOf(heap, heapSize * 2);
+            }
+            heapSize = push(heap, heapSize, key(timeToTest, i));
+            takenDays += timeToTest;
+
+            // Releases must be tested between the delivery day and the sprint end
+            long availableDays = (long) sprintDuration + 1 - releaseTable.getStartTestingDay(row);
+            if (takenDays > availableDays) {
+                takenDays -= timeToTest(heap[0]);
+                heapSize = pop(heap, heapSize);
+            }
+        }
+
+        // Taken releases in the reversed deadline order, i.e. by position descending
+        int[] takenPositions = new int[heapSize];
+        for (int k = 0; k < heapSize; k++) {
+            takenPositions[k] = position(heap[k]);
+        }
+        Arrays.sort(takenPositions);
+
+        // Test taken releases back to back, the latest delivered one ends on the last day of the sprint
+        ReleaseTable optimalReleaseTestingSchedule = new ReleaseTable(heapSize);
+        int optimalStartTestingDay = sprintDuration + 1;
+        for (int k = heapSize - 1; k >= 0; k--) {
+            int row = sortedRows.get(takenPositions[k]);
+            optimalStartTestingDay -= releaseTable.getTimeToTest(row);
+            optimalReleaseTestingSchedule.add(releaseTable.getDeliveryDay(row), optimalStartTestingDay,
+                    releaseTable.getTimeToTest(row), releaseTable.getOrdinal(row));
+        }
+
+        //Since we were going through the release backwards, reverse the schedule.
+        optimalReleaseTestingSchedule.reverse();
+        return optimalReleaseTestingSchedule;
+    }
+
+    private static long key(int timeToTest, int position) {
+        return ((long) timeToTest << 32) | position;
+    }
+
+    private static int timeToTest(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int position(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Adds a key to the max-heap and returns the new heap size
+     */
+    private static int push(long[] heap, int heapSize, long key) {
+        int child = heapSize;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (heap[parent] >= key) {
+                break;
+            }
+            heap[child] = heap[parent];
+            child = parent;
+        }
+        heap[child] = key;
+        return heapSize + 1;
+    }
+
+    /**
+     * Removes the largest key from the max-heap and returns the new heap size
+     */
+    private static int pop(long[] heap, int heapSize) {
+        long last = heap[--heapSize];
+        int parent = 0;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (last >= heap[child]) {
+                break;
+            }
+            heap[parent] = heap[child];
+            parent = child;
+        }
+        heap[parent] = last;
+        return heapSize;
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.util.TreeSet;
+
+/**
+ * This class schedules releases for several testers working in parallel, each tester tests one release at a time.
+ * Testers are kept in a sorted set by the day they are free, so every release is assigned in O(log k).
+ * Key of a tester packs its day into the high 32 bits and its index into the low ones.
+ * With a single tester both scans pick the same releases as the single tester algorithms.
+ */
+
+final class MultiTesterScheduler {
+
+    private MultiTesterScheduler() {
+    }
+
+    /**
+     * Basic algorithm for several testers. Releases are taken in end testing day order and each one goes to the
+     * tester who finished testing latest before the release start, which leaves earlier free testers to releases
+     * starting earlier. This greedy takes the maximal number of releases.
+     *
+     * @param releaseTable given table of releases
+     * @param sortedRows   'in time to test' rows sorted by end testing day
+     * @param testers      number of testers
+     * @return schedule in end testing day order with a tester for each release
+     */
+    static ReleaseTable scheduleSortedByEndTestingDay(ReleaseTable releaseTable, int[] sortedRows, int testers) {
+        ReleaseTable optimalReleaseTestingSchedule = new ReleaseTable();
+
+        // End testing day of the last release of each tester, 0 works as a placeholder before the first one.
+        // Among testers free on the same day the lowest index is preferred, so the index is stored inverted.
+        TreeSet<Long> lastEndTestingDays = new TreeSet<>();
+        for (int tester = 0; tester < testers; tester++) {
+            lastEndTestingDays.add(key(0, Integer.MAX_VALUE - tester));
+        }
+
+        for (int row : sortedRows) {
+            // Tester with the latest end testing day before the release start
+            Long freeTester = lastEndTestingDays.floor(key(releaseTable.getStartTestingDay(row) - 1L, Integer.MAX_VALUE));
+            if (freeTester != null) {
+                lastEndTestingDays.remove(freeTester);
+                int tester = Integer.MAX_VALUE - index(freeTester);
+                lastEndTestingDays.add(key(releaseTable.getEndTestingDay(row), Integer.MAX_VALUE - tester));
+
+                int scheduledRow = optimalReleaseTestingSchedule.add(releaseTable.getDeliveryDay(row), releaseTable.getStartTestingDay(row),
+                        releaseTable.getTimeToTest(row), releaseTable.getOrdinal(row));
+                optimalReleaseTestingSchedule.setTester(scheduledRow, tester + 1);
+            }
+        }
+        return optimalReleaseTestingSchedule;
+    }
+
+    /**
+     * Advanced algorithm for several testers. Releases are taken backwards in start testing day order, as the single
+     * tester algorithm does, and each one goes to the tester whose earliest planned start is the closest one after
+     * the release end (best fit). The release is moved to end right before that start.
+     * Maximizing the number of postponable releases on several testers is NP-hard, so this is a heuristic that is
+     * exact for a single tester.
+     *
+     * @param releaseTable   given table of releases
+     * @param sortedRows     'in time to test' rows sorted by start testing day following by testing time descending
+     * @param sprintDuration duration of the sprint in days
+     * @param testers        number of testers
+     * @return schedule in start testing day order with a tester for each release
+     */
+    static ReleaseTable scheduleSortedByStartTestingDay(ReleaseTable releaseTable, int[] sortedRows, int sprintDuration, int testers) {
+        ReleaseTable optimalReleaseTestingSchedule = new ReleaseTable();
+
+        // Start testing day of the earliest release of each tester. Placeholder is set after sprint duration.
+        TreeSet<Long> firstStartTestingDays = new TreeSet<>();
+        for (int tester = 0; tester < testers; tester++) {
+            firstStartTestingDays.add(key(sprintDuration + 1L, tester));
+        }
+
+        // Go through the sorted release backwards
+        for (int i = sortedRows.length - 1; i >= 0; i--) {
+            int row = sortedRows[i];
+            // Tester with the earliest start testing day after the release end
+            Long freeTester = firstStartTestingDays.ceiling(key(releaseTable.getEndTestingDay(row) + 1L, 0));
+            if (freeTester != null) {
+                firstStartTestingDays.remove(freeTester);
+                int tester = index(freeTester);
+                int startTestingDay = day(freeTester) - releaseTable.getTimeToTest(row);
+                firstStartTestingDays.add(key(startTestingDay, tester));
+
+                int scheduledRow = optimalReleaseTestingSchedule.add(releaseTable.getDeliveryDay(row), startTestingDay,
+                        releaseTable.getTimeToTest(row), releaseTable.getOrdinal(row));
+                optimalReleaseTestingSchedule.setTester(scheduledRow, tester + 1);
+            }
+        }
+
+        //Since we were going through the release backwards, reverse the schedule.
+        optimalReleaseTestingSchedule.reverse();
+        return optimalReleaseTestingSchedule;
+    }
+
+    private static long key(long day, int index) {
+        return (day << 32) + index;
+    }
+
+    private static int day(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int index(long key) {
+        return (int) key;
+    }
+}
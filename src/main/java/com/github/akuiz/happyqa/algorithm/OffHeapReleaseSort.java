@@ -0,0 +1,176 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.metrics.Phase;
+import com.github.akuiz.happyqa.metrics.PhaseTimer;
+import com.github.akuiz.happyqa.release.MappedIntArray;
+import com.github.akuiz.happyqa.release.OffHeapReleaseTable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * This class sorts rows of an off-heap release table. Sorted rows are kept off-heap too, in scratch files of the
+ * table, so heap usage does not depend on the number of releases. All sorts are stable counting sorts by days,
+ * only the count of every day is kept on the heap. Days spread over more than 2^16 days are sorted by two 16 bit
+ * digits instead, so the counts never take more than 256 KB of heap for any days.
+ */
+
+final class OffHeapReleaseSort {
+
+    /**
+     * Bits of a digit of the two pass sort of wide ranges
+     */
+    private static final int DIGIT_BITS = 16;
+
+    /**
+     * Widest range of days sorted in a single pass, its counts take as much heap as the counts of a digit
+     */
+    private static final int MAX_DAY_RANGE = 1 << DIGIT_BITS;
+
+    private OffHeapReleaseSort() {
+    }
+
+    /**
+     * Returns rows of the table that can be tested within the sprint, in their table order
+     */
+    static Rows trimmedRows(OffHeapReleaseTable releaseTable, int sprintDuration) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.TRIM);
+        Rows rows = new Rows(releaseTable);
+        for (int row = 0; row < releaseTable.size(); row++) {
+            if (releaseTable.getEndTestingDay(row) <= sprintDuration) {
+                rows.add(row);
+            }
+        }
+        timer.stop(releaseTable.size() - rows.size());
+        return rows;
+    }
+
+    /**
+     * Returns rows sorted by end testing day in ascending order. The given rows are closed.
+     *
+     * @param releaseTable given table of releases
+     * @param rows         rows to sort
+     */
+    static Rows byEndTestingDay(OffHeapReleaseTable releaseTable, Rows rows) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.SORT);
+        Rows sortedRows = countingSort(releaseTable, rows, releaseTable::getEndTestingDay, false);
+        timer.stop(sortedRows.size());
+        return sortedRows;
+    }
+
+    /**
+     * Returns rows sorted by start testing day in ascending order following by time to test descending.
+     * The given rows are closed.
+     *
+     * @param releaseTable given table of releases
+     * @param rows         rows to sort
+     */
+    static Rows byStartTestingDayThenLongestFirst(OffHeapReleaseTable releaseTable, Rows rows) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.SORT);
+        // Least significant key first, the stable sort by the most significant key keeps its order for equal keys
+        Rows longestFirst = countingSort(releaseTable, rows, releaseTable::getTimeToTest, true);
+        Rows sortedRows = countingSort(releaseTable, longestFirst, releaseTable::getStartTestingDay, false);
+        timer.stop(sortedRows.size());
+        return sortedRows;
+    }
+
+    /**
+     * Stable counting sort of the rows by the key. The given rows are closed.
+     */
+    private static Rows countingSort(OffHeapReleaseTable releaseTable, Rows rows, IntUnaryOperator key,
+                                     boolean descending) throws IOException {
+        try (rows) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < rows.size(); i++) {
+                int value = key.applyAsInt(rows.get(i));
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (rows.size() == 0) {
+                return new Rows(releaseTable);
+            }
+            long range = (long) max - min + 1;
+            int first = min;
+            int last = max;
+            if (range <= MAX_DAY_RANGE) {
+                return distribute(releaseTable, rows, row -> (int) bucket(key.applyAsInt(row), first, last, descending), (int) range);
+            }
+
+            // Buckets of a wider range take up to 32 bits, rows are sorted by the low digit and then by the high one
+            int digitMask = (1 << DIGIT_BITS) - 1;
+            try (Rows lowDigitSorted = distribute(releaseTable, rows,
+                    row -> (int) bucket(key.applyAsInt(row), first, last, descending) & digitMask, 1 << DIGIT_BITS)) {
+                return distribute(releaseTable, lowDigitSorted,
+                        row -> (int) (bucket(key.applyAsInt(row), first, last, descending) >>> DIGIT_BITS), 1 << DIGIT_BITS);
+            }
+        }
+    }
+
+    /**
+     * Stable distribution of the rows into the given number of buckets. The given rows are left open.
+     */
+    private static Rows distribute(OffHeapReleaseTable releaseTable, Rows rows, IntUnaryOperator bucket, int buckets)
+            throws IOException {
+        int size = rows.size();
+
+        // Count buckets, then turn counts into the first position of every bucket
+        int[] positions = new int[buckets + 1];
+        for (int i = 0; i < size; i++) {
+            positions[bucket.applyAsInt(rows.get(i)) + 1]++;
+        }
+        for (int index = 1; index < positions.length; index++) {
+            positions[index] += positions[index - 1];
+        }
+        Rows sortedRows = new Rows(releaseTable);
+        for (int i = 0; i < size; i++) {
+            int row = rows.get(i);
+            sortedRows.set(positions[bucket.applyAsInt(row)]++, row);
+        }
+        sortedRows.size = size;
+        return sortedRows;
+    }
+
+    /**
+     * Returns distance of the key from the first key in sort order, from 0 to 2^32 - 1
+     */
+    private static long bucket(int key, int min, int max, boolean descending) {
+        return descending ? (long) max - key : (long) key - min;
+    }
+
+    /**
+     * Row indexes of an off-heap table, kept in a scratch file of the table
+     */
+    static final class Rows implements Closeable {
+
+        private final MappedIntArray rows;
+
+        private int size;
+
+        private Rows(OffHeapReleaseTable releaseTable) throws IOException {
+            this.rows = new MappedIntArray(releaseTable.getScratchDirectory());
+        }
+
+        int get(int index) {
+            return rows.get(index);
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void add(int row) throws IOException {
+            rows.set(size++, row);
+        }
+
+        private void set(int index, int row) throws IOException {
+            rows.set(index, row);
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+    }
+}
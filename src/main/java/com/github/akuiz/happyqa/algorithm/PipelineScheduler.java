@@ -0,0 +1,356 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.fileUtils.ReleaseDecoder;
+import com.github.akuiz.happyqa.metrics.Phase;
+import com.github.akuiz.happyqa.metrics.PhaseTimer;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * This class runs the basic algorithm ({@link Algorithm#createOptimalTestingSchedule(List, int)}) as a pipeline of
+ * concurrent stages connected by {@link Flow} publishers with bounded buffers: the calling thread parses the input
+ * into blocks of releases, the next stage trims them, the next one buckets them by end testing day and scans the
+ * buckets when the input is over, and the last one writes the schedule. A full buffer blocks the stage that feeds it,
+ * so a slow stage slows the input down instead of piling blocks up.
+ * <p>
+ * Only a few releases of every end testing day are kept: of the releases that end on the same day, the greedy scan
+ * picks the first one in input order that starts after the last picked release, so a release that starts no later
+ * than an earlier release of its day is never picked. Memory depends on the number of distinct end testing days and
+ * on the stage buffers, not on the number of releases. The schedule is identical to the one of the in-memory algorithm.
+ */
+
+public class PipelineScheduler {
+
+    /**
+     * Blocks buffered between two stages by default
+     */
+    public static final int DEFAULT_BUFFER_CAPACITY = 8;
+
+    /**
+     * Stages running on the executor: trim, bucket and write
+     */
+    private static final int STAGES = 3;
+
+    /**
+     * Input bytes decoded into a single block of releases
+     */
+    private static final int INPUT_BLOCK_SIZE = 1 << 18;
+
+    /**
+     * Picked releases handed to the writer at a time
+     */
+    private static final int SCHEDULE_BLOCK_SIZE = 1 << 12;
+
+    private final int bufferCapacity;
+
+    /**
+     * Creates a scheduler
+     *
+     * @param bufferCapacity maximal number of blocks buffered between two stages, rounded up to a power of two
+     */
+    public PipelineScheduler(int bufferCapacity) {
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity must be positive, but was " + bufferCapacity);
+        }
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    /**
+     * Schedules releases of the input file and writes the schedule with
+     * {@link FileUtils#writeScheduleToFiles(ReleaseTable, String, String)}.
+     *
+     * @param releasesFile       the path to the input file in releases.txt format
+     * @param sprintDuration     duration of the sprint in days
+     * @param outputFile         output file with delivery day and end testing day of the releases
+     * @param outputFileAdvanced output file with all details of the releases
+     * @return number of scheduled releases
+     * @throws IOException if an I/O error occurs.
+     */
+    public int schedule(Path releasesFile, int sprintDuration, Path outputFile, Path outputFileAdvanced) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(STAGES, runnable -> {
+            Thread thread = new Thread(runnable, "happyqa-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<Integer> result = new CompletableFuture<>();
+        // Not a resource: it is closed exceptionally when reading fails, so the later stages see the failure
+        SubmissionPublisher<ReleaseTable> reader = new SubmissionPublisher<>(executor, bufferCapacity);
+        try {
+            TrimStage trim = new TrimStage(executor, bufferCapacity, sprintDuration);
+            BucketStage bucket = new BucketStage(executor, bufferCapacity);
+            reader.subscribe(trim);
+            trim.subscribe(bucket);
+            bucket.subscribe(new WriteStage(outputFile, outputFileAdvanced, result));
+            try {
+                read(releasesFile, reader, result);
+            } catch (IOException | RuntimeException e) {
+                reader.closeExceptionally(e);
+                throw e;
+            }
+            reader.close();
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while scheduling " + releasesFile);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to schedule " + releasesFile, cause);
+        } finally {
+            // Closing a closed publisher does nothing
+            reader.close();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses the input file into blocks and submits them, blocking while the trim stage is behind.
+     * Reading stops early when a later stage has failed.
+     */
+    private static void read(Path releasesFile, SubmissionPublisher<ReleaseTable> reader, CompletableFuture<Integer> result)
+            throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.PARSE);
+        ReleaseTable block = new ReleaseTable(INPUT_BLOCK_SIZE / 4);
+        ReleaseDecoder decoder = new ReleaseDecoder(block);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(INPUT_BLOCK_SIZE);
+        long releases = 0;
+        long bytes;
+        try (FileChannel channel = FileChannel.open(releasesFile, StandardOpenOption.READ)) {
+            while (!result.isDone() && channel.read(buffer) >= 0) {
+                buffer.flip();
+                decoder.decode(buffer);
+                buffer.clear();
+                releases += submit(block, reader);
+            }
+            bytes = channel.size();
+        }
+        decoder.finish();
+        releases += submit(block, reader);
+        timer.stop(releases, bytes);
+    }
+
+    /**
+     * Hands a copy of the decoded releases to the next stage, the block is reused by the decoder
+     */
+    private static int submit(ReleaseTable block, SubmissionPublisher<ReleaseTable> reader) {
+        int size = block.size();
+        if (size > 0) {
+            reader.submit(block.copy());
+            block.truncate(0);
+        }
+        return size;
+    }
+
+    /**
+     * Base of the stages that publish to the next stage. A failure is passed on, so the last stage always completes.
+     */
+    private abstract static class Stage extends SubmissionPublisher<ReleaseTable> implements Flow.Processor<ReleaseTable, ReleaseTable> {
+
+        private Flow.Subscription subscription;
+
+        Stage(ExecutorService executor, int bufferCapacity) {
+            super(executor, bufferCapacity);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(ReleaseTable block) {
+            process(block);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            closeExceptionally(throwable);
+        }
+
+        abstract void process(ReleaseTable block);
+    }
+
+    /**
+     * Removes all 'too late to test' releases of every block
+     */
+    private static class TrimStage extends Stage {
+
+        private final int sprintDuration;
+
+        TrimStage(ExecutorService executor, int bufferCapacity, int sprintDuration) {
+            super(executor, bufferCapacity);
+            this.sprintDuration = sprintDuration;
+        }
+
+        @Override
+        void process(ReleaseTable block) {
+            Algorithm.trimReleaseTable(block, sprintDuration);
+            if (!block.isEmpty()) {
+                submit(block);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            close();
+        }
+    }
+
+    /**
+     * Keeps the candidates of every end testing day and scans them in end testing day order when the input is over
+     */
+    private static class BucketStage extends Stage {
+
+        /**
+         * Candidates of every end testing day that occurs, as start testing day and ordinal pairs after their count.
+         * Start testing days grow with ordinals, a release that starts no later than the last candidate is dropped.
+         * Only days that occur are kept, so days far before the sprint don't take memory for the days in between.
+         */
+        private Map<Integer, int[]> buckets = new TreeMap<>();
+
+        BucketStage(ExecutorService executor, int bufferCapacity) {
+            super(executor, bufferCapacity);
+        }
+
+        @Override
+        void process(ReleaseTable block) {
+            PhaseTimer timer = PhaseTimer.start(Phase.SORT);
+            for (int row = 0; row < block.size(); row++) {
+                add(block.getEndTestingDay(row), block.getStartTestingDay(row), block.getOrdinal(row));
+            }
+            timer.stop(block.size());
+        }
+
+        private void add(int endTestingDay, int startTestingDay, int ordinal) {
+            int[] bucket = buckets.get(endTestingDay);
+            if (bucket == null) {
+                bucket = new int[5];
+                buckets.put(endTestingDay, bucket);
+            }
+            int count = bucket[0];
+            if (count > 0 && startTestingDay <= bucket[2 * count - 1]) {
+                return;
+            }
+            if (2 * count + 2 >= bucket.length) {
+                bucket = Arrays.copyOf(bucket, bucket.length * 2 + 1);
+                buckets.put(endTestingDay, bucket);
+            }
+            bucket[2 * count + 1] = startTestingDay;
+            bucket[2 * count + 2] = ordinal;
+            bucket[0] = count + 1;
+        }
+
+        @Override
+        public void onComplete() {
+            PhaseTimer timer = PhaseTimer.start(Phase.SCAN);
+            int picked = 0;
+            ReleaseTable block = new ReleaseTable(SCHEDULE_BLOCK_SIZE);
+
+            // End testing day of the last optimal release, 0 works as a placeholder before the first one
+            int optimalEndTestingDay = 0;
+
+            for (Map.Entry<Integer, int[]> entry : buckets.entrySet()) {
+                int[] bucket = entry.getValue();
+                // The first candidate that does not overlap with optimal release is the first such release of the day
+                for (int i = 0; i < bucket[0]; i++) {
+                    int startTestingDay = bucket[2 * i + 1];
+                    if (startTestingDay > optimalEndTestingDay) {
+                        optimalEndTestingDay = entry.getKey();
+                        // Basic algorithm never postpones testing, so delivery day is the start testing day
+                        block.add(startTestingDay, startTestingDay, optimalEndTestingDay - startTestingDay + 1, bucket[2 * i + 2]);
+                        break;
+                    }
+                }
+                if (block.size() == SCHEDULE_BLOCK_SIZE) {
+                    picked += block.size();
+                    submit(block);
+                    block = new ReleaseTable(SCHEDULE_BLOCK_SIZE);
+                }
+            }
+            picked += block.size();
+            if (!block.isEmpty()) {
+                submit(block);
+            }
+            buckets = null;
+            timer.stop(picked);
+            close();
+        }
+    }
+
+    /**
+     * Collects the schedule, which has at most one release per testing day, and writes both output files
+     */
+    private static class WriteStage implements Flow.Subscriber<ReleaseTable> {
+
+        private final Path outputFile;
+
+        private final Path outputFileAdvanced;
+
+        private final CompletableFuture<Integer> result;
+
+        private final ReleaseTable schedule = new ReleaseTable();
+
+        private Flow.Subscription subscription;
+
+        WriteStage(Path outputFile, Path outputFileAdvanced, CompletableFuture<Integer> result) {
+            this.outputFile = outputFile;
+            this.outputFileAdvanced = outputFileAdvanced;
+            this.result = result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(ReleaseTable block) {
+            schedule.addAll(block, 0);
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                FileUtils.writeScheduleToFiles(schedule, outputFile.toString(), outputFileAdvanced.toString());
+                result.complete(schedule.size());
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.metrics.Phase;
+import com.github.akuiz.happyqa.metrics.PhaseTimer;
+import com.github.akuiz.happyqa.release.Release;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class sorts rows of a release table without boxing and without comparator objects.
+ * All sorts are stable, so releases with equal keys keep their input order, same as List.sort does.
+ * Keys are days of a sprint, so when their range is small compared to the number of releases, an O(n + D)
+ * counting sort is used instead of an O(n log n) comparison sort.
+ */
+
+final class ReleaseSort {
+
+    private ReleaseSort() {
+    }
+
+    /**
+     * Returns rows of the table sorted by end testing day in ascending order
+     *
+     * @param releaseTable given table of releases
+     * @param rows         rows to sort, or null to sort all rows of the table
+     */
+    static int[] byEndTestingDay(ReleaseTable releaseTable, int[] rows) {
+        PhaseTimer timer = PhaseTimer.start(Phase.SORT);
+        int size = rows == null ? releaseTable.size() : rows.length;
+        int[] endTestingDay = new int[size];
+        for (int i = 0; i < size; i++) {
+            endTestingDay[i] = releaseTable.getEndTestingDay(rows == null ? i : rows[i]);
+        }
+        int[] sortedRows = toRows(sort(endTestingDay, null, size), rows);
+        timer.stop(size);
+        return sortedRows;
+    }
+
+    /**
+     * Returns rows of the table sorted by start testing day in ascending order following by time to test descending
+     *
+     * @param releaseTable given table of releases
+     * @param rows         rows to sort, or null to sort all rows of the table
+     */
+    static int[] byStartTestingDayThenLongestFirst(ReleaseTable releaseTable, int[] rows) {
+        PhaseTimer timer = PhaseTimer.start(Phase.SORT);
+        int size = rows == null ? releaseTable.size() : rows.length;
+        int[] startTestingDay = new int[size];
+        int[] timeToTest = new int[size];
+        for (int i = 0; i < size; i++) {
+            int row = rows == null ? i : rows[i];
+            startTestingDay[i] = releaseTable.getStartTestingDay(row);
+            timeToTest[i] = releaseTable.getTimeToTest(row);
+        }
+        int[] sortedRows = toRows(sort(startTestingDay, timeToTest, size), rows);
+        timer.stop(size);
+        return sortedRows;
+    }
+
+    /**
+     * Returns positions of the list sorted by end testing day in ascending order
+     *
+     * @param releaseList given list of releases with fast random access
+     * @param positions   positions to sort, or null to sort the whole list
+     */
+    static int[] byEndTestingDay(List<Release> releaseList, int[] positions) {
+        PhaseTimer timer = PhaseTimer.start(Phase.SORT);
+        int size = positions == null ? releaseList.size() : positions.length;
+        int[] endTestingDay = new int[size];
+        for (int i = 0; i < size; i++) {
+            endTestingDay[i] = releaseList.get(positions == null ? i : positions[i]).getEndTestingDay();
+        }
+        int[] sortedPositions = toRows(sort(endTestingDay, null, size), positions);
+        timer.stop(size);
+        return sortedPositions;
+    }
+
+    /**
+     * Returns positions of the list sorted by start testing day in ascending order following by time to test descending
+     *
+     * @param releaseList given list of releases with fast random access
+     * @param positions   positions to sort, or null to sort the whole list
+     */
+    static int[] byStartTestingDayThenLongestFirst(List<Release> releaseList, int[] positions) {
+        PhaseTimer timer = PhaseTimer.start(Phase.SORT);
+        int size = positions == null ? releaseList.size() : positions.length;
+        int[] startTestingDay = new int[size];
+        int[] timeToTest = new int[size];
+        for (int i = 0; i < size; i++) {
+            Release release = releaseList.get(positions == null ? i : positions[i]);
+            startTestingDay[i] = release.getStartTestingDay();
+            timeToTest[i] = release.getTimeToTest();
+        }
+        int[] sortedPositions = toRows(sort(startTestingDay, timeToTest, size), positions);
+        timer.stop(size);
+        return sortedPositions;
+    }
+
+    /**
+     * Maps sorted indexes of the sorted subset back to rows. The indexes array is reused for the result.
+     */
+    private static int[] toRows(int[] sortedIndexes, int[] rows) {
+        if (rows != null) {
+            for (int i = 0; i < sortedIndexes.length; i++) {
+                sortedIndexes[i] = rows[sortedIndexes[i]];
+            }
+        }
+        return sortedIndexes;
+    }
+
+    /**
+     * Sorts row indexes by the given keys.
+     * When key ranges are not larger than the number of rows, rows are counting sorted.
+     * When both keys and the row index fit into 63 bits, they are packed into a long and sorted as primitives,
+     * the row index in the lowest bits makes the sort stable. Otherwise rows are merge sorted.
+     *
+     * @param ascending  primary key, compared in ascending order
+     * @param descending secondary key compared in descending order, or null
+     * @param size       number of rows
+     * @return sorted rows
+     */
+    private static int[] sort(int[] ascending, int[] descending, int size) {
+        if (size == 0) {
+            return new int[0];
+        }
+        int minAscending = min(ascending, size);
+        long ascendingRange = (long) max(ascending, size) - minAscending;
+        int maxDescending = descending == null ? 0 : max(descending, size);
+        long descendingRange = descending == null ? 0 : (long) maxDescending - min(descending, size);
+
+        if (fitsCountingSort(ascendingRange, size) && fitsCountingSort(descendingRange, size)) {
+            int[] rows = null;
+            if (descending != null) {
+                // Least significant key first, the stable second pass keeps its order within equal primary keys
+                rows = countingSort(null, descending, size, maxDescending, (int) descendingRange, true);
+            }
+            return countingSort(rows, ascending, size, minAscending, (int) ascendingRange, false);
+        }
+
+        int ascendingBits = bits(ascendingRange);
+        int descendingBits = bits(descendingRange);
+        int rowBits = bits(size - 1);
+        if (ascendingBits + descendingBits + rowBits > 63) {
+            return mergeSort(ascending, descending, size);
+        }
+
+        long[] packed = new long[size];
+        for (int row = 0; row < size; row++) {
+            long key = (long) ascending[row] - minAscending;
+            if (descending != null) {
+                key = key << descendingBits | ((long) maxDescending - descending[row]);
+            }
+            packed[row] = key << rowBits | row;
+        }
+        Arrays.sort(packed);
+
+        int[] rows = new int[size];
+        long rowMask = (1L << rowBits) - 1;
+        for (int i = 0; i < size; i++) {
+            rows[i] = (int) (packed[i] & rowMask);
+        }
+        return rows;
+    }
+
+    /**
+     * Stable counting sort of rows by a key
+     *
+     * @param rows       rows to sort, or null for rows in their natural order
+     * @param keys       key of every row
+     * @param size       number of rows
+     * @param origin     minimal key for ascending order, maximal key for descending order
+     * @param range      difference between maximal and minimal key
+     * @param descending whether to sort in descending order
+     * @return sorted rows
+     */
+    private static int[] countingSort(int[] rows, int[] keys, int size, int origin, int range, boolean descending) {
+        int[] bucketStarts = new int[range + 2];
+        for (int i = 0; i < size; i++) {
+            bucketStarts[bucket(keys[rows == null ? i : rows[i]], origin, descending) + 1]++;
+        }
+        for (int bucket = 1; bucket <= range + 1; bucket++) {
+            bucketStarts[bucket] += bucketStarts[bucket - 1];
+        }
+        int[] sortedRows = new int[size];
+        for (int i = 0; i < size; i++) {
+            int row = rows == null ? i : rows[i];
+            sortedRows[bucketStarts[bucket(keys[row], origin, descending)]++] = row;
+        }
+        return sortedRows;
+    }
+
+    private static int bucket(int key, int origin, boolean descending) {
+        return descending ? origin - key : key - origin;
+    }
+
+    /**
+     * Counting sort pays off when there are fewer buckets than rows
+     */
+    private static boolean fitsCountingSort(long range, int size) {
+        return range < size;
+    }
+
+    /**
+     * Bottom-up merge sort of row indexes, used when keys are too wide to be packed.
+     *
+     * @param ascending  primary key, compared in ascending order
+     * @param descending secondary key compared in descending order, or null
+     * @param size       number of rows
+     * @return sorted rows
+     */
+    private static int[] mergeSort(int[] ascending, int[] descending, int size) {
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) {
+            rows[row] = row;
+        }
+        int[] buffer = new int[size];
+        for (int width = 1; width < size; width <<= 1) {
+            for (int low = 0; low < size - width; low += width << 1) {
+                int middle = low + width;
+                int high = Math.min(low + (width << 1), size);
+                // Already in order, nothing to merge
+                if (compare(rows[middle - 1], rows[middle], ascending, descending) <= 0) {
+                    continue;
+                }
+                merge(rows, buffer, low, middle, high, ascending, descending);
+            }
+        }
+        return rows;
+    }
+
+    private static void merge(int[] rows, int[] buffer, int low, int middle, int high, int[] ascending, int[] descending) {
+        System.arraycopy(rows, low, buffer, low, high - low);
+        int left = low;
+        int right = middle;
+        for (int i = low; i < high; i++) {
+            if (left < middle && (right >= high || compare(buffer[left], buffer[right], ascending, descending) <= 0)) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    private static int compare(int row1, int row2, int[] ascending, int[] descending) {
+        int comparison = Integer.compare(ascending[row1], ascending[row2]);
+        if (comparison != 0 || descending == null) {
+            return comparison;
+        }
+        return Integer.compare(descending[row2], descending[row1]);
+    }
+
+    private static int min(int[] values, int size) {
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    private static int max(int[] values, int size) {
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Number of bits needed to store values from 0 to range
+     */
+    private static int bits(long range) {
+        return 64 - Long.numberOfLeadingZeros(range);
+    }
+}
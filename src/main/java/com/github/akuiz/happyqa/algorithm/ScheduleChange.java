@@ -0,0 +1,52 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+/**
+ * This class is the answer to a what-if query of {@link IncrementalScheduler}: releases the change would add to the
+ * schedule and releases it would drop from the schedule, both in end testing day order. A release that stays in the
+ * schedule with other testing days is both dropped, with its current days, and added, with its new days.
+ */
+
+public final class ScheduleChange {
+
+    private final ReleaseTable added;
+
+    private final ReleaseTable dropped;
+
+    private final int scheduleSize;
+
+    ScheduleChange(ReleaseTable added, ReleaseTable dropped, int scheduleSize) {
+        this.added = added;
+        this.dropped = dropped;
+        this.scheduleSize = scheduleSize;
+    }
+
+    /**
+     * Returns releases the change adds to the schedule
+     */
+    public ReleaseTable getAdded() {
+        return added.copy();
+    }
+
+    /**
+     * Returns releases the change drops from the schedule
+     */
+    public ReleaseTable getDropped() {
+        return dropped.copy();
+    }
+
+    /**
+     * Returns size of the schedule after the change
+     */
+    public int getScheduleSize() {
+        return scheduleSize;
+    }
+
+    /**
+     * Returns whether the change leaves the schedule as it is
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && dropped.isEmpty();
+    }
+}
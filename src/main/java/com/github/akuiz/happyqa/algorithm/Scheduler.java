@@ -0,0 +1,163 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.release.OffHeapReleaseTable;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * This class selects one of the scheduling algorithms of {@link Algorithm} by its settings: basic or advanced algorithm,
+ * sprint duration, number of testers, weighted mode of the basic algorithm and exact mode of the advanced one.
+ * It is immutable and can be shared between threads.
+ */
+
+public class Scheduler {
+
+    /**
+     * Scheduling algorithm
+     */
+    public enum Type {
+
+        /**
+         * Release testing must start on the same day of the delivery
+         */
+        BASIC,
+
+        /**
+         * Release testing can be postponed
+         */
+        ADVANCED;
+
+        /**
+         * Algorithm of the launcher and of the scheduling server when none is given
+         */
+        public static final Type DEFAULT = ADVANCED;
+
+        /**
+         * Returns the algorithm by its name, 'basic' or 'advanced'
+         *
+         * @throws IllegalArgumentException if the name is unknown
+         */
+        public static Type of(String name) {
+            for (Type type : values()) {
+                if (type.name().equalsIgnoreCase(name)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown algorithm: " + name + ", use basic or advanced");
+        }
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Type type;
+
+    private final int sprintDuration;
+
+    private final int testers;
+
+    private final boolean weighted;
+
+    private final boolean exact;
+
+    /**
+     * Creates a scheduler
+     *
+     * @param type           scheduling algorithm
+     * @param sprintDuration duration of the sprint in days
+     * @param testers        number of testers working in parallel
+     * @param weighted       basic algorithm maximizes total weight of the releases instead of their number
+     * @param exact          advanced algorithm with a single tester always takes the maximal number of releases
+     * @throws IllegalArgumentException if the settings can't be combined
+     */
+    public Scheduler(Type type, int sprintDuration, int testers, boolean weighted, boolean exact) {
+        if (testers < 1) {
+            throw new IllegalArgumentException("Number of testers must be positive: " + testers);
+        }
+        if (weighted && (type != Type.BASIC || testers != 1)) {
+            throw new IllegalArgumentException("Weighted scheduling supports the basic algorithm with a single tester only");
+        }
+        this.type = type;
+        this.sprintDuration = sprintDuration;
+        this.testers = testers;
+        this.weighted = weighted;
+        this.exact = exact;
+    }
+
+    /**
+     * Creates a scheduler configured by system properties sprint.duration, testers, weighted and advanced.exact,
+     * with the same defaults as the command line applications have
+     *
+     * @param type scheduling algorithm
+     */
+    public static Scheduler fromSystemProperties(Type type) {
+        return new Scheduler(type,
+                Integer.parseInt(System.getProperty("sprint.duration", "10")),
+                Integer.parseInt(System.getProperty("testers", "1")),
+                Boolean.parseBoolean(System.getProperty("weighted", "false")),
+                Boolean.parseBoolean(System.getProperty("advanced.exact", "false")));
+    }
+
+    /**
+     * Schedules releases of the table. The table is trimmed in place.
+     *
+     * @param releaseTable given table of releases
+     * @return release testing schedule
+     */
+    public ReleaseTable schedule(ReleaseTable releaseTable) {
+        if (type == Type.BASIC) {
+            if (weighted) {
+                return Algorithm.createOptimalWeightedTestingSchedule(releaseTable, sprintDuration);
+            }
+            return Algorithm.createOptimalTestingSchedule(releaseTable, sprintDuration, testers);
+        }
+        if (exact && testers == 1) {
+            return Algorithm.releaseScheduleAdvancedExact(releaseTable, sprintDuration);
+        }
+        return Algorithm.releaseScheduleAdvanced(releaseTable, sprintDuration, testers);
+    }
+
+    /**
+     * Schedules releases of an off-heap table, the table is left untouched. Supports a single tester and no weights.
+     *
+     * @param releaseTable given off-heap table of releases
+     * @return release testing schedule
+     * @throws IOException if a scratch file can't be created
+     */
+    public ReleaseTable schedule(OffHeapReleaseTable releaseTable) throws IOException {
+        if (testers != 1 || weighted) {
+            throw new IllegalArgumentException("Off-heap scheduling supports a single tester and no weights only");
+        }
+        if (type == Type.BASIC) {
+            return Algorithm.createOptimalTestingSchedule(releaseTable, sprintDuration);
+        }
+        if (exact) {
+            return Algorithm.releaseScheduleAdvancedExact(releaseTable, sprintDuration);
+        }
+        return Algorithm.releaseScheduleAdvanced(releaseTable, sprintDuration);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getSprintDuration() {
+        return sprintDuration;
+    }
+
+    public int getTesters() {
+        return testers;
+    }
+
+    public boolean isWeighted() {
+        return weighted;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+}
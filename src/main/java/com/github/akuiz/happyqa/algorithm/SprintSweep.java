@@ -0,0 +1,156 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.util.Arrays;
+
+/**
+ * This class holds results of scheduling the same releases for every sprint duration from 1 to a maximal one.
+ * Schedule sizes are computed up front, schedules themselves are built on request.
+ * The release table must not be modified while the sweep is in use.
+ */
+
+public class SprintSweep {
+
+    /**
+     * Given table of releases
+     */
+    private final ReleaseTable releaseTable;
+
+    /**
+     * Largest sprint duration of the sweep
+     */
+    private final int maxSprintDuration;
+
+    /**
+     * Whether testing of a release can be postponed (advanced algorithm)
+     */
+    private final boolean advanced;
+
+    /**
+     * Basic algorithm: rows picked by a single scan in end testing day order.
+     * Advanced algorithm: 'in time to test' rows sorted by start testing day following by time to test descending.
+     */
+    private final int[] rows;
+
+    /**
+     * Schedule size for every sprint duration, index is the sprint duration
+     */
+    private final int[] scheduleSizes;
+
+    private SprintSweep(ReleaseTable releaseTable, int maxSprintDuration, boolean advanced, int[] rows, int[] scheduleSizes) {
+        this.releaseTable = releaseTable;
+        this.maxSprintDuration = maxSprintDuration;
+        this.advanced = advanced;
+        this.rows = rows;
+        this.scheduleSizes = scheduleSizes;
+    }
+
+    /**
+     * Basic algorithm sweep. A release ending on day d is never affected by releases ending later, so schedule for
+     * sprint duration d is the prefix of a single end testing day ordered scan that ends not later than d.
+     */
+    static SprintSweep basic(ReleaseTable releaseTable, int maxSprintDuration, int[] rowsSortedByEndTestingDay) {
+        int[] pickedRows = new int[rowsSortedByEndTestingDay.length];
+        int[] scheduleSizes = new int[maxSprintDuration + 1];
+        int pickedCount = 0;
+        int optimalEndTestingDay = 0;
+        for (int row : rowsSortedByEndTestingDay) {
+            if (releaseTable.getStartTestingDay(row) > optimalEndTestingDay) {
+                optimalEndTestingDay = releaseTable.getEndTestingDay(row);
+                pickedRows[pickedCount++] = row;
+                // A release ending before the first day, e.g. with no time to test, is in the schedule of every sprint
+                scheduleSizes[Math.max(optimalEndTestingDay, 0)]++;
+            }
+        }
+        // Number of picked releases ending not later than each day
+        for (int day = 1; day <= maxSprintDuration; day++) {
+            scheduleSizes[day] += scheduleSizes[day - 1];
+        }
+        return new SprintSweep(releaseTable, maxSprintDuration, false, Arrays.copyOf(pickedRows, pickedCount), scheduleSizes);
+    }
+
+    /**
+     * Advanced algorithm sweep. Backward scan depends on the sprint end, so the sort is shared and the scan is
+     * repeated for every sprint duration over the shortest prefix that holds all releases ending not later than that
+     * duration: O(n log n + n * D).
+     */
+    static SprintSweep advanced(ReleaseTable releaseTable, int maxSprintDuration, int[] rowsSortedByStartTestingDay) {
+        // Earliest end testing day of the rows from each position on. A release with no time to test can end before
+        // it starts, so the rows ending within a sprint are the ones before the first position with a later minimum.
+        int[] minEndTestingDays = new int[rowsSortedByStartTestingDay.length + 1];
+        minEndTestingDays[rowsSortedByStartTestingDay.length] = Integer.MAX_VALUE;
+        for (int i = rowsSortedByStartTestingDay.length - 1; i >= 0; i--) {
+            minEndTestingDays[i] = Math.min(minEndTestingDays[i + 1], releaseTable.getEndTestingDay(rowsSortedByStartTestingDay[i]));
+        }
+
+        int[] scheduleSizes = new int[maxSprintDuration + 1];
+        int candidates = 0;
+        for (int sprintDuration = 1; sprintDuration <= maxSprintDuration; sprintDuration++) {
+            // Releases ending after the sprint end can't be tested
+            while (candidates < rowsSortedByStartTestingDay.length && minEndTestingDays[candidates] <= sprintDuration) {
+                candidates++;
+            }
+            int optimalStartTestingDay = sprintDuration + 1;
+            int scheduleSize = 0;
+            for (int i = candidates - 1; i >= 0; i--) {
+                int row = rowsSortedByStartTestingDay[i];
+                // Releases of the prefix ending after the sprint end are skipped like trimmed ones. A negative time
+                // to test moves the optimal start testing day later, so the second check alone doesn't skip them.
+                int endTestingDay = releaseTable.getEndTestingDay(row);
+                if (endTestingDay <= sprintDuration && endTestingDay < optimalStartTestingDay) {
+                    optimalStartTestingDay -= releaseTable.getTimeToTest(row);
+                    scheduleSize++;
+                }
+            }
+            scheduleSizes[sprintDuration] = scheduleSize;
+        }
+        return new SprintSweep(releaseTable, maxSprintDuration, true, rowsSortedByStartTestingDay, scheduleSizes);
+    }
+
+    public int getMaxSprintDuration() {
+        return maxSprintDuration;
+    }
+
+    /**
+     * Returns size of the optimal schedule for a sprint duration
+     *
+     * @param sprintDuration duration of the sprint in days, from 0 to the maximal sprint duration
+     */
+    public int getScheduleSize(int sprintDuration) {
+        return scheduleSizes[checkSprintDuration(sprintDuration)];
+    }
+
+    /**
+     * Returns sizes of the optimal schedules, index of the array is the sprint duration
+     */
+    public int[] getScheduleSizes() {
+        return scheduleSizes.clone();
+    }
+
+    /**
+     * Returns the optimal schedule for a sprint duration, same as the single sprint duration algorithm provides
+     *
+     * @param sprintDuration duration of the sprint in days, from 0 to the maximal sprint duration
+     */
+    public ReleaseTable getSchedule(int sprintDuration) {
+        checkSprintDuration(sprintDuration);
+        if (advanced) {
+            return Algorithm.scheduleSortedByStartTestingDay(releaseTable, rows, sprintDuration);
+        }
+        ReleaseTable optimalReleaseTestingSchedule = new ReleaseTable(scheduleSizes[sprintDuration]);
+        for (int i = 0; i < scheduleSizes[sprintDuration]; i++) {
+            int row = rows[i];
+            optimalReleaseTestingSchedule.add(releaseTable.getDeliveryDay(row), releaseTable.getStartTestingDay(row),
+                    releaseTable.getTimeToTest(row), releaseTable.getOrdinal(row));
+        }
+        return optimalReleaseTestingSchedule;
+    }
+
+    private int checkSprintDuration(int sprintDuration) {
+        if (sprintDuration < 0 || sprintDuration > maxSprintDuration) {
+            throw new IllegalArgumentException("Sprint duration " + sprintDuration + " is out of range 0.." + maxSprintDuration);
+        }
+        return sprintDuration;
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.akuiz.happyqa.algorithm;
+
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+/**
+ * This class finds a schedule of non-overlapping releases with the maximal total weight (weighted interval
+ * scheduling). Releases are taken in end testing day order, for each of them the last release ending before its start
+ * is found by binary search, and the best total weight of every prefix is computed by dynamic programming.
+ * Time is O(n log n), memory is a few primitive arrays of n elements.
+ */
+
+final class WeightedScheduler {
+
+    private WeightedScheduler() {
+    }
+
+    /**
+     * Basic algorithm maximizing total weight instead of the number of releases
+     *
+     * @param releaseTable given table of releases
+     * @param sortedRows   'in time to test' rows sorted by end testing day
+     * @return schedule in end testing day order, each release keeps its weight
+     */
+    static ReleaseTable scheduleSortedByEndTestingDay(ReleaseTable releaseTable, int[] sortedRows) {
+        int size = sortedRows.length;
+
+        // End testing days in the sorted order
+        int[] endTestingDays = new int[size];
+        for (int i = 0; i < size; i++) {
+            endTestingDays[i] = releaseTable.getEndTestingDay(sortedRows[i]);
+        }
+
+        // Number of releases ending before start of each release, any of them can be tested before it
+        int[] compatibleCounts = new int[size];
+
+        // Best total weight of the first i releases
+        long[] bestWeights = new long[size + 1];
+
+        for (int i = 0; i < size; i++) {
+            int row = sortedRows[i];
+            compatibleCounts[i] = countEndingBefore(endTestingDays, i, releaseTable.getStartTestingDay(row));
+            long withRelease = bestWeights[compatibleCounts[i]] + releaseTable.getWeight(row);
+            bestWeights[i + 1] = Math.max(bestWeights[i], withRelease);
+        }
+
+        // Walk back through the decisions, a release is taken only when it makes the total weight strictly larger
+        int scheduleSize = 0;
+        int[] scheduledRows = new int[size];
+        for (int i = size; i > 0; ) {
+            if (bestWeights[i] == bestWeights[i - 1]) {
+                i--;
+            } else {
+                scheduledRows[scheduleSize++] = sortedRows[i - 1];
+                i = compatibleCounts[i - 1];
+            }
+        }
+
+        ReleaseTable optimalReleaseTestingSchedule = new ReleaseTable(scheduleSize);
+        for (int i = scheduleSize - 1; i >= 0; i--) {
+            int row = scheduledRows[i];
+            int scheduledRow = optimalReleaseTestingSchedule.add(releaseTable.getDeliveryDay(row), releaseTable.getStartTestingDay(row),
+                    releaseTable.getTimeToTest(row), releaseTable.getOrdinal(row));
+            optimalReleaseTestingSchedule.setWeight(scheduledRow, releaseTable.getWeight(row));
+        }
+        return optimalReleaseTestingSchedule;
+    }
+
+    /**
+     * Returns number of the first releases ending before the given day, releases are sorted by end testing day
+     */
+    private static int countEndingBefore(int[] endTestingDays, int size, int day) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (endTestingDays[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,337 @@
+package com.github.akuiz.happyqa.cache;
+
+import com.github.akuiz.happyqa.algorithm.Scheduler;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class caches both output files of a schedule by the content of the input file and the scheduler settings,
+ * so repeated runs on the same input skip parsing and scheduling. Recently used outputs are kept in memory, all of
+ * them are kept in a directory shared by later runs. Both tiers evict the least recently used outputs when they are
+ * over their size limits. The key is the 64-bit xxHash and the length of the input, a collision of both is
+ * practically impossible but is not detected.
+ */
+
+public class ScheduleCache {
+
+    /**
+     * Size of the input file windows mapped for hashing
+     */
+    private static final long HASH_WINDOW = 1L << 30;
+
+    private static final String OUTPUT_SUFFIX = ".output.txt";
+
+    private static final String OUTPUT_ADVANCED_SUFFIX = ".output-advanced.txt";
+
+    private final long memoryBudget;
+
+    private final Path directory;
+
+    private final long diskCapacity;
+
+    /**
+     * Memory tier in access order, the eldest entry is the least recently used one
+     */
+    private final LinkedHashMap<String, CachedOutputs> memory = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long memorySize;
+
+    private long diskSize;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+
+    private final AtomicLong diskHits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a cache
+     *
+     * @param memoryBudget maximal total size of the outputs kept in memory in bytes, 0 disables the memory tier
+     * @param directory    directory of the disk tier, created if missing, null disables the disk tier
+     * @param diskCapacity maximal total size of the cached output files in bytes
+     * @throws IOException if the directory can't be created or read
+     */
+    public ScheduleCache(long memoryBudget, Path directory, long diskCapacity) throws IOException {
+        this.memoryBudget = memoryBudget;
+        this.directory = directory;
+        this.diskCapacity = diskCapacity;
+        if (directory != null) {
+            Files.createDirectories(directory);
+            for (Path file : cachedFiles()) {
+                diskSize += sizeOrZero(file);
+            }
+        }
+    }
+
+    /**
+     * Returns the key of schedules of the given input file made by the given scheduler
+     *
+     * @param releasesFile input file with releases
+     * @param scheduler    scheduler settings, every setting changing the schedule is a part of the key
+     */
+    public static String key(Path releasesFile, Scheduler scheduler) throws IOException {
+        return key(releasesFile, scheduler, null, null);
+    }
+
+    /**
+     * Returns the key of schedules of the given input file made by the given scheduler and written to the given
+     * output files. Outputs named *.gz are gzipped, so their encoding is a part of the key as well.
+     *
+     * @param releasesFile   input file with releases
+     * @param scheduler      scheduler settings, every setting changing the schedule is a part of the key
+     * @param output         output file with delivery day and end testing day, null for an uncompressed one
+     * @param outputAdvanced output file with all details, null for an uncompressed one
+     */
+    public static String key(Path releasesFile, Scheduler scheduler, Path output, Path outputAdvanced) throws IOException {
+        XxHash64 hash = new XxHash64(0);
+        long length;
+        try (FileChannel channel = FileChannel.open(releasesFile, StandardOpenOption.READ)) {
+            length = channel.size();
+            for (long position = 0; position < length; position += HASH_WINDOW) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(HASH_WINDOW, length - position));
+                hash.update(window);
+            }
+        }
+
+        StringBuilder key = new StringBuilder(64);
+        key.append(scheduler.getType()).append("-s").append(scheduler.getSprintDuration())
+                .append("-t").append(scheduler.getTesters());
+        if (scheduler.isWeighted()) {
+            key.append("-weighted");
+        }
+        if (scheduler.getType() == Scheduler.Type.ADVANCED && scheduler.isExact()) {
+            key.append("-exact");
+        }
+        boolean gzipped = isGzipped(output);
+        boolean gzippedAdvanced = isGzipped(outputAdvanced);
+        if (gzipped || gzippedAdvanced) {
+            key.append("-gz").append(gzipped ? '1' : '0').append(gzippedAdvanced ? '1' : '0');
+        }
+        key.append('-').append(length).append('-');
+        String hex = Long.toHexString(hash.digest());
+        for (int i = hex.length(); i < 16; i++) {
+            key.append('0');
+        }
+        return key.append(hex).toString();
+    }
+
+    private static boolean isGzipped(Path output) {
+        return output != null && output.getFileName() != null
+                && output.getFileName().toString().endsWith(FileUtils.GZIP_SUFFIX);
+    }
+
+    /**
+     * Writes the cached outputs of the key to the output files
+     *
+     * @return true on a hit, false if the outputs are not cached and the output files are untouched
+     */
+    public boolean copyTo(String key, Path output, Path outputAdvanced) throws IOException {
+        CachedOutputs cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+        }
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            Files.write(output, cached.output);
+            Files.write(outputAdvanced, cached.outputAdvanced);
+            return true;
+        }
+
+        if (directory != null && copyFromDisk(key, output, outputAdvanced)) {
+            diskHits.incrementAndGet();
+            return true;
+        }
+        misses.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Caches the output files written for the key
+     */
+    public void put(String key, Path output, Path outputAdvanced) throws IOException {
+        long size = Files.size(output) + Files.size(outputAdvanced);
+        if (size <= memoryBudget) {
+            putInMemory(key, new CachedOutputs(Files.readAllBytes(output), Files.readAllBytes(outputAdvanced)));
+        }
+        if (directory != null && size <= diskCapacity) {
+            putOnDisk(key, output, outputAdvanced, size);
+        }
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private boolean copyFromDisk(String key, Path output, Path outputAdvanced) throws IOException {
+        Path cachedOutput = directory.resolve(key + OUTPUT_SUFFIX);
+        Path cachedOutputAdvanced = directory.resolve(key + OUTPUT_ADVANCED_SUFFIX);
+        // Both files are opened first, an entry evicted by another run afterwards is still readable
+        try (FileChannel outputChannel = FileChannel.open(cachedOutput, StandardOpenOption.READ);
+             FileChannel outputAdvancedChannel = FileChannel.open(cachedOutputAdvanced, StandardOpenOption.READ)) {
+            transfer(outputChannel, output);
+            transfer(outputAdvancedChannel, outputAdvanced);
+
+            long size = outputChannel.size() + outputAdvancedChannel.size();
+            if (size <= memoryBudget) {
+                putInMemory(key, new CachedOutputs(Files.readAllBytes(output), Files.readAllBytes(outputAdvanced)));
+            }
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        // Modification time of the basic output is the last access time of the entry
+        try {
+            Files.setLastModifiedTime(cachedOutput, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (NoSuchFileException e) {
+            // Evicted by another run, the outputs are already copied
+        }
+        return true;
+    }
+
+    private static void transfer(FileChannel source, Path target) throws IOException {
+        try (FileChannel targetChannel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long size = source.size();
+            for (long position = 0; position < size; ) {
+                position += source.transferTo(position, size - position, targetChannel);
+            }
+        }
+    }
+
+    private void putInMemory(String key, CachedOutputs outputs) {
+        synchronized (memory) {
+            CachedOutputs previous = memory.put(key, outputs);
+            if (previous != null) {
+                memorySize -= previous.size();
+            }
+            memorySize += outputs.size();
+            Iterator<CachedOutputs> eldest = memory.values().iterator();
+            while (memorySize > memoryBudget) {
+                memorySize -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+    }
+
+    private synchronized void putOnDisk(String key, Path output, Path outputAdvanced, long size) throws IOException {
+        Path cachedOutput = directory.resolve(key + OUTPUT_SUFFIX);
+        if (Files.exists(cachedOutput)) {
+            return;
+        }
+
+        // Copies are moved in place atomically, the basic output last, as it marks a complete entry
+        Path temporaryAdvanced = Files.createTempFile(directory, key, ".tmp");
+        Path temporaryOutput = Files.createTempFile(directory, key, ".tmp");
+        try {
+            Files.copy(outputAdvanced, temporaryAdvanced, StandardCopyOption.REPLACE_EXISTING);
+            Files.copy(output, temporaryOutput, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temporaryAdvanced, directory.resolve(key + OUTPUT_ADVANCED_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+            Files.move(temporaryOutput, cachedOutput, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryAdvanced);
+            Files.deleteIfExists(temporaryOutput);
+        }
+        diskSize += size;
+
+        if (diskSize > diskCapacity) {
+            evictFromDisk();
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the disk tier fits its capacity
+     */
+    private void evictFromDisk() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        Map<Path, FileTime> accessTimes = new LinkedHashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + OUTPUT_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    accessTimes.put(file, Files.getLastModifiedTime(file));
+                    entries.add(file);
+                } catch (NoSuchFileException e) {
+                    // Evicted by another run
+                }
+            }
+        }
+        entries.sort((a, b) -> accessTimes.get(a).compareTo(accessTimes.get(b)));
+
+        // Sizes are recounted, other runs may share the directory
+        diskSize = 0;
+        for (Path file : cachedFiles()) {
+            diskSize += sizeOrZero(file);
+        }
+        for (int i = 0; i < entries.size() && diskSize > diskCapacity; i++) {
+            Path cachedOutput = entries.get(i);
+            String name = cachedOutput.getFileName().toString();
+            Path cachedOutputAdvanced = directory.resolve(
+                    name.substring(0, name.length() - OUTPUT_SUFFIX.length()) + OUTPUT_ADVANCED_SUFFIX);
+            diskSize -= sizeOrZero(cachedOutput) + sizeOrZero(cachedOutputAdvanced);
+            // The basic output goes first, so no reader finds an incomplete entry
+            Files.deleteIfExists(cachedOutput);
+            Files.deleteIfExists(cachedOutputAdvanced);
+        }
+    }
+
+    private List<Path> cachedFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> directoryFiles = Files.newDirectoryStream(directory, "*.txt")) {
+            for (Path file : directoryFiles) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private static long sizeOrZero(Path file) throws IOException {
+        try {
+            return Files.size(file);
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Content of both output files
+     */
+    private static class CachedOutputs {
+
+        private final byte[] output;
+
+        private final byte[] outputAdvanced;
+
+        CachedOutputs(byte[] output, byte[] outputAdvanced) {
+            this.output = output;
+            this.outputAdvanced = outputAdvanced;
+        }
+
+        long size() {
+            return (long) output.length + outputAdvanced.length;
+        }
+    }
+}
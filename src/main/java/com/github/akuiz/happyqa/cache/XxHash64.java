@@ -0,0 +1,126 @@
+package com.github.akuiz.happyqa.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * This class computes the 64-bit xxHash of a byte stream fed in chunks of any size, e.g. windows of a mapped file.
+ * Stripes of 32 bytes are hashed by four independent accumulators, bytes of an incomplete stripe wait for the next chunk.
+ */
+
+final class XxHash64 {
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+    private static final int STRIPE_LENGTH = 32;
+
+    private final long seed;
+
+    private long v1;
+
+    private long v2;
+
+    private long v3;
+
+    private long v4;
+
+    private long length;
+
+    private final ByteBuffer pending = ByteBuffer.allocate(STRIPE_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+
+    XxHash64(long seed) {
+        this.seed = seed;
+        v1 = seed + PRIME_1 + PRIME_2;
+        v2 = seed + PRIME_2;
+        v3 = seed;
+        v4 = seed - PRIME_1;
+    }
+
+    /**
+     * Hashes the remaining bytes of the buffer, its position is moved to the limit
+     */
+    void update(ByteBuffer buffer) {
+        ByteBuffer input = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(buffer.limit());
+        length += input.remaining();
+
+        // Complete the stripe left by the previous chunk
+        if (pending.position() > 0) {
+            while (pending.hasRemaining() && input.hasRemaining()) {
+                pending.put(input.get());
+            }
+            if (pending.hasRemaining()) {
+                return;
+            }
+            pending.flip();
+            stripe(pending);
+            pending.clear();
+        }
+
+        while (input.remaining() >= STRIPE_LENGTH) {
+            stripe(input);
+        }
+        pending.put(input);
+    }
+
+    /**
+     * Returns the hash of all bytes fed so far
+     */
+    long digest() {
+        long hash;
+        if (length >= STRIPE_LENGTH) {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = seed + PRIME_5;
+        }
+        hash += length;
+
+        ByteBuffer tail = pending.duplicate().flip().order(ByteOrder.LITTLE_ENDIAN);
+        while (tail.remaining() >= Long.BYTES) {
+            hash ^= round(0, tail.getLong());
+            hash = Long.rotateLeft(hash, 27) * PRIME_1 + PRIME_4;
+        }
+        if (tail.remaining() >= Integer.BYTES) {
+            hash ^= (tail.getInt() & 0xFFFFFFFFL) * PRIME_1;
+            hash = Long.rotateLeft(hash, 23) * PRIME_2 + PRIME_3;
+        }
+        while (tail.hasRemaining()) {
+            hash ^= (tail.get() & 0xFFL) * PRIME_5;
+            hash = Long.rotateLeft(hash, 11) * PRIME_1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private void stripe(ByteBuffer input) {
+        v1 = round(v1, input.getLong());
+        v2 = round(v2, input.getLong());
+        v3 = round(v3, input.getLong());
+        v4 = round(v4, input.getLong());
+    }
+
+    private static long round(long accumulator, long input) {
+        return Long.rotateLeft(accumulator + input * PRIME_2, 31) * PRIME_1;
+    }
+
+    private static long mergeRound(long hash, long accumulator) {
+        return (hash ^ round(0, accumulator)) * PRIME_1 + PRIME_4;
+    }
+}
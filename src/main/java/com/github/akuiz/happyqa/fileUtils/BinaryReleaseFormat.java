@@ -0,0 +1,422 @@
+package com.github.akuiz.happyqa.fileUtils;
+
+import com.github.akuiz.happyqa.release.OffHeapReleaseTable;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * This class reads and writes releases in a compact binary format, for archives that are scheduled many times.
+ * A file starts with a 32 byte header: magic 'HQAB', format version, flags, number of releases, maximal end testing
+ * day, sprint duration hint (0 when not given), CRC32C checksum of the body and length of the body.
+ * The body holds delivery day and time to test of every release, followed by the weight when the weights flag is set,
+ * each number as a varint, zigzag encoded when the signed flag is set. Days of a sprint up to 127 take a byte each,
+ * so a release takes about 2 bytes instead of about 6 bytes of text. Releases are numbered by their position in the
+ * file, same as lines of releases.txt.
+ */
+
+public final class BinaryReleaseFormat {
+
+    /**
+     * 'HQAB' in ASCII
+     */
+    private static final int MAGIC = 0x48514142;
+
+    private static final byte VERSION = 1;
+
+    private static final byte WEIGHTS_FLAG = 1;
+
+    /**
+     * Set when any number is negative, numbers are zigzag encoded then
+     */
+    private static final byte SIGNED_FLAG = 2;
+
+    private static final int HEADER_SIZE = 32;
+
+    /**
+     * A varint of an int takes up to 5 bytes, a release up to 3 varints
+     */
+    private static final int MAX_RECORD_SIZE = 15;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Number of releases an off-heap load keeps on the heap at a time
+     */
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    private BinaryReleaseFormat() {
+    }
+
+    /**
+     * Header of a binary releases file
+     */
+    public static final class Header {
+
+        private final boolean weights;
+
+        private final boolean signed;
+
+        private final int count;
+
+        private final int maxDay;
+
+        private final int sprintDurationHint;
+
+        private final int checksum;
+
+        private final long bodyLength;
+
+        private Header(boolean weights, boolean signed, int count, int maxDay, int sprintDurationHint, int checksum,
+                       long bodyLength) {
+            this.weights = weights;
+            this.signed = signed;
+            this.count = count;
+            this.maxDay = maxDay;
+            this.sprintDurationHint = sprintDurationHint;
+            this.checksum = checksum;
+            this.bodyLength = bodyLength;
+        }
+
+        /**
+         * Whether a weight is stored for every release
+         */
+        public boolean hasWeights() {
+            return weights;
+        }
+
+        /**
+         * Returns number of releases in the file
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the latest end testing day of the releases, 0 for an empty file
+         */
+        public int getMaxDay() {
+            return maxDay;
+        }
+
+        /**
+         * Returns sprint duration the releases were meant for, 0 when not given
+         */
+        public int getSprintDurationHint() {
+            return sprintDurationHint;
+        }
+    }
+
+    /**
+     * Returns whether the file starts with the magic of the binary format
+     */
+    public static boolean isBinary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // Read until the magic is complete or the file ends
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     * Reads the header of a binary releases file
+     *
+     * @throws IOException if an I/O error occurs or the file is not in binary format
+     */
+    public static Header readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readHeader(channel, file);
+        }
+    }
+
+    /**
+     * Writes releases of the table in binary format
+     *
+     * @param releaseTable       given table of releases, in the order of their ordinals
+     * @param file               output file
+     * @param sprintDurationHint sprint duration the releases are meant for, 0 when not known
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void write(ReleaseTable releaseTable, Path file, int sprintDurationHint) throws IOException {
+        boolean weights = releaseTable.hasWeights();
+        boolean signed = hasNegativeNumbers(releaseTable);
+        CRC32C checksum = new CRC32C();
+        long bodyLength = 0;
+        int maxDay = releaseTable.isEmpty() ? 0 : Integer.MIN_VALUE;
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            channel.position(HEADER_SIZE);
+            for (int row = 0; row < releaseTable.size(); row++) {
+                if (buffer.remaining() < MAX_RECORD_SIZE) {
+                    bodyLength += flush(channel, buffer, checksum);
+                }
+                putVarint(buffer, releaseTable.getDeliveryDay(row), signed);
+                putVarint(buffer, releaseTable.getTimeToTest(row), signed);
+                if (weights) {
+                    putVarint(buffer, releaseTable.getWeight(row), signed);
+                }
+                maxDay = Math.max(maxDay, releaseTable.getEndTestingDay(row));
+            }
+            bodyLength += flush(channel, buffer, checksum);
+
+            // Header goes last, when the checksum and the body length are known
+            buffer.clear();
+            byte flags = (byte) ((weights ? WEIGHTS_FLAG : 0) | (signed ? SIGNED_FLAG : 0));
+            buffer.putInt(MAGIC).put(VERSION).put(flags).putShort((short) 0)
+                    .putInt(releaseTable.size()).putInt(maxDay).putInt(sprintDurationHint)
+                    .putInt((int) checksum.getValue()).putLong(bodyLength);
+            buffer.flip();
+            channel.position(0);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads a binary releases file into a release table. The file is read through a FileChannel straight into the
+     * primitive columns of the table, which is allocated for the number of releases given in the header.
+     *
+     * @param file binary releases file
+     * @return a table of releases, ordinal of each release is its position in the file
+     * @throws IOException if an I/O error occurs or the file is corrupt
+     */
+    public static ReleaseTable read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, file);
+            ReleaseTable releaseTable = new ReleaseTable(header.count);
+            decode(channel, header, file, releaseTable, null);
+            return releaseTable;
+        }
+    }
+
+    /**
+     * Reads a binary releases file into an off-heap table, only a block of releases is kept on the heap at a time.
+     * Weights are not kept.
+     *
+     * @param file         binary releases file
+     * @param releaseTable off-heap table the releases are added to
+     * @throws IOException if an I/O error occurs or the file is corrupt
+     */
+    public static void read(Path file, OffHeapReleaseTable releaseTable) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel, file);
+            decode(channel, header, file, new ReleaseTable(Math.min(header.count, BLOCK_SIZE)), releaseTable);
+        }
+    }
+
+    /**
+     * Converts a releases.txt file into binary format
+     *
+     * @param textFile           releases in text format
+     * @param binaryFile         output file
+     * @param sprintDurationHint sprint duration the releases are meant for, 0 when not known
+     * @return number of converted releases
+     * @throws IOException if an I/O error occurs.
+     */
+    public static int convertToBinary(Path textFile, Path binaryFile, int sprintDurationHint) throws IOException {
+        ReleaseTable releaseTable = FileUtils.readReleaseTableFromFile(textFile.toString());
+        write(releaseTable, binaryFile, sprintDurationHint);
+        return releaseTable.size();
+    }
+
+    /**
+     * Converts a binary releases file into releases.txt format, a line per release
+     *
+     * @param binaryFile releases in binary format
+     * @param textFile   output file
+     * @return number of converted releases
+     * @throws IOException if an I/O error occurs or the binary file is corrupt
+     */
+    public static int convertToText(Path binaryFile, Path textFile) throws IOException {
+        ReleaseTable releaseTable = read(binaryFile);
+        try (BufferedWriter writer = Files.newBufferedWriter(textFile, StandardCharsets.US_ASCII)) {
+            for (int row = 0; row < releaseTable.size(); row++) {
+                writer.write(Integer.toString(releaseTable.getDeliveryDay(row)));
+                writer.write(' ');
+                writer.write(Integer.toString(releaseTable.getTimeToTest(row)));
+                if (releaseTable.hasWeights()) {
+                    writer.write(' ');
+                    writer.write(Integer.toString(releaseTable.getWeight(row)));
+                }
+                writer.newLine();
+            }
+        }
+        return releaseTable.size();
+    }
+
+    private static Header readHeader(FileChannel channel, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // Read until the header is complete or the file ends
+        }
+        buffer.flip();
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException(file + " is not a binary releases file");
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary releases format version " + version + " of " + file);
+        }
+        byte flags = buffer.get();
+        buffer.getShort();
+        Header header = new Header((flags & WEIGHTS_FLAG) != 0, (flags & SIGNED_FLAG) != 0, buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getLong());
+        // Every release takes at least 2 bytes of the body
+        if (header.count < 0 || header.count > header.bodyLength / 2 || header.bodyLength != channel.size() - HEADER_SIZE) {
+            throw new IOException("Corrupt binary releases file " + file + ": header does not match file size");
+        }
+        return header;
+    }
+
+    /**
+     * Decodes the body into the table. When an off-heap table is given, the table is a block moved to it when full.
+     */
+    private static void decode(FileChannel channel, Header header, Path file, ReleaseTable releaseTable,
+                               OffHeapReleaseTable offHeapTable) throws IOException {
+        CRC32C checksum = new CRC32C();
+        // A heap buffer, so varints are decoded from its array without a bounds-checked call per byte
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(header.bodyLength, MAX_RECORD_SIZE)));
+        buffer.flip();
+        VarintReader reader = new VarintReader(buffer.array(), header.signed);
+        channel.position(HEADER_SIZE);
+        long unreadBody = header.bodyLength;
+        try {
+            for (int ordinal = 0; ordinal < header.count; ordinal++) {
+                if (reader.limit - reader.position < MAX_RECORD_SIZE && unreadBody > 0) {
+                    buffer.position(reader.position);
+                    unreadBody -= refill(channel, buffer, unreadBody, checksum);
+                    reader.position = buffer.position();
+                    reader.limit = buffer.limit();
+                }
+                int deliveryDay = reader.next();
+                int row = releaseTable.add(deliveryDay, deliveryDay, reader.next(), ordinal);
+                if (header.weights) {
+                    releaseTable.setWeight(row, reader.next());
+                }
+                if (offHeapTable != null && releaseTable.size() == BLOCK_SIZE) {
+                    offHeapTable.addAll(releaseTable, 0);
+                    releaseTable.truncate(0);
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupt binary releases file " + file + ": body ends too early");
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt binary releases file " + file + ": " + e.getMessage());
+        }
+        if (offHeapTable != null) {
+            offHeapTable.addAll(releaseTable, 0);
+        }
+        if (unreadBody > 0 || reader.position < reader.limit) {
+            throw new IOException("Corrupt binary releases file " + file + ": body is longer than " + header.count + " releases");
+        }
+        if ((int) checksum.getValue() != header.checksum) {
+            throw new IOException("Corrupt binary releases file " + file + ": checksum mismatch");
+        }
+    }
+
+    /**
+     * Moves the unread bytes to the start of the buffer and reads more of the body after them
+     *
+     * @return number of bytes read
+     */
+    private static int refill(FileChannel channel, ByteBuffer buffer, long unreadBody, CRC32C checksum) throws IOException {
+        buffer.compact();
+        int start = buffer.position();
+        buffer.limit((int) Math.min(buffer.capacity(), start + unreadBody));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Binary releases file ends before its body");
+            }
+        }
+        int read = buffer.position() - start;
+        checksum.update(buffer.duplicate().flip().position(start));
+        buffer.flip();
+        return read;
+    }
+
+    /**
+     * Writes the buffered bytes to the channel and returns their number
+     */
+    private static int flush(FileChannel channel, ByteBuffer buffer, CRC32C checksum) throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+        checksum.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return length;
+    }
+
+    /**
+     * Returns whether any number written for the table is negative
+     */
+    private static boolean hasNegativeNumbers(ReleaseTable releaseTable) {
+        for (int row = 0; row < releaseTable.size(); row++) {
+            if (releaseTable.getDeliveryDay(row) < 0 || releaseTable.getTimeToTest(row) < 0
+                    || (releaseTable.hasWeights() && releaseTable.getWeight(row) < 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value, boolean signed) {
+        // Zigzag keeps small negative numbers short
+        int bits = signed ? (value << 1) ^ (value >> 31) : value;
+        while ((bits & ~0x7F) != 0) {
+            buffer.put((byte) ((bits & 0x7F) | 0x80));
+            bits >>>= 7;
+        }
+        buffer.put((byte) bits);
+    }
+
+    /**
+     * Decodes varints from the array of a buffer between position and limit
+     */
+    private static final class VarintReader {
+
+        private final byte[] bytes;
+
+        private final boolean signed;
+
+        private int position;
+
+        private int limit;
+
+        private VarintReader(byte[] bytes, boolean signed) {
+            this.bytes = bytes;
+            this.signed = signed;
+        }
+
+        int next() {
+            int bits = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (position == limit) {
+                    throw new BufferUnderflowException();
+                }
+                byte b = bytes[position++];
+                bits |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+                if (shift == 28) {
+                    throw new NumberFormatException("varint is longer than 5 bytes");
+                }
+            }
+            return signed ? (bits >>> 1) ^ -(bits & 1) : bits;
+        }
+    }
+}
@@ -1,10 +1,27 @@
 package com.github.akuiz.happyqa.fileUtils;
 
+import com.github.akuiz.happyqa.metrics.Phase;
+import com.github.akuiz.happyqa.metrics.PhaseTimer;
+import com.github.akuiz.happyqa.release.OffHeapReleaseTable;
 import com.github.akuiz.happyqa.release.Release;
+import com.github.akuiz.happyqa.release.ReleaseId;
+import com.github.akuiz.happyqa.release.ReleaseTable;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.zip.GZIPOutputStream;
 
 
 /**
@@ -14,6 +31,26 @@ import java.util.List;
 
 public class FileUtils {
 
+    /**
+     * Maximum size of a single memory-mapped region of the input file
+     */
+    private static final long MAX_MAPPED_REGION_SIZE = 1L << 28;
+
+    /**
+     * Upper bound of the table capacity allocated before the input is parsed
+     */
+    private static final int INITIAL_TABLE_CAPACITY_LIMIT = 1 << 22;
+
+    /**
+     * Suffix of the output files that are gzipped
+     */
+    public static final String GZIP_SUFFIX = ".gz";
+
+    /**
+     * Size of the deflater output buffer of gzipped output files
+     */
+    private static final int GZIP_BUFFER_SIZE = 1 << 16;
+
     /**
      * Reads release list details from an input file.
      * Each release on a new line with delivery day, time to test separated by space
@@ -24,6 +61,7 @@ public class FileUtils {
      */
     public static List<Release> readReleaseDetailsFromFile(String filePath) throws IOException {
 
+        PhaseTimer timer = PhaseTimer.start(Phase.PARSE);
         List<Release> releases = new ArrayList<>();
 
         // releaseCounter variable is used to properly assign ID to a release
@@ -46,8 +84,8 @@ public class FileUtils {
                 // Initialise a new release
                 Release release = new Release(releaseDeliveryDay, timeToTest);
 
-                // Set id to the release based on the release counter
-                release.setId(generateId(releaseCounter));
+                // Set ordinal to the release based on the release counter, ID is derived from it when printed
+                release.setOrdinal(releaseCounter);
 
                 // Add the release to the list
                 releases.add(release);
@@ -56,9 +94,185 @@ public class FileUtils {
                 releaseCounter++;
             }
         }
+        timer.stop(releases.size(), new File(filePath).length());
         return releases;
     }
 
+    /**
+     * Reads release details from an input file straight into a release table.
+     * The file is memory-mapped and ASCII digits are decoded directly, no String is created per line.
+     * Trailing spaces, CRLF line breaks and empty lines are tolerated.
+     * Files in {@link BinaryReleaseFormat} are detected by their header and loaded without text parsing.
+     * Gzipped files are detected by their magic and decompressed on a separate thread while they are parsed.
+     *
+     * @param filePath the path to the input file.
+     * @return a table of releases, ordinal of each release is its line index
+     * @throws IOException if an I/O error occurs.
+     */
+    public static ReleaseTable readReleaseTableFromFile(String filePath) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.PARSE);
+        ReleaseTable releaseTable = readReleaseTableSequentially(Path.of(filePath));
+        timer.stop(releaseTable.size(), new File(filePath).length());
+        return releaseTable;
+    }
+
+    /**
+     * Reads release details from an input file straight into a release table, parsing chunks of the file on
+     * several threads. The result is identical to {@link #readReleaseTableFromFile(String)}.
+     * Binary and gzipped files cannot be split into chunks, they are read sequentially.
+     *
+     * @param filePath    the path to the input file.
+     * @param parallelism number of parsing threads, 1 reads the file sequentially
+     * @return a table of releases, ordinal of each release is its line index
+     * @throws IOException if an I/O error occurs.
+     */
+    public static ReleaseTable readReleaseTableFromFile(String filePath, int parallelism) throws IOException {
+        Path path = Path.of(filePath);
+        if (parallelism <= 1 || BinaryReleaseFormat.isBinary(path) || GzipReleaseReader.isGzip(path)) {
+            return readReleaseTableFromFile(filePath);
+        }
+        return new ParallelReleaseReader(parallelism).read(path);
+    }
+
+    /**
+     * Reads release details from an input file into an off-heap table, for inputs too large for the heap.
+     * The file is streamed through a small buffer, only a block of decoded releases is kept on the heap at a time.
+     * Files in {@link BinaryReleaseFormat} are detected by their header, gzipped files by their magic.
+     *
+     * @param filePath         the path to the input file.
+     * @param scratchDirectory directory of the scratch files of the table
+     * @return an off-heap table of releases, ordinal of each release is its line index
+     * @throws IOException if an I/O error occurs.
+     */
+    public static OffHeapReleaseTable readOffHeapReleaseTableFromFile(String filePath, Path scratchDirectory) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.PARSE);
+        OffHeapReleaseTable releaseTable = new OffHeapReleaseTable(scratchDirectory);
+        try {
+            if (BinaryReleaseFormat.isBinary(Path.of(filePath))) {
+                BinaryReleaseFormat.read(Path.of(filePath), releaseTable);
+            } else if (GzipReleaseReader.isGzip(Path.of(filePath))) {
+                readGzipIntoOffHeapTable(Path.of(filePath), releaseTable);
+            } else {
+                readTextIntoOffHeapTable(Path.of(filePath), releaseTable);
+            }
+        } catch (IOException | RuntimeException e) {
+            releaseTable.close();
+            throw e;
+        }
+        timer.stop(releaseTable.size(), new File(filePath).length());
+        return releaseTable;
+    }
+
+    /**
+     * Reads release details with an optional partition key in front of each line, e.g. 'backend 3 2', and groups
+     * them into one release table per partition in a single pass over the memory-mapped file.
+     * Lines without a key belong to the partition with the empty key.
+     *
+     * @param filePath the path to the input file.
+     * @return tables of the partitions sorted by partition key, ordinal of each release is its position within its partition
+     * @throws IOException if an I/O error occurs.
+     */
+    public static SortedMap<String, ReleaseTable> readPartitionedReleaseTablesFromFile(String filePath) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.PARSE);
+        PartitionedReleaseDecoder decoder = new PartitionedReleaseDecoder();
+        try (FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long offset = 0; offset < size; offset += MAX_MAPPED_REGION_SIZE) {
+                decoder.decode(channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(MAX_MAPPED_REGION_SIZE, size - offset)));
+            }
+        }
+        decoder.finish();
+        SortedMap<String, ReleaseTable> partitions = decoder.getPartitions();
+        long releases = 0;
+        for (ReleaseTable partition : partitions.values()) {
+            releases += partition.size();
+        }
+        timer.stop(releases, new File(filePath).length());
+        return partitions;
+    }
+
+    /**
+     * Streams a releases.txt file into an off-heap table block by block
+     */
+    private static void readTextIntoOffHeapTable(Path filePath, OffHeapReleaseTable releaseTable) throws IOException {
+        ReleaseTable block = new ReleaseTable(1 << 16);
+        ReleaseDecoder decoder = new ReleaseDecoder(block);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 18);
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                decoder.decode(buffer);
+                buffer.clear();
+                releaseTable.addAll(block, 0);
+                block.truncate(0);
+            }
+        }
+        decoder.finish();
+        releaseTable.addAll(block, 0);
+    }
+
+    /**
+     * Streams a gzipped releases.txt file into an off-heap table block by block
+     */
+    private static void readGzipIntoOffHeapTable(Path filePath, OffHeapReleaseTable releaseTable) throws IOException {
+        ReleaseTable block = new ReleaseTable(1 << 16);
+        ReleaseDecoder decoder = new ReleaseDecoder(block);
+        GzipReleaseReader.decode(filePath, decoder, () -> {
+            releaseTable.addAll(block, 0);
+            block.truncate(0);
+        });
+        decoder.finish();
+        releaseTable.addAll(block, 0);
+    }
+
+    /**
+     * Reads the whole file on the calling thread, the read is not added to the parse phase metrics
+     *
+     * @param filePath the path to the input file.
+     * @return a table of releases, ordinal of each release is its line index
+     * @throws IOException if an I/O error occurs.
+     */
+    static ReleaseTable readReleaseTableSequentially(Path filePath) throws IOException {
+        if (BinaryReleaseFormat.isBinary(filePath)) {
+            return BinaryReleaseFormat.read(filePath);
+        }
+        if (GzipReleaseReader.isGzip(filePath)) {
+            ReleaseTable releaseTable = new ReleaseTable();
+            ReleaseDecoder decoder = new ReleaseDecoder(releaseTable);
+            GzipReleaseReader.decode(filePath, decoder, () -> {
+            });
+            decoder.finish();
+            return releaseTable;
+        }
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            return readReleaseTableFromChannel(channel, 0, channel.size());
+        }
+    }
+
+    /**
+     * Parses a part of the file that starts at the beginning of a line. Ordinals of the releases start from 0.
+     *
+     * @param channel channel of the input file
+     * @param start   offset of the first byte to parse
+     * @param end     offset after the last byte to parse
+     * @return a table of releases
+     * @throws IOException if an I/O error occurs.
+     */
+    static ReleaseTable readReleaseTableFromChannel(FileChannel channel, long start, long end) throws IOException {
+        // A typical line is about 5 bytes long. The estimate is capped, the table grows on demand.
+        ReleaseTable releaseTable = new ReleaseTable((int) Math.min((end - start) / 5 + 1, INITIAL_TABLE_CAPACITY_LIMIT));
+        ReleaseDecoder decoder = new ReleaseDecoder(releaseTable);
+
+        // Map the file region by region, the decoder keeps its state between regions
+        for (long offset = start; offset < end; offset += MAX_MAPPED_REGION_SIZE) {
+            long regionSize = Math.min(MAX_MAPPED_REGION_SIZE, end - offset);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, offset, regionSize);
+            decoder.decode(region);
+        }
+        decoder.finish();
+        return releaseTable;
+    }
+
     /**
      * Writes release list size followed by info about each release to an output file.
      *
@@ -79,17 +293,88 @@ public class FileUtils {
         }
     }
 
+    /**
+     * Writes a release schedule into both output files in a single pass, no String is created per release.
+     * Output is identical to {@link #writeReleaseListToFile} called with detailed set to false and true.
+     * A file whose name ends with .gz is gzipped while it is written.
+     *
+     * @param schedule         release schedule
+     * @param filename         is a path to output file with delivery day and end testing day of each release
+     * @param detailedFilename is a path to output file with all details of each release
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void writeScheduleToFiles(ReleaseTable schedule, String filename, String detailedFilename) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.WRITE);
+        try (WritableByteChannel output = openOutput(Path.of(filename));
+             WritableByteChannel detailedOutput = openOutput(Path.of(detailedFilename))) {
+            new ScheduleWriter().write(schedule, output, detailedOutput);
+        }
+        // Sizes of the written files, compressed ones included
+        timer.stop(schedule.size(), new File(filename).length() + new File(detailedFilename).length());
+    }
+
+    /**
+     * Writes schedules of the partitions into both output files, one section per partition in the order of the map.
+     * A section starts with a '[key]' line followed by the schedule in the format of {@link #writeScheduleToFiles}.
+     * The section of the empty key has no header line, so a schedule without partitions is written as usual.
+     *
+     * @param schedules        release schedules by partition key
+     * @param filename         is a path to output file with delivery day and end testing day of each release
+     * @param detailedFilename is a path to output file with all details of each release
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void writePartitionedScheduleToFiles(SortedMap<String, ReleaseTable> schedules, String filename,
+                                                       String detailedFilename) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.WRITE);
+        long releases = 0;
+        try (WritableByteChannel output = openOutput(Path.of(filename));
+             WritableByteChannel detailedOutput = openOutput(Path.of(detailedFilename))) {
+            ScheduleWriter writer = new ScheduleWriter();
+            for (Map.Entry<String, ReleaseTable> schedule : schedules.entrySet()) {
+                if (!schedule.getKey().isEmpty()) {
+                    byte[] header = ("[" + schedule.getKey() + "]" + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+                    writeFully(ByteBuffer.wrap(header), output);
+                    writeFully(ByteBuffer.wrap(header), detailedOutput);
+                }
+                writer.write(schedule.getValue(), output, detailedOutput);
+                releases += schedule.getValue().size();
+            }
+        }
+        timer.stop(releases, new File(filename).length() + new File(detailedFilename).length());
+    }
+
+    private static void writeFully(ByteBuffer buffer, WritableByteChannel output) throws IOException {
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+    }
+
+    /**
+     * Opens an output file, gzipped if its name ends with .gz
+     */
+    private static WritableByteChannel openOutput(Path path) throws IOException {
+        if (path.getFileName() != null && path.getFileName().toString().endsWith(GZIP_SUFFIX)) {
+            return Channels.newChannel(new GZIPOutputStream(Files.newOutputStream(path), GZIP_BUFFER_SIZE));
+        }
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Returns whether the file is gzipped, it is detected by the gzip magic and not by the file name
+     *
+     * @param filePath the path to the file.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static boolean isGzipped(String filePath) throws IOException {
+        return GzipReleaseReader.isGzip(Path.of(filePath));
+    }
+
     /**
      * Generates alphabetic IDs (A, B, ..., Z, AA, AB, ..., ZZ, and so on) for releases
      *
      * @param index is a counter to follow an order of the releases
      */
     public static String generateId(int index) {
-        StringBuilder label = new StringBuilder();
-        while (index >= 0) {
-            label.insert(0, (char) ('A' + index % 26));
-            index = index / 26 - 1;
-        }
-        return label.toString();
+        return ReleaseId.toId(index);
     }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.github.akuiz.happyqa.fileUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * This class parses a gzipped releases.txt without decompressing it to disk. A separate thread inflates the file into
+ * a few large chunks while the calling thread decodes the previous ones, so decompression and parsing overlap.
+ * Chunks are handed over through bounded queues and reused, so memory usage does not depend on the file size.
+ */
+
+final class GzipReleaseReader {
+
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Chunks in flight: one being inflated, one being decoded and spare ones to smooth out the difference
+     */
+    private static final int CHUNKS = 4;
+
+    /**
+     * Size of the compressed input buffer of the inflater
+     */
+    private static final int INPUT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Marks the end of the decompressed data
+     */
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private GzipReleaseReader() {
+    }
+
+    /**
+     * Called on the parsing thread after every decoded chunk
+     */
+    interface ChunkListener {
+
+        void decoded() throws IOException;
+    }
+
+    /**
+     * Returns whether the file starts with the gzip magic
+     */
+    static boolean isGzip(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(2);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // Read until the magic is complete or the file ends
+            }
+            return !magic.hasRemaining() && magic.get(0) == (byte) 0x1f && magic.get(1) == (byte) 0x8b;
+        }
+    }
+
+    /**
+     * Inflates the file on a separate thread and decodes it on the calling thread
+     *
+     * @param file     gzipped releases.txt
+     * @param decoder  decoder of the releases, it is not finished
+     * @param listener called after every decoded chunk
+     * @throws IOException if an I/O error occurs or the file is not a valid gzip file
+     */
+    static void decode(Path file, ReleaseDecoder decoder, ChunkListener listener) throws IOException {
+        BlockingQueue<ByteBuffer> freeChunks = new ArrayBlockingQueue<>(CHUNKS);
+        BlockingQueue<ByteBuffer> fullChunks = new ArrayBlockingQueue<>(CHUNKS + 1);
+        for (int i = 0; i < CHUNKS; i++) {
+            freeChunks.add(ByteBuffer.allocate(CHUNK_SIZE));
+        }
+        Inflating inflating = new Inflating(file, freeChunks, fullChunks);
+        Thread inflater = new Thread(inflating, "happyqa-gunzip");
+        inflater.setDaemon(true);
+        inflater.start();
+        try {
+            while (true) {
+                ByteBuffer chunk = fullChunks.take();
+                if (chunk == END) {
+                    break;
+                }
+                decoder.decode(chunk);
+                listener.decoded();
+                freeChunks.put(chunk);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading " + file);
+        } finally {
+            // Stops the inflater when decoding failed, otherwise it has already finished
+            inflater.interrupt();
+        }
+        if (inflating.failure != null) {
+            throw inflating.failure;
+        }
+    }
+
+    /**
+     * Inflates the file into free chunks and queues them in file order, followed by the end marker
+     */
+    private static class Inflating implements Runnable {
+
+        private final Path file;
+
+        private final BlockingQueue<ByteBuffer> freeChunks;
+
+        private final BlockingQueue<ByteBuffer> fullChunks;
+
+        /**
+         * Set before the end marker is queued, so the parsing thread sees it after taking the marker
+         */
+        private IOException failure;
+
+        Inflating(Path file, BlockingQueue<ByteBuffer> freeChunks, BlockingQueue<ByteBuffer> fullChunks) {
+            this.file = file;
+            this.freeChunks = freeChunks;
+            this.fullChunks = fullChunks;
+        }
+
+        @Override
+        public void run() {
+            try (InputStream input = new GZIPInputStream(Files.newInputStream(file), INPUT_BUFFER_SIZE)) {
+                boolean end = false;
+                while (!end) {
+                    ByteBuffer chunk = freeChunks.take();
+                    chunk.clear();
+                    byte[] bytes = chunk.array();
+                    int length = 0;
+                    while (length < bytes.length) {
+                        int read = input.read(bytes, length, bytes.length - length);
+                        if (read < 0) {
+                            end = true;
+                            break;
+                        }
+                        length += read;
+                    }
+                    chunk.limit(length);
+                    fullChunks.put(chunk);
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (RuntimeException e) {
+                failure = new IOException("Failed to decompress " + file, e);
+            } catch (InterruptedException e) {
+                // Decoding has failed, nobody waits for the chunks
+                return;
+            }
+            // The queue has room for every chunk and the marker, so this never blocks
+            fullChunks.add(END);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.akuiz.happyqa.fileUtils;
+
+import com.github.akuiz.happyqa.metrics.Phase;
+import com.github.akuiz.happyqa.metrics.PhaseTimer;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class reads releases.txt on several threads.
+ * The file is split into chunks at line breaks, every chunk is parsed into its own release table on a ForkJoinPool
+ * with ordinals starting from 0. Then ordinals are shifted by a prefix sum of release counts of previous chunks,
+ * so the result is identical to sequential parsing.
+ */
+
+public class ParallelReleaseReader {
+
+    /**
+     * Chunks smaller than this are not worth a separate task
+     */
+    public static final int DEFAULT_MIN_CHUNK_SIZE = 1 << 22;
+
+    /**
+     * How many chunks per thread to create, more chunks balance uneven lines better
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final int parallelism;
+
+    private final long minChunkSize;
+
+    /**
+     * Creates a reader with default chunk size
+     *
+     * @param parallelism number of parsing threads
+     */
+    public ParallelReleaseReader(int parallelism) {
+        this(parallelism, DEFAULT_MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates a reader
+     *
+     * @param parallelism  number of parsing threads
+     * @param minChunkSize minimal size of a chunk in bytes
+     */
+    public ParallelReleaseReader(int parallelism, long minChunkSize) {
+        if (parallelism < 1 || minChunkSize < 1) {
+            throw new IllegalArgumentException("Parallelism and chunk size must be positive");
+        }
+        this.parallelism = parallelism;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Reads release details from an input file into a release table
+     *
+     * @param filePath the path to the input file.
+     * @return a table of releases, ordinal of each release is its line index
+     * @throws IOException if an I/O error occurs.
+     */
+    public ReleaseTable read(Path filePath) throws IOException {
+        PhaseTimer timer = PhaseTimer.start(Phase.PARSE);
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            ReleaseTable releaseTable = read(channel, filePath);
+            timer.stop(releaseTable.size(), channel.size());
+            return releaseTable;
+        }
+    }
+
+    private ReleaseTable read(FileChannel channel, Path filePath) throws IOException {
+        long[] chunkStarts = splitAtLineBreaks(channel);
+        int chunkCount = chunkStarts.length - 1;
+        if (chunkCount <= 1) {
+            return FileUtils.readReleaseTableSequentially(filePath);
+        }
+
+        ReleaseTable[] chunkTables = new ReleaseTable[chunkCount];
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ParseChunksTask(channel, chunkStarts, chunkTables, 0, chunkCount));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (NumberFormatException e) {
+            // Line numbers within a chunk are meaningless for the caller, parse sequentially to report the right one
+            return FileUtils.readReleaseTableSequentially(filePath);
+        } finally {
+            pool.shutdown();
+        }
+
+        // Prefix sum of release counts gives the ordinal of the first release of every chunk
+        int[] ordinalOffsets = new int[chunkCount];
+        long totalSize = 0;
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            ordinalOffsets[chunk] = (int) totalSize;
+            totalSize += chunkTables[chunk].size();
+        }
+        if (totalSize > Integer.MAX_VALUE - 8) {
+            throw new IOException("Too many releases in " + filePath + ": " + totalSize);
+        }
+
+        ReleaseTable releaseTable = new ReleaseTable((int) totalSize);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            releaseTable.addAll(chunkTables[chunk], ordinalOffsets[chunk]);
+            chunkTables[chunk] = null;
+        }
+        return releaseTable;
+    }
+
+    /**
+     * Splits the file into chunks, every chunk except the first one starts right after a line break
+     *
+     * @return start offsets of the chunks followed by the file size
+     */
+    private long[] splitAtLineBreaks(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        int chunkCount = (int) Math.max(1, Math.min((long) parallelism * CHUNKS_PER_THREAD, fileSize / minChunkSize));
+
+        long[] chunkStarts = new long[chunkCount + 1];
+        int count = 1;
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int chunk = 1; chunk < chunkCount; chunk++) {
+            long start = nextLineStart(channel, Math.max(fileSize / chunkCount * chunk, chunkStarts[count - 1]), buffer);
+            if (start >= fileSize) {
+                break;
+            }
+            if (start > chunkStarts[count - 1]) {
+                chunkStarts[count++] = start;
+            }
+        }
+        chunkStarts[count++] = fileSize;
+        return Arrays.copyOf(chunkStarts, count);
+    }
+
+    /**
+     * Returns offset right after the first line break at or after the given offset, or the file size if there is none
+     */
+    private static long nextLineStart(FileChannel channel, long offset, ByteBuffer buffer) throws IOException {
+        long position = offset;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Parses a range of chunks, splitting the range in halves until a single chunk is left
+     */
+    private static class ParseChunksTask extends RecursiveAction {
+
+        /**
+         * Fork/join tasks are serializable, tasks of a parse are never serialized
+         */
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+
+        private final long[] chunkStarts;
+
+        private final ReleaseTable[] chunkTables;
+
+        private final int from;
+
+        private final int to;
+
+        ParseChunksTask(FileChannel channel, long[] chunkStarts, ReleaseTable[] chunkTables, int from, int to) {
+            this.channel = channel;
+            this.chunkStarts = chunkStarts;
+            this.chunkTables = chunkTables;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseChunksTask(channel, chunkStarts, chunkTables, from, middle),
+                        new ParseChunksTask(channel, chunkStarts, chunkTables, middle, to));
+                return;
+            }
+            try {
+                chunkTables[from] = FileUtils.readReleaseTableFromChannel(channel, chunkStarts[from], chunkStarts[from + 1]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
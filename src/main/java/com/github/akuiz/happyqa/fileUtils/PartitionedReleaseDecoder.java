@@ -0,0 +1,192 @@
+package com.github.akuiz.happyqa.fileUtils;
+
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * This class decodes releases.txt content with an optional partition key, e.g. the team or tester pool of the release,
+ * in front of each line: 'backend 3 2'. The key is a token that does not start with a digit or a minus sign.
+ * Releases are grouped by their key into one release table per partition in a single pass, lines without a key go to
+ * the partition with the empty key. Ordinal of a release is its position within its partition, so a partition gets
+ * the same ordinals as a release file with only its lines would.
+ * Only the key is decoded here, the rest of a line is decoded by the {@link ReleaseDecoder} of its partition.
+ * Input may be fed in any number of buffers, like {@link ReleaseDecoder}.
+ */
+
+final class PartitionedReleaseDecoder {
+
+    /**
+     * Release tables of the partitions, by partition key
+     */
+    private final SortedMap<String, ReleaseTable> partitions = new TreeMap<>();
+
+    /**
+     * Decoders of the partitions, by partition key
+     */
+    private final Map<String, ReleaseDecoder> decoders = new HashMap<>();
+
+    /**
+     * Number of the line being decoded, used in error messages
+     */
+    private long lineNumber = 1;
+
+    /**
+     * Decoder of the current line, null until its key or first number is found
+     */
+    private ReleaseDecoder decoder;
+
+    /**
+     * Whether the current line has a key
+     */
+    private boolean keyed;
+
+    /**
+     * Number of releases of the partition before the current line
+     */
+    private int releasesBeforeLine;
+
+    /**
+     * Bytes of the key being decoded
+     */
+    private byte[] key = new byte[32];
+
+    private int keyLength;
+
+    private boolean inKey;
+
+    /**
+     * Last looked up key and its decoder, consecutive lines of the same partition skip the lookup
+     */
+    private byte[] lastKey;
+
+    private ReleaseDecoder lastDecoder;
+
+    /**
+     * Decodes all remaining bytes of the buffer. The buffer position is moved to its limit.
+     *
+     * @param buffer part of the input
+     * @throws NumberFormatException if the input is not in partitioned releases.txt format
+     */
+    void decode(ByteBuffer buffer) {
+        int limit = buffer.limit();
+        int i = buffer.position();
+        while (i < limit) {
+            if (decoder != null) {
+                // The rest of the line goes to the decoder of its partition
+                int end = i;
+                while (end < limit && buffer.get(end) != '\n') {
+                    end++;
+                }
+                boolean lineEnd = end < limit;
+                if (lineEnd) {
+                    end++;
+                }
+                buffer.limit(end).position(i);
+                decoder.decode(buffer);
+                buffer.limit(limit);
+                i = end;
+                if (lineEnd) {
+                    endLine();
+                }
+                continue;
+            }
+            byte b = buffer.get(i);
+            boolean whitespace = b == ' ' || b == '\t' || b == '\r' || b == '\n';
+            if (inKey) {
+                if (whitespace) {
+                    // The separator is left to the decoder, so a line break ends the line there
+                    endKey();
+                    continue;
+                }
+                appendKey(b);
+            } else if (whitespace) {
+                if (b == '\n') {
+                    lineNumber++;
+                }
+            } else if ((b >= '0' && b <= '9') || b == '-') {
+                startLine(partition(""), false);
+                continue;
+            } else {
+                inKey = true;
+                appendKey(b);
+            }
+            i++;
+        }
+        buffer.position(limit);
+    }
+
+    /**
+     * Decodes the last line of the input when it is not followed by a line break
+     *
+     * @throws NumberFormatException if the last line is not in partitioned releases.txt format
+     */
+    void finish() {
+        if (inKey) {
+            endKey();
+        }
+        if (decoder != null) {
+            decoder.finish();
+            endLine();
+        }
+    }
+
+    /**
+     * Returns release tables of the partitions sorted by partition key
+     */
+    SortedMap<String, ReleaseTable> getPartitions() {
+        return partitions;
+    }
+
+    private void appendKey(byte b) {
+        if (keyLength == key.length) {
+            key = Arrays.copyOf(key, key.length * 2);
+        }
+        key[keyLength++] = b;
+    }
+
+    private void endKey() {
+        inKey = false;
+        if (lastKey == null || !Arrays.equals(key, 0, keyLength, lastKey, 0, lastKey.length)) {
+            lastKey = Arrays.copyOf(key, keyLength);
+            lastDecoder = partition(new String(lastKey, StandardCharsets.UTF_8));
+        }
+        keyLength = 0;
+        startLine(lastDecoder, true);
+    }
+
+    /**
+     * Returns the decoder of the partition, the partition is created on its first line
+     */
+    private ReleaseDecoder partition(String partitionKey) {
+        ReleaseDecoder partitionDecoder = decoders.get(partitionKey);
+        if (partitionDecoder == null) {
+            ReleaseTable partition = new ReleaseTable();
+            partitions.put(partitionKey, partition);
+            partitionDecoder = new ReleaseDecoder(partition);
+            decoders.put(partitionKey, partitionDecoder);
+        }
+        return partitionDecoder;
+    }
+
+    private void startLine(ReleaseDecoder lineDecoder, boolean lineKeyed) {
+        decoder = lineDecoder;
+        keyed = lineKeyed;
+        releasesBeforeLine = lineDecoder.getNextOrdinal();
+        lineDecoder.setLineNumber(lineNumber);
+    }
+
+    private void endLine() {
+        if (keyed && decoder.getNextOrdinal() == releasesBeforeLine) {
+            throw new NumberFormatException("Invalid release at line " + lineNumber + ": release is missing after the partition key");
+        }
+        decoder = null;
+        lineNumber++;
+    }
+}
@@ -0,0 +1,199 @@
+package com.github.akuiz.happyqa.fileUtils;
+
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class decodes releases.txt content straight from bytes into a release table, without creating Strings.
+ * Input may be fed in any number of buffers, a line can be split between two of them.
+ * Spaces, tabs and carriage returns around numbers are ignored, empty lines are skipped.
+ * A line may have an optional third number, the weight of the release.
+ */
+
+public class ReleaseDecoder {
+
+    /**
+     * Table the decoded releases are added to
+     */
+    private final ReleaseTable releaseTable;
+
+    /**
+     * Ordinal of the next decoded release
+     */
+    private int nextOrdinal;
+
+    /**
+     * Number of the line being decoded, used in error messages
+     */
+    private long lineNumber = 1;
+
+    /**
+     * Number of complete numbers in the current line
+     */
+    private int fieldCount;
+
+    /**
+     * Delivery day of the current line, valid when fieldCount is 1 or more
+     */
+    private int deliveryDay;
+
+    /**
+     * Row of the release of the current line, valid when fieldCount is 2 or more
+     */
+    private int row;
+
+    /**
+     * Value of the number being decoded
+     */
+    private int value;
+
+    private boolean inNumber;
+
+    private boolean negative;
+
+    /**
+     * Creates a decoder that numbers releases from 0
+     *
+     * @param releaseTable table the decoded releases are added to
+     */
+    public ReleaseDecoder(ReleaseTable releaseTable) {
+        this(releaseTable, 0);
+    }
+
+    /**
+     * Creates a decoder
+     *
+     * @param releaseTable table the decoded releases are added to
+     * @param firstOrdinal ordinal of the first decoded release
+     */
+    public ReleaseDecoder(ReleaseTable releaseTable, int firstOrdinal) {
+        this(releaseTable, firstOrdinal, 1);
+    }
+
+    /**
+     * Creates a decoder that continues decoding of an input at a line start
+     *
+     * @param releaseTable    table the decoded releases are added to
+     * @param firstOrdinal    ordinal of the first decoded release
+     * @param firstLineNumber number of the first decoded line, used in error messages
+     */
+    public ReleaseDecoder(ReleaseTable releaseTable, int firstOrdinal, long firstLineNumber) {
+        this.releaseTable = releaseTable;
+        this.nextOrdinal = firstOrdinal;
+        this.lineNumber = firstLineNumber;
+    }
+
+    /**
+     * Decodes all remaining bytes of the buffer. The buffer position is moved to its limit.
+     *
+     * @param buffer part of the input
+     * @throws NumberFormatException if the input is not in releases.txt format
+     */
+    public void decode(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+
+        // Keep the state in local variables in the hot loop
+        int value = this.value;
+        boolean inNumber = this.inNumber;
+        boolean negative = this.negative;
+
+        for (int i = position; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                int digit = b - '0';
+                if (value > (Integer.MAX_VALUE - digit) / 10) {
+                    throw error("number is too large");
+                }
+                value = value * 10 + digit;
+                inNumber = true;
+            } else if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                if (inNumber) {
+                    endNumber(negative ? -value : value);
+                } else if (negative) {
+                    throw error("sign without digits");
+                }
+                value = 0;
+                inNumber = false;
+                negative = false;
+                if (b == '\n') {
+                    endLine();
+                }
+            } else if (b == '-' && !inNumber && !negative) {
+                negative = true;
+            } else {
+                throw error("unexpected character '" + (char) (b & 0xFF) + "'");
+            }
+        }
+
+        this.value = value;
+        this.inNumber = inNumber;
+        this.negative = negative;
+        buffer.position(limit);
+    }
+
+    /**
+     * Decodes the last line of the input when it is not followed by a line break
+     *
+     * @throws NumberFormatException if the last line is not in releases.txt format
+     */
+    public void finish() {
+        if (inNumber) {
+            endNumber(negative ? -value : value);
+        } else if (negative) {
+            throw error("sign without digits");
+        }
+        value = 0;
+        inNumber = false;
+        negative = false;
+        endLine();
+    }
+
+    /**
+     * Returns the ordinal the next decoded release will get
+     */
+    public int getNextOrdinal() {
+        return nextOrdinal;
+    }
+
+    /**
+     * Returns the number of the line being decoded
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Sets the number of the line being decoded, for a decoder that is fed lines of a larger input.
+     * Must be called at a line start.
+     */
+    void setLineNumber(long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    private void endNumber(int number) {
+        if (fieldCount == 0) {
+            deliveryDay = number;
+        } else if (fieldCount == 1) {
+            row = releaseTable.add(deliveryDay, deliveryDay, number, nextOrdinal++);
+        } else if (fieldCount == 2) {
+            releaseTable.setWeight(row, number);
+        } else {
+            throw error("expected delivery day, time to test and optional weight");
+        }
+        fieldCount++;
+    }
+
+    private void endLine() {
+        if (fieldCount == 1) {
+            throw error("time to test is missing");
+        }
+        fieldCount = 0;
+        lineNumber++;
+    }
+
+    private NumberFormatException error(String reason) {
+        return new NumberFormatException("Invalid release at line " + lineNumber + ": " + reason);
+    }
+}
@@ -0,0 +1,185 @@
+package com.github.akuiz.happyqa.fileUtils;
+
+import com.github.akuiz.happyqa.release.ReleaseId;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class writes a release schedule into both output formats in a single pass.
+ * Numbers and release IDs are formatted straight into reusable direct buffers, no String is created per release.
+ * Output is byte for byte the same as {@link FileUtils#writeReleaseListToFile} produces.
+ * When the schedule has weights, weight of each release is appended to the detailed format.
+ * When the schedule has testers assigned, tester of each release is appended to both formats.
+ * An instance keeps its buffers between calls and must not be used by several threads at once.
+ */
+
+public class ScheduleWriter {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Longest detailed line: prefix, an ID of up to 7 letters, six numbers of up to 11 characters and the line break
+     */
+    private static final int MAX_LINE_LENGTH = 192;
+
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] RELEASE = "Release ".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] START_TESTING_DAY = " {startTestingDay=".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] END_TESTING_DAY = ", endTestingDay=".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] DELIVERY_DAY = ", deliveryDay=".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] TIME_TO_TEST = ", timeToTest=".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] WEIGHT = ", weight=".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] TESTER = ", tester=".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] MIN_INT = String.valueOf(Integer.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteBuffer basicBuffer;
+
+    private final ByteBuffer detailedBuffer;
+
+    /**
+     * Creates a writer with default buffer size
+     */
+    public ScheduleWriter() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a writer
+     *
+     * @param bufferSize size of each of the two output buffers
+     */
+    public ScheduleWriter(int bufferSize) {
+        if (bufferSize < MAX_LINE_LENGTH) {
+            throw new IllegalArgumentException("Buffer size must be at least " + MAX_LINE_LENGTH + " bytes");
+        }
+        basicBuffer = ByteBuffer.allocateDirect(bufferSize);
+        detailedBuffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Writes schedule size followed by each release into both outputs
+     *
+     * @param schedule       release schedule
+     * @param basicOutput    output for delivery day and end testing day of each release
+     * @param detailedOutput output for all details of each release
+     * @throws IOException if an I/O error occurs.
+     */
+    public void write(ReleaseTable schedule, WritableByteChannel basicOutput, WritableByteChannel detailedOutput) throws IOException {
+        basicBuffer.clear();
+        detailedBuffer.clear();
+        putInt(basicBuffer, schedule.size());
+        basicBuffer.put(LINE_SEPARATOR);
+        putInt(detailedBuffer, schedule.size());
+        detailedBuffer.put(LINE_SEPARATOR);
+        putReleases(schedule, basicOutput, detailedOutput);
+        flush(basicBuffer, basicOutput);
+        flush(detailedBuffer, detailedOutput);
+    }
+
+    /**
+     * Writes each release into both outputs without the schedule size, for a schedule that is written block by block
+     *
+     * @param schedule       block of the release schedule
+     * @param basicOutput    output for delivery day and end testing day of each release
+     * @param detailedOutput output for all details of each release
+     * @throws IOException if an I/O error occurs.
+     */
+    public void writeReleases(ReleaseTable schedule, WritableByteChannel basicOutput, WritableByteChannel detailedOutput)
+            throws IOException {
+        basicBuffer.clear();
+        detailedBuffer.clear();
+        putReleases(schedule, basicOutput, detailedOutput);
+        flush(basicBuffer, basicOutput);
+        flush(detailedBuffer, detailedOutput);
+    }
+
+    private void putReleases(ReleaseTable schedule, WritableByteChannel basicOutput, WritableByteChannel detailedOutput)
+            throws IOException {
+        boolean weights = schedule.hasWeights();
+        boolean testers = schedule.hasTesters();
+        for (int row = 0; row < schedule.size(); row++) {
+            if (basicBuffer.remaining() < MAX_LINE_LENGTH) {
+                flush(basicBuffer, basicOutput);
+            }
+            if (detailedBuffer.remaining() < MAX_LINE_LENGTH) {
+                flush(detailedBuffer, detailedOutput);
+            }
+            int startTestingDay = schedule.getStartTestingDay(row);
+            int endTestingDay = schedule.getEndTestingDay(row);
+
+            putInt(basicBuffer, startTestingDay);
+            basicBuffer.put((byte) ' ');
+            putInt(basicBuffer, endTestingDay);
+            if (testers) {
+                basicBuffer.put((byte) ' ');
+                putInt(basicBuffer, schedule.getTester(row));
+            }
+            basicBuffer.put(LINE_SEPARATOR);
+
+            detailedBuffer.put(RELEASE);
+            ReleaseId.put(detailedBuffer, schedule.getOrdinal(row));
+            detailedBuffer.put(START_TESTING_DAY);
+            putInt(detailedBuffer, startTestingDay);
+            detailedBuffer.put(END_TESTING_DAY);
+            putInt(detailedBuffer, endTestingDay);
+            detailedBuffer.put(DELIVERY_DAY);
+            putInt(detailedBuffer, schedule.getDeliveryDay(row));
+            detailedBuffer.put(TIME_TO_TEST);
+            putInt(detailedBuffer, schedule.getTimeToTest(row));
+            if (weights) {
+                detailedBuffer.put(WEIGHT);
+                putInt(detailedBuffer, schedule.getWeight(row));
+            }
+            if (testers) {
+                detailedBuffer.put(TESTER);
+                putInt(detailedBuffer, schedule.getTester(row));
+            }
+            detailedBuffer.put((byte) '}');
+            detailedBuffer.put(LINE_SEPARATOR);
+        }
+    }
+
+    private static void flush(ByteBuffer buffer, WritableByteChannel output) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes decimal representation of a number
+     */
+    static void putInt(ByteBuffer buffer, int value) {
+        if (value == Integer.MIN_VALUE) {
+            buffer.put(MIN_INT);
+            return;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int length = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            length++;
+        }
+        int end = buffer.position() + length;
+        for (int i = end - 1; i >= buffer.position(); i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(end);
+    }
+}
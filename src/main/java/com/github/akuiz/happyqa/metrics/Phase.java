@@ -0,0 +1,39 @@
+package com.github.akuiz.happyqa.metrics;
+
+import java.util.Locale;
+
+/**
+ * Phases of the scheduling pipeline
+ */
+public enum Phase {
+
+    /**
+     * Reading releases from the input file, items are lines with a release
+     */
+    PARSE,
+
+    /**
+     * Removing 'too late to test' releases, items are removed releases
+     */
+    TRIM,
+
+    /**
+     * Sorting releases, items are sorted releases
+     */
+    SORT,
+
+    /**
+     * Scanning sorted releases, items are releases of the schedule
+     */
+    SCAN,
+
+    /**
+     * Writing both output files, items are written releases
+     */
+    WRITE;
+
+    @Override
+    public String toString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.akuiz.happyqa.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * This class is the Flight Recorder event of a pipeline phase. Its duration is the duration of the phase.
+ */
+
+@Name("com.github.akuiz.happyqa.Phase")
+@Label("Scheduling Phase")
+@Category("Happy QA")
+@Description("Phase of the release scheduling pipeline")
+@StackTrace(false)
+class PhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Items")
+    @Description("Lines read, releases removed, sorted, scheduled or written, depending on the phase")
+    long items;
+
+    @Label("Bytes")
+    @Description("Bytes read or written")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,53 @@
+package com.github.akuiz.happyqa.metrics;
+
+/**
+ * This class measures one run of a pipeline phase. The run is added to {@link SchedulingMetrics} and committed as a
+ * Flight Recorder event, which costs next to nothing while no recording is running.
+ */
+
+public final class PhaseTimer {
+
+    private final Phase phase;
+
+    private final PhaseEvent event = new PhaseEvent();
+
+    private final long startNanos;
+
+    private PhaseTimer(Phase phase) {
+        this.phase = phase;
+        event.begin();
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts measuring a run of the phase
+     */
+    public static PhaseTimer start(Phase phase) {
+        return new PhaseTimer(phase);
+    }
+
+    /**
+     * Ends the run
+     *
+     * @param items number of items the run processed, see {@link Phase}
+     */
+    public void stop(long items) {
+        stop(items, 0);
+    }
+
+    /**
+     * Ends the run
+     *
+     * @param items number of items the run processed, see {@link Phase}
+     * @param bytes number of bytes the run read or wrote
+     */
+    public void stop(long items, long bytes) {
+        SchedulingMetrics.record(phase, System.nanoTime() - startNanos, items, bytes);
+        if (event.shouldCommit()) {
+            event.phase = phase.toString();
+            event.items = items;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.akuiz.happyqa.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class holds totals of the scheduling pipeline phases since the start of the process or the last reset:
+ * number of runs, time, items and bytes of every phase. Totals are updated by any number of threads without locking.
+ * They are exposed as the SchedulingStats MBean and as a JSON summary.
+ */
+
+public final class SchedulingMetrics {
+
+    /**
+     * Name the MBean is registered with
+     */
+    public static final String MBEAN_NAME = "com.github.akuiz.happyqa:type=SchedulingStats";
+
+    private static final int PHASES = Phase.values().length;
+
+    private static final LongAdder[] RUNS = adders();
+
+    private static final LongAdder[] NANOS = adders();
+
+    private static final LongAdder[] ITEMS = adders();
+
+    private static final LongAdder[] BYTES = adders();
+
+    private SchedulingMetrics() {
+    }
+
+    static void record(Phase phase, long nanos, long items, long bytes) {
+        int index = phase.ordinal();
+        RUNS[index].increment();
+        NANOS[index].add(nanos);
+        ITEMS[index].add(items);
+        BYTES[index].add(bytes);
+    }
+
+    /**
+     * Returns number of runs of the phase
+     */
+    public static long getRuns(Phase phase) {
+        return RUNS[phase.ordinal()].sum();
+    }
+
+    /**
+     * Returns total time of the phase in nanoseconds
+     */
+    public static long getTimeNanos(Phase phase) {
+        return NANOS[phase.ordinal()].sum();
+    }
+
+    /**
+     * Returns total number of items of the phase, see {@link Phase}
+     */
+    public static long getItems(Phase phase) {
+        return ITEMS[phase.ordinal()].sum();
+    }
+
+    /**
+     * Returns total number of bytes read or written by the phase
+     */
+    public static long getBytes(Phase phase) {
+        return BYTES[phase.ordinal()].sum();
+    }
+
+    /**
+     * Sets all totals to 0
+     */
+    public static void reset() {
+        for (int i = 0; i < PHASES; i++) {
+            RUNS[i].reset();
+            NANOS[i].reset();
+            ITEMS[i].reset();
+            BYTES[i].reset();
+        }
+    }
+
+    /**
+     * Registers the SchedulingStats MBean with the platform MBean server, repeated calls do nothing
+     */
+    public static void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new SchedulingStats(), new ObjectName(MBEAN_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Registered before
+        } catch (JMException e) {
+            throw new IllegalStateException("Can't register " + MBEAN_NAME, e);
+        }
+    }
+
+    /**
+     * Returns the totals as a JSON object
+     *
+     * @param wallTimeNanos wall time of the whole run in nanoseconds
+     */
+    public static String toJson(long wallTimeNanos) {
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\n  \"wallTimeNanos\": ").append(wallTimeNanos)
+                .append(",\n  \"linesRead\": ").append(getItems(Phase.PARSE))
+                .append(",\n  \"bytesRead\": ").append(getBytes(Phase.PARSE))
+                .append(",\n  \"releasesTrimmed\": ").append(getItems(Phase.TRIM))
+                .append(",\n  \"releasesScheduled\": ").append(getItems(Phase.SCAN))
+                .append(",\n  \"bytesWritten\": ").append(getBytes(Phase.WRITE))
+                .append(",\n  \"phases\": {");
+        for (Phase phase : Phase.values()) {
+            json.append(phase.ordinal() == 0 ? "\n" : ",\n")
+                    .append("    \"").append(phase).append("\": {\"runs\": ").append(getRuns(phase))
+                    .append(", \"timeNanos\": ").append(getTimeNanos(phase))
+                    .append(", \"items\": ").append(getItems(phase))
+                    .append(", \"bytes\": ").append(getBytes(phase)).append('}');
+        }
+        return json.append("\n  }\n}\n").toString();
+    }
+
+    /**
+     * Writes the totals as a JSON file
+     *
+     * @param file          path of the JSON file
+     * @param wallTimeNanos wall time of the whole run in nanoseconds
+     */
+    public static void writeJson(Path file, long wallTimeNanos) throws IOException {
+        Files.writeString(file, toJson(wallTimeNanos), StandardCharsets.UTF_8);
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[PHASES];
+        for (int i = 0; i < PHASES; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * MBean view of the totals
+     */
+    private static class SchedulingStats implements SchedulingStatsMXBean {
+
+        @Override
+        public long getParseTimeNanos() {
+            return getTimeNanos(Phase.PARSE);
+        }
+
+        @Override
+        public long getTrimTimeNanos() {
+            return getTimeNanos(Phase.TRIM);
+        }
+
+        @Override
+        public long getSortTimeNanos() {
+            return getTimeNanos(Phase.SORT);
+        }
+
+        @Override
+        public long getScanTimeNanos() {
+            return getTimeNanos(Phase.SCAN);
+        }
+
+        @Override
+        public long getWriteTimeNanos() {
+            return getTimeNanos(Phase.WRITE);
+        }
+
+        @Override
+        public long getLinesRead() {
+            return getItems(Phase.PARSE);
+        }
+
+        @Override
+        public long getBytesRead() {
+            return getBytes(Phase.PARSE);
+        }
+
+        @Override
+        public long getReleasesTrimmed() {
+            return getItems(Phase.TRIM);
+        }
+
+        @Override
+        public long getReleasesSorted() {
+            return getItems(Phase.SORT);
+        }
+
+        @Override
+        public long getReleasesScheduled() {
+            return getItems(Phase.SCAN);
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return getBytes(Phase.WRITE);
+        }
+
+        @Override
+        public long getSchedulesWritten() {
+            return getRuns(Phase.WRITE);
+        }
+
+        @Override
+        public void reset() {
+            SchedulingMetrics.reset();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.akuiz.happyqa.metrics;
+
+/**
+ * Management interface of the scheduling pipeline totals since the start of the process or the last reset
+ */
+public interface SchedulingStatsMXBean {
+
+    long getParseTimeNanos();
+
+    long getTrimTimeNanos();
+
+    long getSortTimeNanos();
+
+    long getScanTimeNanos();
+
+    long getWriteTimeNanos();
+
+    long getLinesRead();
+
+    long getBytesRead();
+
+    long getReleasesTrimmed();
+
+    long getReleasesSorted();
+
+    long getReleasesScheduled();
+
+    long getBytesWritten();
+
+    /**
+     * Returns number of written schedules
+     */
+    long getSchedulesWritten();
+
+    void reset();
+}
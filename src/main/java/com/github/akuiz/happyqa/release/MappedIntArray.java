@@ -0,0 +1,104 @@
+package com.github.akuiz.happyqa.release;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This class is an int array outside of the Java heap, backed by a scratch file that is mapped segment by segment.
+ * Segments are mapped on first write, so the array grows on demand and its size is limited by the disk, not by the
+ * heap. Pages are kept in memory by the operating system while there is free memory and written to the scratch file
+ * only under memory pressure. The scratch file is deleted when the array is closed.
+ * The array is not thread-safe.
+ */
+
+public final class MappedIntArray implements Closeable {
+
+    /**
+     * A segment of 2^26 ints is 256 MB
+     */
+    public static final int DEFAULT_SEGMENT_SHIFT = 26;
+
+    private final FileChannel channel;
+
+    private final int segmentShift;
+
+    private final long segmentMask;
+
+    private MappedByteBuffer[] segments = new MappedByteBuffer[8];
+
+    /**
+     * Creates an array with default segment size
+     *
+     * @param scratchDirectory directory of the scratch file
+     */
+    public MappedIntArray(Path scratchDirectory) throws IOException {
+        this(scratchDirectory, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Creates an array
+     *
+     * @param scratchDirectory directory of the scratch file
+     * @param segmentShift     a segment holds 2^segmentShift ints
+     */
+    public MappedIntArray(Path scratchDirectory, int segmentShift) throws IOException {
+        if (segmentShift < 10 || segmentShift > 28) {
+            throw new IllegalArgumentException("Segment shift must be between 10 and 28: " + segmentShift);
+        }
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1L << segmentShift) - 1;
+        Path file = Files.createTempFile(scratchDirectory, "happyqa-offheap", ".bin");
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    /**
+     * Returns the value at the index. The index is not checked: its segment must have been mapped by a
+     * {@link #set(long, int)} call, otherwise NullPointerException or ArrayIndexOutOfBoundsException is thrown.
+     * Indexes of a mapped segment that were never set hold 0.
+     */
+    public int get(long index) {
+        return segments[(int) (index >>> segmentShift)].getInt((int) (index & segmentMask) << 2);
+    }
+
+    /**
+     * Sets the value at the index, mapping its segment if needed
+     *
+     * @throws IOException if the segment can't be mapped
+     */
+    public void set(long index, int value) throws IOException {
+        int segment = (int) (index >>> segmentShift);
+        MappedByteBuffer buffer = segment < segments.length ? segments[segment] : null;
+        if (buffer == null) {
+            buffer = map(segment);
+        }
+        buffer.putInt((int) (index & segmentMask) << 2, value);
+    }
+
+    /**
+     * Unmaps the array, mappings are released by the garbage collector, and deletes the scratch file
+     */
+    @Override
+    public void close() throws IOException {
+        Arrays.fill(segments, null);
+        channel.close();
+    }
+
+    private MappedByteBuffer map(int segment) throws IOException {
+        if (segment >= segments.length) {
+            segments = Arrays.copyOf(segments, Math.max(segments.length * 2, segment + 1));
+        }
+        long segmentSize = 4L << segmentShift;
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, segment * segmentSize, segmentSize);
+        buffer.order(ByteOrder.nativeOrder());
+        segments[segment] = buffer;
+        return buffer;
+    }
+}
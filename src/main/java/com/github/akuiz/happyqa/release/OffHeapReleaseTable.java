@@ -0,0 +1,140 @@
+package com.github.akuiz.happyqa.release;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * This class stores releases outside of the Java heap, so inputs of hundreds of millions of releases can be scheduled
+ * with a small heap. Each row is a fixed-width record of delivery day, time to test, start testing day,
+ * end testing day and ordinal of the release, 20 bytes in a {@link MappedIntArray}.
+ * Only the columns of {@link ReleaseTable} needed by the single tester schedules are kept, weights are not.
+ * The scratch file is deleted when the table is closed. The table is not thread-safe.
+ */
+
+public final class OffHeapReleaseTable implements Closeable {
+
+    /**
+     * Ints per record and positions of the columns within a record
+     */
+    private static final int RECORD_INTS = 5;
+
+    private static final int DELIVERY_DAY = 0;
+
+    private static final int TIME_TO_TEST = 1;
+
+    private static final int START_TESTING_DAY = 2;
+
+    private static final int END_TESTING_DAY = 3;
+
+    private static final int ORDINAL = 4;
+
+    private final Path scratchDirectory;
+
+    private final MappedIntArray records;
+
+    /**
+     * Number of rows in the table
+     */
+    private int size;
+
+    /**
+     * Creates an empty table with default segment size
+     *
+     * @param scratchDirectory directory of the scratch files
+     */
+    public OffHeapReleaseTable(Path scratchDirectory) throws IOException {
+        this(scratchDirectory, MappedIntArray.DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Creates an empty table
+     *
+     * @param scratchDirectory directory of the scratch files
+     * @param segmentShift     a mapped segment of the records holds 2^segmentShift ints
+     */
+    public OffHeapReleaseTable(Path scratchDirectory, int segmentShift) throws IOException {
+        this.scratchDirectory = scratchDirectory;
+        this.records = new MappedIntArray(scratchDirectory, segmentShift);
+    }
+
+    /**
+     * Adds a release with the given start testing day and ordinal
+     *
+     * @param deliveryDay     #day of the sprint when the release is delivered for testing
+     * @param startTestingDay #day of the sprint when the release is supposed to start the testing
+     * @param timeToTest      how many days it takes to test the release
+     * @param ordinal         position of the release in the input
+     * @return row of the added release
+     * @throws IOException if the scratch file can't grow
+     */
+    public int add(int deliveryDay, int startTestingDay, int timeToTest, int ordinal) throws IOException {
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap release table is full");
+        }
+        long record = (long) size * RECORD_INTS;
+        records.set(record + DELIVERY_DAY, deliveryDay);
+        records.set(record + TIME_TO_TEST, timeToTest);
+        records.set(record + START_TESTING_DAY, startTestingDay);
+        records.set(record + END_TESTING_DAY, startTestingDay + timeToTest - 1);
+        records.set(record + ORDINAL, ordinal);
+        return size++;
+    }
+
+    /**
+     * Appends all rows of a table
+     *
+     * @param other         table to append
+     * @param ordinalOffset value added to the ordinal of every appended row
+     * @throws IOException if the scratch file can't grow
+     */
+    public void addAll(ReleaseTable other, int ordinalOffset) throws IOException {
+        for (int row = 0; row < other.size(); row++) {
+            add(other.getDeliveryDay(row), other.getStartTestingDay(row), other.getTimeToTest(row),
+                    other.getOrdinal(row) + ordinalOffset);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getDeliveryDay(int row) {
+        return records.get((long) row * RECORD_INTS + DELIVERY_DAY);
+    }
+
+    public int getTimeToTest(int row) {
+        return records.get((long) row * RECORD_INTS + TIME_TO_TEST);
+    }
+
+    public int getStartTestingDay(int row) {
+        return records.get((long) row * RECORD_INTS + START_TESTING_DAY);
+    }
+
+    public int getEndTestingDay(int row) {
+        return records.get((long) row * RECORD_INTS + END_TESTING_DAY);
+    }
+
+    public int getOrdinal(int row) {
+        return records.get((long) row * RECORD_INTS + ORDINAL);
+    }
+
+    /**
+     * Returns directory of the scratch files, row indexes sorted off-heap are kept there as well
+     */
+    public Path getScratchDirectory() {
+        return scratchDirectory;
+    }
+
+    /**
+     * Releases the records and deletes the scratch file
+     */
+    @Override
+    public void close() throws IOException {
+        records.close();
+    }
+}
@@ -38,22 +38,67 @@ public class Release {
     private int endTestingDay;
 
     /**
-     * Unique ID of the release (this field initialised at the time of reading release inputs from the input file)
+     * Ordinal of a release that has no ID
      */
-    private String id;
+    private static final int NO_ORDINAL = -1;
 
     /**
-     * Set id to the release
+     * Ordinal of the release, its line index in the input file (this field initialised at the time of reading
+     * release inputs from the input file). Unique ID of the release is derived from it when printed.
+     */
+    private int ordinal = NO_ORDINAL;
+
+    /**
+     * ID of the release that is not an alphabetic one, e.g. 'PAY-42', null when the ID is derived from the ordinal
+     */
+    private String label;
+
+    /**
+     * Set ordinal to the release, its ID is derived from the ordinal
+     */
+    public void setOrdinal(int ordinal) {
+        this.ordinal = ordinal;
+        this.label = null;
+    }
+
+    /**
+     * Return ordinal of the release, -1 if it has no ID
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Set id to the release. An alphabetic ID (A, B, ..., Z, AA, and so on) sets the ordinal it stands for,
+     * any other ID is kept as it is and the release has no ordinal then.
+     *
+     * @param id ID of the release or null
      */
     public void setId(String id) {
-        this.id = id;
+        if (id != null && ReleaseId.isAlphabetic(id)) {
+            setOrdinal(ReleaseId.toOrdinal(id));
+        } else {
+            this.ordinal = NO_ORDINAL;
+            this.label = id;
+        }
     }
 
     /**
-     * Return id of the release
+     * Return id of the release, the one set by {@link #setId(String)} or the one computed from its ordinal
      */
     public String getId() {
-        return id;
+        if (label != null) {
+            return label;
+        }
+        return ordinal == NO_ORDINAL ? null : ReleaseId.toId(ordinal);
+    }
+
+    /**
+     * Gives the release the ID of another release, e.g. to a scheduled copy of the release
+     */
+    public void copyIdFrom(Release release) {
+        this.ordinal = release.ordinal;
+        this.label = release.label;
     }
 
     /**
@@ -155,7 +200,7 @@ public class Release {
      */
     public String toString(boolean detailed) {
         if (detailed) {
-            return "Release " + id + " {" +
+            return "Release " + getId() + " {" +
                     "startTestingDay=" + startTestingDay +
                     ", endTestingDay=" + endTestingDay +
                     ", deliveryDay=" + deliveryDay +
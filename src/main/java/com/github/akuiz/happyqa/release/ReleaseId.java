@@ -0,0 +1,135 @@
+package com.github.akuiz.happyqa.release;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is a utility class that converts ordinal of a release (its line index in the input file)
+ * to the alphabetic ID (A, B, ..., Z, AA, AB, ..., ZZ, AAA, and so on) and back.
+ * IDs of one and two letters are precomputed, longer ones are built on demand.
+ */
+
+public final class ReleaseId {
+
+    /**
+     * Number of IDs of one and two letters
+     */
+    private static final int SHORT_ID_COUNT = 26 + 26 * 26;
+
+    /**
+     * Longest ID of a non-negative int ordinal
+     */
+    private static final int MAX_ID_LENGTH = 7;
+
+    private static final String[] SHORT_IDS = new String[SHORT_ID_COUNT];
+
+    private static final byte[][] SHORT_ID_BYTES = new byte[SHORT_ID_COUNT][];
+
+    static {
+        for (int ordinal = 0; ordinal < SHORT_ID_COUNT; ordinal++) {
+            char[] label = new char[MAX_ID_LENGTH];
+            int start = fill(label, ordinal);
+            SHORT_IDS[ordinal] = new String(label, start, MAX_ID_LENGTH - start);
+            SHORT_ID_BYTES[ordinal] = SHORT_IDS[ordinal].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private ReleaseId() {
+    }
+
+    /**
+     * Returns alphabetic ID of a release
+     *
+     * @param ordinal non-negative ordinal of the release
+     */
+    public static String toId(int ordinal) {
+        checkOrdinal(ordinal);
+        if (ordinal < SHORT_ID_COUNT) {
+            return SHORT_IDS[ordinal];
+        }
+        char[] label = new char[MAX_ID_LENGTH];
+        int start = fill(label, ordinal);
+        return new String(label, start, MAX_ID_LENGTH - start);
+    }
+
+    /**
+     * Writes alphabetic ID of a release as ASCII bytes at the buffer position
+     *
+     * @param buffer  output buffer with at least 7 bytes remaining
+     * @param ordinal non-negative ordinal of the release
+     */
+    public static void put(ByteBuffer buffer, int ordinal) {
+        checkOrdinal(ordinal);
+        if (ordinal < SHORT_ID_COUNT) {
+            buffer.put(SHORT_ID_BYTES[ordinal]);
+            return;
+        }
+        int length = 1;
+        for (int rest = ordinal / 26 - 1; rest >= 0; rest = rest / 26 - 1) {
+            length++;
+        }
+        int end = buffer.position() + length;
+        for (int i = end - 1; ordinal >= 0; i--) {
+            buffer.put(i, (byte) ('A' + ordinal % 26));
+            ordinal = ordinal / 26 - 1;
+        }
+        buffer.position(end);
+    }
+
+    /**
+     * Returns ordinal of a release by its alphabetic ID
+     *
+     * @param id alphabetic ID of the release
+     * @throws IllegalArgumentException if the ID is not a sequence of capital latin letters or is too long
+     */
+    public static int toOrdinal(String id) {
+        int ordinal = parse(id);
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Invalid release ID: " + id);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Returns whether the ID is an alphabetic ID of a non-negative int ordinal
+     */
+    public static boolean isAlphabetic(String id) {
+        return parse(id) >= 0;
+    }
+
+    /**
+     * Returns ordinal of an alphabetic ID, -1 if it is not one
+     */
+    private static int parse(String id) {
+        if (id.isEmpty() || id.length() > MAX_ID_LENGTH) {
+            return -1;
+        }
+        long ordinal = -1;
+        for (int i = 0; i < id.length(); i++) {
+            char letter = id.charAt(i);
+            if (letter < 'A' || letter > 'Z') {
+                return -1;
+            }
+            ordinal = (ordinal + 1) * 26 + (letter - 'A');
+        }
+        return ordinal > Integer.MAX_VALUE ? -1 : (int) ordinal;
+    }
+
+    /**
+     * Fills the label from its end and returns index of the first letter
+     */
+    private static int fill(char[] label, int ordinal) {
+        int start = label.length;
+        while (ordinal >= 0) {
+            label[--start] = (char) ('A' + ordinal % 26);
+            ordinal = ordinal / 26 - 1;
+        }
+        return start;
+    }
+
+    private static void checkOrdinal(int ordinal) {
+        if (ordinal < 0) {
+            throw new IllegalArgumentException("Release ordinal must not be negative: " + ordinal);
+        }
+    }
+}
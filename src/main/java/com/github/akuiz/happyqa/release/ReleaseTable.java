@@ -0,0 +1,382 @@
+package com.github.akuiz.happyqa.release;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class stores many releases as primitive columns (struct of arrays) instead of one Release object per release.
+ * Each row keeps delivery day, time to test, start testing day, end testing day and the ordinal of the release,
+ * which is the position of the release in the input file and the source of its ID.
+ * Release objects are materialized only when they are needed, e.g. at output time.
+ * Optional columns are allocated on first use: weight of the release, given in the input, and tester of the release,
+ * kept by schedules for several testers.
+ */
+
+public class ReleaseTable {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * #day of the sprint when the release is delivered for testing
+     */
+    private int[] deliveryDay;
+
+    /**
+     * How many days it takes to test the release
+     */
+    private int[] timeToTest;
+
+    /**
+     * #day of the sprint when the testing of the release is supposed to start
+     */
+    private int[] startTestingDay;
+
+    /**
+     * #day of the sprint when the testing of the release is finished
+     */
+    private int[] endTestingDay;
+
+    /**
+     * Position of the release in the input, used instead of a String ID
+     */
+    private int[] ordinal;
+
+    /**
+     * Value of testing the release, 1 by default. Null until a weight is set for any row.
+     */
+    private int[] weight;
+
+    /**
+     * Tester assigned to the release, numbered from 1. Null until a tester is set for any row.
+     */
+    private int[] tester;
+
+    /**
+     * Number of rows in the table
+     */
+    private int size;
+
+    /**
+     * Creates an empty table with default capacity
+     */
+    public ReleaseTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty table
+     *
+     * @param capacity expected number of releases
+     */
+    public ReleaseTable(int capacity) {
+        capacity = Math.max(capacity, 1);
+        deliveryDay = new int[capacity];
+        timeToTest = new int[capacity];
+        startTestingDay = new int[capacity];
+        endTestingDay = new int[capacity];
+        ordinal = new int[capacity];
+    }
+
+    /**
+     * Creates a table from a list of releases. Ordinal of each release is its position in the list.
+     *
+     * @param releaseList given list of releases
+     */
+    public static ReleaseTable fromReleaseList(List<Release> releaseList) {
+        ReleaseTable releaseTable = new ReleaseTable(releaseList.size());
+        for (Release release : releaseList) {
+            releaseTable.add(release.getDeliveryDay(), release.getStartTestingDay(), release.getTimeToTest(), releaseTable.size());
+        }
+        return releaseTable;
+    }
+
+    /**
+     * Creates a copy of this table with its own columns
+     *
+     * @return copy of the table
+     */
+    public ReleaseTable copy() {
+        ReleaseTable copy = new ReleaseTable(size);
+        System.arraycopy(deliveryDay, 0, copy.deliveryDay, 0, size);
+        System.arraycopy(timeToTest, 0, copy.timeToTest, 0, size);
+        System.arraycopy(startTestingDay, 0, copy.startTestingDay, 0, size);
+        System.arraycopy(endTestingDay, 0, copy.endTestingDay, 0, size);
+        System.arraycopy(ordinal, 0, copy.ordinal, 0, size);
+        if (weight != null) {
+            copy.weight = Arrays.copyOf(weight, copy.deliveryDay.length);
+        }
+        if (tester != null) {
+            copy.tester = Arrays.copyOf(tester, copy.deliveryDay.length);
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Adds a release that starts testing on the day of delivery. Ordinal of the release is the current table size.
+     *
+     * @param deliveryDay #day of the sprint when the release is delivered for testing
+     * @param timeToTest  how many days it takes to test the release
+     * @return row of the added release
+     */
+    public int add(int deliveryDay, int timeToTest) {
+        return add(deliveryDay, deliveryDay, timeToTest, size);
+    }
+
+    /**
+     * Adds a release with the given start testing day and ordinal
+     *
+     * @param deliveryDay     #day of the sprint when the release is delivered for testing
+     * @param startTestingDay #day of the sprint when the release is supposed to start the testing
+     * @param timeToTest      how many days it takes to test the release
+     * @param ordinal         position of the release in the input
+     * @return row of the added release
+     */
+    public int add(int deliveryDay, int startTestingDay, int timeToTest, int ordinal) {
+        if (size == this.deliveryDay.length) {
+            grow(size + 1);
+        }
+        this.deliveryDay[size] = deliveryDay;
+        this.timeToTest[size] = timeToTest;
+        this.startTestingDay[size] = startTestingDay;
+        this.endTestingDay[size] = startTestingDay + timeToTest - 1;
+        this.ordinal[size] = ordinal;
+        if (weight != null) {
+            weight[size] = 1;
+        }
+        if (tester != null) {
+            tester[size] = 0;
+        }
+        return size++;
+    }
+
+    /**
+     * Appends all rows of another table
+     *
+     * @param other         table to append
+     * @param ordinalOffset value added to the ordinal of every appended row
+     */
+    public void addAll(ReleaseTable other, int ordinalOffset) {
+        int newSize = size + other.size;
+        if (newSize > deliveryDay.length) {
+            grow(newSize);
+        }
+        System.arraycopy(other.deliveryDay, 0, deliveryDay, size, other.size);
+        System.arraycopy(other.timeToTest, 0, timeToTest, size, other.size);
+        System.arraycopy(other.startTestingDay, 0, startTestingDay, size, other.size);
+        System.arraycopy(other.endTestingDay, 0, endTestingDay, size, other.size);
+        for (int i = 0; i < other.size; i++) {
+            ordinal[size + i] = other.ordinal[i] + ordinalOffset;
+        }
+        if (other.weight != null) {
+            if (weight == null) {
+                weight = newColumn(1);
+            }
+            System.arraycopy(other.weight, 0, weight, size, other.size);
+        } else if (weight != null) {
+            Arrays.fill(weight, size, newSize, 1);
+        }
+        if (other.tester != null) {
+            if (tester == null) {
+                tester = newColumn(0);
+            }
+            System.arraycopy(other.tester, 0, tester, size, other.size);
+        } else if (tester != null) {
+            Arrays.fill(tester, size, newSize, 0);
+        }
+        size = newSize;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getDeliveryDay(int row) {
+        return deliveryDay[row];
+    }
+
+    public int getTimeToTest(int row) {
+        return timeToTest[row];
+    }
+
+    public int getStartTestingDay(int row) {
+        return startTestingDay[row];
+    }
+
+    public int getEndTestingDay(int row) {
+        return endTestingDay[row];
+    }
+
+    public int getOrdinal(int row) {
+        return ordinal[row];
+    }
+
+    /**
+     * Whether weights are given for the releases of this table
+     */
+    public boolean hasWeights() {
+        return weight != null;
+    }
+
+    /**
+     * Returns weight of the release, 1 if no weight is given
+     *
+     * @param row row of the release
+     */
+    public int getWeight(int row) {
+        return weight == null ? 1 : weight[row];
+    }
+
+    /**
+     * Sets weight of the release
+     *
+     * @param row    row of the release
+     * @param weight value of testing the release
+     */
+    public void setWeight(int row, int weight) {
+        if (this.weight == null) {
+            this.weight = newColumn(1);
+        }
+        this.weight[row] = weight;
+    }
+
+    /**
+     * Whether testers are assigned to the releases of this table
+     */
+    public boolean hasTesters() {
+        return tester != null;
+    }
+
+    /**
+     * Returns tester of the release, numbered from 1, or 0 if no tester is assigned
+     *
+     * @param row row of the release
+     */
+    public int getTester(int row) {
+        return tester == null ? 0 : tester[row];
+    }
+
+    /**
+     * Assigns a tester to the release
+     *
+     * @param row    row of the release
+     * @param tester tester of the release, numbered from 1
+     */
+    public void setTester(int row, int tester) {
+        if (this.tester == null) {
+            this.tester = newColumn(0);
+        }
+        this.tester[row] = tester;
+    }
+
+    /**
+     * Copies a row over another row of this table
+     *
+     * @param from source row
+     * @param to   target row
+     */
+    public void copyRow(int from, int to) {
+        deliveryDay[to] = deliveryDay[from];
+        timeToTest[to] = timeToTest[from];
+        startTestingDay[to] = startTestingDay[from];
+        endTestingDay[to] = endTestingDay[from];
+        ordinal[to] = ordinal[from];
+        if (weight != null) {
+            weight[to] = weight[from];
+        }
+        if (tester != null) {
+            tester[to] = tester[from];
+        }
+    }
+
+    /**
+     * Drops all rows starting from the given size
+     *
+     * @param newSize number of rows to keep
+     */
+    public void truncate(int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("Size " + newSize + " is out of range 0.." + size);
+        }
+        size = newSize;
+    }
+
+    /**
+     * Reverses order of the rows
+     */
+    public void reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            swap(deliveryDay, i, j);
+            swap(timeToTest, i, j);
+            swap(startTestingDay, i, j);
+            swap(endTestingDay, i, j);
+            swap(ordinal, i, j);
+            if (weight != null) {
+                swap(weight, i, j);
+            }
+            if (tester != null) {
+                swap(tester, i, j);
+            }
+        }
+    }
+
+    /**
+     * Materializes a Release object for a row. Weight and tester of the release are not kept.
+     *
+     * @param row row of the release
+     * @return release with ID generated from the ordinal
+     */
+    public Release toRelease(int row) {
+        Release release = new Release(deliveryDay[row], startTestingDay[row], timeToTest[row]);
+        release.setOrdinal(ordinal[row]);
+        return release;
+    }
+
+    /**
+     * Materializes Release objects for all rows
+     *
+     * @return list of releases in the table order
+     */
+    public List<Release> toReleaseList() {
+        List<Release> releaseList = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            releaseList.add(toRelease(row));
+        }
+        return releaseList;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, deliveryDay.length + (deliveryDay.length >> 1));
+        deliveryDay = Arrays.copyOf(deliveryDay, capacity);
+        timeToTest = Arrays.copyOf(timeToTest, capacity);
+        startTestingDay = Arrays.copyOf(startTestingDay, capacity);
+        endTestingDay = Arrays.copyOf(endTestingDay, capacity);
+        ordinal = Arrays.copyOf(ordinal, capacity);
+        if (weight != null) {
+            weight = Arrays.copyOf(weight, capacity);
+        }
+        if (tester != null) {
+            tester = Arrays.copyOf(tester, capacity);
+        }
+    }
+
+    /**
+     * Allocates an optional column, existing rows get the default value
+     */
+    private int[] newColumn(int defaultValue) {
+        int[] column = new int[deliveryDay.length];
+        Arrays.fill(column, 0, size, defaultValue);
+        return column;
+    }
+
+    private static void swap(int[] column, int i, int j) {
+        int value = column[i];
+        column[i] = column[j];
+        column[j] = value;
+    }
+}
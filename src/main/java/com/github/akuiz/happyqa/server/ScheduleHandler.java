@@ -0,0 +1,270 @@
+package com.github.akuiz.happyqa.server;
+
+import com.github.akuiz.happyqa.algorithm.Scheduler;
+import com.github.akuiz.happyqa.fileUtils.ReleaseDecoder;
+import com.github.akuiz.happyqa.fileUtils.ScheduleWriter;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class handles a scheduling request: the body is releases.txt content, query parameters select the algorithm
+ * ('basic' or 'advanced'), sprint duration, number of testers and the weighted and exact modes like system
+ * properties of the command line applications do. Response is a JSON object with the schedule size and both outputs.
+ * Buffers of the request body and of the outputs are kept per thread and reused between requests.
+ * A request body larger than the configured maximum is answered with status 413, a number of testers out of the
+ * configured range with status 400.
+ */
+
+class ScheduleHandler implements HttpHandler {
+
+    private static final ThreadLocal<RequestBuffers> BUFFERS = ThreadLocal.withInitial(RequestBuffers::new);
+
+    private static final byte[] ESCAPED_LINE_FEED = "\\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] ESCAPED_CARRIAGE_RETURN = "\\r".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Maximal size of a request body in bytes
+     */
+    private final int maxBodySize;
+
+    /**
+     * Maximal number of testers of a request
+     */
+    private final int maxTesters;
+
+    /**
+     * Creates a handler
+     *
+     * @param maxBodySize maximal size of a request body in bytes
+     * @param maxTesters  maximal number of testers of a request
+     */
+    ScheduleHandler(int maxBodySize, int maxTesters) {
+        if (maxBodySize < 1) {
+            throw new IllegalArgumentException("Maximal body size must be positive: " + maxBodySize);
+        }
+        if (maxTesters < 1) {
+            throw new IllegalArgumentException("Maximal number of testers must be positive: " + maxTesters);
+        }
+        this.maxBodySize = maxBodySize;
+        this.maxTesters = maxTesters;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                respondWithError(exchange, 405, "Only POST is supported");
+                return;
+            }
+            RequestBuffers buffers = BUFFERS.get();
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (contentLength != null && Long.parseLong(contentLength.trim()) > maxBodySize) {
+                respondWithError(exchange, 413, "Request body is larger than " + maxBodySize + " bytes");
+                return;
+            }
+            ReleaseTable releaseTable = buffers.readReleases(exchange.getRequestBody(), maxBodySize);
+            if (releaseTable == null) {
+                respondWithError(exchange, 413, "Request body is larger than " + maxBodySize + " bytes");
+                return;
+            }
+            ReleaseTable schedule = schedule(releaseTable, parameters);
+            respond(exchange, 200, buffers.toJson(schedule));
+        } catch (IllegalArgumentException e) {
+            // Invalid releases or parameters, NumberFormatException included
+            respondWithError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            respondWithError(exchange, 500, String.valueOf(e));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Runs the requested algorithm, the given table is trimmed in place
+     */
+    private ReleaseTable schedule(ReleaseTable releaseTable, Map<String, String> parameters) {
+        // Every tester takes memory while scheduling, the number is checked before anything is allocated
+        int testers = Integer.parseInt(parameters.getOrDefault("testers", "1"));
+        if (testers < 1 || testers > maxTesters) {
+            throw new IllegalArgumentException("Number of testers must be between 1 and " + maxTesters + ": " + testers);
+        }
+        Scheduler scheduler = new Scheduler(Scheduler.Type.of(parameters.getOrDefault("algorithm", Scheduler.Type.DEFAULT.toString())),
+                Integer.parseInt(parameters.getOrDefault("sprintDuration", "10")),
+                testers,
+                Boolean.parseBoolean(parameters.getOrDefault("weighted", "false")),
+                Boolean.parseBoolean(parameters.getOrDefault("exact", "false")));
+        return scheduler.schedule(releaseTable);
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            String value = separator < 0 ? "" : parameter.substring(separator + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static void respondWithError(HttpExchange exchange, int status, String message) throws IOException {
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        json.writeBytes("{\"error\":\"".getBytes(StandardCharsets.US_ASCII));
+        byte[] messageBytes = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+        writeEscaped(json, messageBytes, messageBytes.length);
+        json.writeBytes("\"}".getBytes(StandardCharsets.US_ASCII));
+        respond(exchange, status, json);
+    }
+
+    private static void respond(HttpExchange exchange, int status, ByteArrayOutputStream json) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, json.size());
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            json.writeTo(responseBody);
+        }
+    }
+
+    /**
+     * Writes bytes as the content of a JSON string. Characters other than quotes, backslash and control ones are
+     * written as they are, UTF-8 bytes included.
+     */
+    private static void writeEscaped(ByteArrayOutputStream json, byte[] bytes, int length) {
+        int runStart = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[i];
+            if (b != '"' && b != '\\' && (b < 0 || b >= 0x20)) {
+                continue;
+            }
+            // Copy the run of plain bytes at once, then the escape sequence
+            json.write(bytes, runStart, i - runStart);
+            runStart = i + 1;
+            if (b == '\n') {
+                json.writeBytes(ESCAPED_LINE_FEED);
+            } else if (b == '\r') {
+                json.writeBytes(ESCAPED_CARRIAGE_RETURN);
+            } else if (b == '"' || b == '\\') {
+                json.write('\\');
+                json.write(b);
+            } else {
+                json.writeBytes(String.format("\\u%04x", b).getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+        json.write(bytes, runStart, length - runStart);
+    }
+
+    /**
+     * Buffers reused by all requests handled by a thread
+     */
+    private static class RequestBuffers {
+
+        private static final int INITIAL_BODY_CAPACITY = 1 << 16;
+
+        /**
+         * Largest buffer kept between requests, larger ones are dropped after the request
+         */
+        private static final int MAX_KEPT_CAPACITY = 1 << 24;
+
+        private byte[] body = new byte[INITIAL_BODY_CAPACITY];
+
+        private final ScheduleWriter scheduleWriter = new ScheduleWriter();
+
+        private ReusableOutputStream output = new ReusableOutputStream();
+
+        private ReusableOutputStream outputAdvanced = new ReusableOutputStream();
+
+        private ReusableOutputStream json = new ReusableOutputStream();
+
+        /**
+         * Reads the request body into the reused buffer and decodes releases from it
+         *
+         * @return releases of the body, or null if the body is larger than the maximal size
+         */
+        ReleaseTable readReleases(InputStream requestBody, int maxBodySize) throws IOException {
+            int length = 0;
+            int read;
+            while ((read = requestBody.read(body, length, body.length - length)) >= 0) {
+                length += read;
+                if (length > maxBodySize) {
+                    // The rest of the body is not read, the exchange is closed after the response
+                    body = new byte[INITIAL_BODY_CAPACITY];
+                    return null;
+                }
+                if (length == body.length) {
+                    // One byte over the maximum is enough to tell that the body is too large
+                    body = Arrays.copyOf(body, (int) Math.min((long) body.length * 2, (long) maxBodySize + 1));
+                }
+            }
+
+            try {
+                // A typical line is about 5 bytes long
+                ReleaseTable releaseTable = new ReleaseTable(length / 5 + 1);
+                ReleaseDecoder decoder = new ReleaseDecoder(releaseTable);
+                decoder.decode(ByteBuffer.wrap(body, 0, length));
+                decoder.finish();
+                return releaseTable;
+            } finally {
+                if (body.length > MAX_KEPT_CAPACITY) {
+                    body = new byte[INITIAL_BODY_CAPACITY];
+                }
+            }
+        }
+
+        /**
+         * Formats both outputs of the schedule and wraps them into a JSON object
+         */
+        ByteArrayOutputStream toJson(ReleaseTable schedule) throws IOException {
+            output = reuse(output);
+            outputAdvanced = reuse(outputAdvanced);
+            json = reuse(json);
+
+            WritableByteChannel outputChannel = Channels.newChannel(output);
+            WritableByteChannel outputAdvancedChannel = Channels.newChannel(outputAdvanced);
+            scheduleWriter.write(schedule, outputChannel, outputAdvancedChannel);
+
+            json.writeBytes(("{\"count\":" + schedule.size() + ",\"output\":\"").getBytes(StandardCharsets.US_ASCII));
+            writeEscaped(json, output.buffer(), output.size());
+            json.writeBytes("\",\"outputAdvanced\":\"".getBytes(StandardCharsets.US_ASCII));
+            writeEscaped(json, outputAdvanced.buffer(), outputAdvanced.size());
+            json.writeBytes("\"}".getBytes(StandardCharsets.US_ASCII));
+            return json;
+        }
+
+        private static ReusableOutputStream reuse(ReusableOutputStream stream) {
+            if (stream.size() > MAX_KEPT_CAPACITY) {
+                return new ReusableOutputStream();
+            }
+            stream.reset();
+            return stream;
+        }
+    }
+
+    /**
+     * Output stream that gives access to its buffer, so the content is not copied
+     */
+    private static class ReusableOutputStream extends ByteArrayOutputStream {
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.akuiz.happyqa.server;
+
+import com.github.akuiz.happyqa.metrics.SchedulingMetrics;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is a long-running scheduling server, so that many small release files are scheduled by one warm JVM.
+ * Releases in releases.txt format are posted to /schedule, the response contains both output formats.
+ * Requests are handled concurrently by a fixed number of threads. When all threads are busy and the queue is full,
+ * the accepting thread handles the request itself, so no new connections are accepted until some work is done.
+ */
+
+public class ScheduleServer {
+
+    /**
+     * Path requests are posted to
+     */
+    public static final String SCHEDULE_PATH = "/schedule";
+
+    /**
+     * Maximal size of a request body by default, 64 MB
+     */
+    public static final int DEFAULT_MAX_BODY_SIZE = 1 << 26;
+
+    /**
+     * Maximal number of testers of a request by default
+     */
+    public static final int DEFAULT_MAX_TESTERS = 1024;
+
+    private final HttpServer httpServer;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates a server, it does not accept requests until started
+     *
+     * @param address       address to listen on, port 0 picks a free port
+     * @param threads       number of threads handling requests
+     * @param queueCapacity number of accepted requests waiting for a free thread
+     * @throws IOException if the address can't be bound
+     */
+    public ScheduleServer(InetSocketAddress address, int threads, int queueCapacity) throws IOException {
+        this(address, threads, queueCapacity, DEFAULT_MAX_BODY_SIZE, DEFAULT_MAX_TESTERS);
+    }
+
+    /**
+     * Creates a server, it does not accept requests until started
+     *
+     * @param address       address to listen on, port 0 picks a free port
+     * @param threads       number of threads handling requests
+     * @param queueCapacity number of accepted requests waiting for a free thread
+     * @param maxBodySize   maximal size of a request body in bytes, larger requests are answered with status 413
+     * @param maxTesters    maximal number of testers of a request, more are answered with status 400
+     * @throws IOException if the address can't be bound
+     */
+    public ScheduleServer(InetSocketAddress address, int threads, int queueCapacity, int maxBodySize, int maxTesters)
+            throws IOException {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+        httpServer = HttpServer.create(address, 0);
+        httpServer.setExecutor(executor);
+        httpServer.createContext(SCHEDULE_PATH, new ScheduleHandler(maxBodySize, maxTesters));
+    }
+
+    public void start() {
+        httpServer.start();
+    }
+
+    /**
+     * Stops accepting requests, waits for the requests being handled and stops the threads
+     *
+     * @param delaySeconds maximal time to wait for the requests being handled
+     */
+    public void stop(int delaySeconds) {
+        httpServer.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the address the server listens on
+     */
+    public InetSocketAddress getAddress() {
+        return httpServer.getAddress();
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        // Get port to listen on. 8080 by default
+        int port = Integer.parseInt(System.getProperty("server.port", "8080"));
+
+        // Get number of threads handling requests. All available processors by default
+        int threads = Integer.parseInt(System.getProperty("server.threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+        // Get number of requests waiting for a free thread. 64 by default
+        int queueCapacity = Integer.parseInt(System.getProperty("server.queue.capacity", "64"));
+
+        // Get maximal size of a request body in bytes. 64 MB by default
+        int maxBodySize = Integer.parseInt(System.getProperty("server.max.body.size", String.valueOf(DEFAULT_MAX_BODY_SIZE)));
+
+        // Get maximal number of testers of a request. 1024 by default
+        int maxTesters = Integer.parseInt(System.getProperty("server.max.testers", String.valueOf(DEFAULT_MAX_TESTERS)));
+
+        // Phase totals of all requests are available over JMX
+        SchedulingMetrics.registerMBean();
+
+        ScheduleServer server = new ScheduleServer(new InetSocketAddress(port), threads, queueCapacity, maxBodySize, maxTesters);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(5)));
+        server.start();
+        System.out.println("Happy QA scheduling server is listening on port " + server.getAddress().getPort());
+    }
+}
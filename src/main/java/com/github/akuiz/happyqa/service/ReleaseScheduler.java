@@ -0,0 +1,191 @@
+package com.github.akuiz.happyqa.service;
+
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class collects releases submitted by many threads and provides the basic algorithm schedule of all of them.
+ * Releases are appended to stripes chosen by the end testing day, so submissions of different days rarely contend.
+ * Readers get an immutable snapshot, it is recomputed by {@link Algorithm#createOptimalTestingSchedule(ReleaseTable, int)}
+ * on the first read after a change and shared by all reads until the next change.
+ * A snapshot is a consistent cut: it holds every release submitted before any release it holds.
+ */
+
+public class ReleaseScheduler {
+
+    /**
+     * Duration of the sprint in days
+     */
+    private final int sprintDuration;
+
+    private final Stripe[] stripes;
+
+    /**
+     * Ordinal of the next submitted release
+     */
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    /**
+     * Number of 'in time to test' releases appended to the stripes, it identifies the state of the schedule
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Serializes recomputes, so concurrent readers of a changed schedule compute it once
+     */
+    private final Object recomputeLock = new Object();
+
+    private volatile ScheduleSnapshot snapshot;
+
+    /**
+     * Creates a scheduler with a stripe per available processor
+     *
+     * @param sprintDuration duration of the sprint in days
+     */
+    public ReleaseScheduler(int sprintDuration) {
+        this(sprintDuration, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a scheduler
+     *
+     * @param sprintDuration duration of the sprint in days
+     * @param stripes        number of independently locked stripes
+     */
+    public ReleaseScheduler(int sprintDuration, int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Number of stripes must be positive: " + stripes);
+        }
+        this.sprintDuration = sprintDuration;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.snapshot = new ScheduleSnapshot(new ReleaseTable(0), 0);
+    }
+
+    /**
+     * Adds a release. Safe to call from any number of threads.
+     *
+     * @param deliveryDay #day of the sprint when the release is delivered
+     * @param timeToTest  #days to test the release
+     * @return ordinal of the release, ordinals follow the order of submissions
+     */
+    public int submit(int deliveryDay, int timeToTest) {
+        int endTestingDay = deliveryDay + timeToTest - 1;
+        if (endTestingDay > sprintDuration) {
+            // 'Too late to test' releases never change the schedule
+            return nextOrdinal.getAndIncrement();
+        }
+
+        Stripe stripe = stripes[Math.floorMod(endTestingDay, stripes.length)];
+        stripe.lock.lock();
+        try {
+            // Ordinals are taken under the lock, so releases ending on the same day are appended in ordinal order
+            int ordinal = nextOrdinal.getAndIncrement();
+            stripe.add(deliveryDay, timeToTest, ordinal);
+            version.incrementAndGet();
+            return ordinal;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the schedule of the releases submitted so far. Snapshots of the same state are the same object.
+     */
+    public ScheduleSnapshot snapshot() {
+        ScheduleSnapshot current = snapshot;
+        if (current.getVersion() == version.get()) {
+            return current;
+        }
+        synchronized (recomputeLock) {
+            current = snapshot;
+            if (current.getVersion() == version.get()) {
+                return current;
+            }
+            current = recompute();
+            snapshot = current;
+            return current;
+        }
+    }
+
+    /**
+     * Returns number of releases submitted so far, 'too late to test' ones included
+     */
+    public int getSubmittedCount() {
+        return nextOrdinal.get();
+    }
+
+    public int getSprintDuration() {
+        return sprintDuration;
+    }
+
+    private ScheduleSnapshot recompute() {
+        // Stripes are append only: arrays and sizes taken under all locks stay valid after the locks are released
+        int[][] deliveryDays = new int[stripes.length][];
+        int[][] timesToTest = new int[stripes.length][];
+        int[][] ordinals = new int[stripes.length][];
+        int[] sizes = new int[stripes.length];
+        long cutVersion;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+        }
+        try {
+            for (int i = 0; i < stripes.length; i++) {
+                deliveryDays[i] = stripes[i].deliveryDay;
+                timesToTest[i] = stripes[i].timeToTest;
+                ordinals[i] = stripes[i].ordinal;
+                sizes[i] = stripes[i].size;
+            }
+            cutVersion = version.get();
+        } finally {
+            for (Stripe stripe : stripes) {
+                stripe.lock.unlock();
+            }
+        }
+
+        // Releases of an end testing day are in one stripe in ordinal order, the stable sort keeps them so
+        ReleaseTable releaseTable = new ReleaseTable((int) cutVersion);
+        for (int i = 0; i < stripes.length; i++) {
+            for (int j = 0; j < sizes[i]; j++) {
+                releaseTable.add(deliveryDays[i][j], deliveryDays[i][j], timesToTest[i][j], ordinals[i][j]);
+            }
+        }
+        return new ScheduleSnapshot(Algorithm.createOptimalTestingSchedule(releaseTable, sprintDuration), cutVersion);
+    }
+
+    /**
+     * Releases of the end testing days mapped to a stripe, in submission order
+     */
+    private static class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private int[] deliveryDay = new int[16];
+
+        private int[] timeToTest = new int[16];
+
+        private int[] ordinal = new int[16];
+
+        private int size;
+
+        void add(int deliveryDay, int timeToTest, int ordinal) {
+            if (size == this.deliveryDay.length) {
+                // New arrays, so snapshots taken before keep reading the old ones
+                this.deliveryDay = Arrays.copyOf(this.deliveryDay, size * 2);
+                this.timeToTest = Arrays.copyOf(this.timeToTest, size * 2);
+                this.ordinal = Arrays.copyOf(this.ordinal, size * 2);
+            }
+            this.deliveryDay[size] = deliveryDay;
+            this.timeToTest[size] = timeToTest;
+            this.ordinal[size] = ordinal;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.akuiz.happyqa.service;
+
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+
+import java.io.IOException;
+
+/**
+ * This class is an immutable schedule of the releases submitted to {@link ReleaseScheduler} up to some moment.
+ * The schedule table is never handed out, readers get copies of it.
+ */
+
+public final class ScheduleSnapshot {
+
+    private final ReleaseTable schedule;
+
+    private final long version;
+
+    ScheduleSnapshot(ReleaseTable schedule, long version) {
+        this.schedule = schedule;
+        this.version = version;
+    }
+
+    /**
+     * Returns a copy of the schedule
+     */
+    public ReleaseTable getSchedule() {
+        return schedule.copy();
+    }
+
+    /**
+     * Returns number of releases in the schedule
+     */
+    public int size() {
+        return schedule.size();
+    }
+
+    /**
+     * Returns number of 'in time to test' releases the schedule was computed from
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Writes both output files of the schedule
+     *
+     * @param filename         output file with the schedule
+     * @param detailedFilename output file with the schedule details
+     */
+    public void writeToFiles(String filename, String detailedFilename) throws IOException {
+        FileUtils.writeScheduleToFiles(schedule, filename, detailedFilename);
+    }
+}
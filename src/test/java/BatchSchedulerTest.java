@@ -0,0 +1,58 @@
+import com.github.akuiz.happyqa.BatchScheduler;
+import com.github.akuiz.happyqa.algorithm.Scheduler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchSchedulerTest {
+
+    private static final String DESCRIPTION_EXAMPLE = "1 1\n2 1\n3 1\n9 1\n10 4\n10 2\n9 5\n10 3\n4 5\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testEveryFileGetsItsOwnOutputs() throws IOException {
+
+        Files.writeString(directory.resolve("first.txt"), DESCRIPTION_EXAMPLE);
+        Files.writeString(directory.resolve("second.txt"), "1 2\n");
+        Files.writeString(directory.resolve("notes.md"), "not a release file");
+        Path outputDirectory = directory.resolve("output");
+
+        Scheduler scheduler = new Scheduler(Scheduler.Type.BASIC, 10, 1, false, true);
+        int files = new BatchScheduler(scheduler, 2).schedule(directory, "*.txt", outputDirectory);
+
+        assertEquals(2, files);
+        assertEquals(List.of("5", "1 1", "2 2", "3 3", "4 8", "9 9"),
+                Files.readAllLines(outputDirectory.resolve("first-output.txt")));
+        assertEquals(List.of("1", "1 2"), Files.readAllLines(outputDirectory.resolve("second-output.txt")));
+        assertEquals(List.of("1", "Release A {startTestingDay=1, endTestingDay=2, deliveryDay=1, timeToTest=2}"),
+                Files.readAllLines(outputDirectory.resolve("second-output-advanced.txt")));
+        assertFalse(Files.exists(outputDirectory.resolve("notes-output.txt")));
+    }
+
+    @Test
+    public void testFailingFileDoesNotStopOthers() throws IOException {
+
+        Files.writeString(directory.resolve("broken.txt"), "1 x\n");
+        Files.writeString(directory.resolve("valid.txt"), DESCRIPTION_EXAMPLE);
+        Path outputDirectory = directory.resolve("output");
+
+        Scheduler scheduler = new Scheduler(Scheduler.Type.ADVANCED, 10, 1, false, true);
+        IOException exception = assertThrows(IOException.class,
+                () -> new BatchScheduler(scheduler, 2).schedule(directory, "*.txt", outputDirectory));
+
+        assertEquals(1, exception.getSuppressed().length);
+        assertTrue(exception.getSuppressed()[0].getMessage().contains("broken.txt"));
+        assertTrue(Files.exists(outputDirectory.resolve("valid-output.txt")));
+    }
+}
@@ -0,0 +1,99 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.fileUtils.BinaryReleaseFormat;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.OffHeapReleaseTable;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BinaryReleaseFormatTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testDescriptionExampleRoundTrip() throws Exception {
+
+        Path text = directory.resolve("releases.txt");
+        Files.writeString(text, "1 1\n2 1\n3 1\n9 1\n10 4\n10 2\n9 5\n10 3\n4 5\n");
+        Path binary = directory.resolve("releases.bin");
+        Path convertedText = directory.resolve("converted.txt");
+
+        assertEquals(9, BinaryReleaseFormat.convertToBinary(text, binary, 10));
+        assertTrue(BinaryReleaseFormat.isBinary(binary));
+        assertFalse(BinaryReleaseFormat.isBinary(text));
+
+        BinaryReleaseFormat.Header header = BinaryReleaseFormat.readHeader(binary);
+        assertEquals(9, header.getCount());
+        assertEquals(13, header.getMaxDay());
+        assertEquals(10, header.getSprintDurationHint());
+        assertFalse(header.hasWeights());
+        // 32 bytes of the header and 2 bytes per release
+        assertEquals(32 + 18, Files.size(binary));
+
+        assertEquals(9, BinaryReleaseFormat.convertToText(binary, convertedText));
+        assertEquals(Files.readString(text), Files.readString(convertedText));
+
+        // Binary input is detected by the loaders and gives the same schedule
+        ReleaseTable fromText = FileUtils.readReleaseTableFromFile(text.toString());
+        ReleaseTable fromBinary = FileUtils.readReleaseTableFromFile(binary.toString(), 4);
+        assertEquals(Algorithm.releaseScheduleAdvancedExact(fromText, 10).toReleaseList(),
+                Algorithm.releaseScheduleAdvancedExact(fromBinary, 10).toReleaseList());
+        try (OffHeapReleaseTable offHeapTable = FileUtils.readOffHeapReleaseTableFromFile(binary.toString(), directory)) {
+            assertEquals(Algorithm.createOptimalTestingSchedule(FileUtils.readReleaseTableFromFile(text.toString()), 10).toReleaseList(),
+                    Algorithm.createOptimalTestingSchedule(offHeapTable, 10).toReleaseList());
+        }
+    }
+
+    @Test
+    public void testLargeInputWithWeightsAndNegativeDays() throws Exception {
+
+        Random random = new Random(22);
+        ReleaseTable releaseTable = new ReleaseTable();
+        for (int i = 0; i < 300_000; i++) {
+            int row = releaseTable.add(random.nextInt(2000) - 10, 1 + random.nextInt(300));
+            releaseTable.setWeight(row, random.nextInt(1 << 20));
+        }
+        Path binary = directory.resolve("releases.bin");
+        BinaryReleaseFormat.write(releaseTable, binary, 0);
+
+        ReleaseTable read = BinaryReleaseFormat.read(binary);
+        assertEquals(releaseTable.size(), read.size());
+        assertTrue(read.hasWeights());
+        for (int row = 0; row < read.size(); row++) {
+            assertEquals(releaseTable.getDeliveryDay(row), read.getDeliveryDay(row));
+            assertEquals(releaseTable.getTimeToTest(row), read.getTimeToTest(row));
+            assertEquals(releaseTable.getWeight(row), read.getWeight(row));
+            assertEquals(row, read.getOrdinal(row));
+        }
+    }
+
+    @Test
+    public void testCorruptFileIsRejected() throws Exception {
+
+        Path text = directory.resolve("releases.txt");
+        Files.writeString(text, "1 1\n2 1\n3 1\n");
+        Path binary = directory.resolve("releases.bin");
+        BinaryReleaseFormat.convertToBinary(text, binary, 0);
+
+        byte[] bytes = Files.readAllBytes(binary);
+        bytes[bytes.length - 1] ^= 2;
+        Files.write(binary, bytes);
+        IOException e = assertThrows(IOException.class, () -> BinaryReleaseFormat.read(binary));
+        assertTrue(e.getMessage().contains("checksum"));
+
+        Files.write(binary, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> BinaryReleaseFormat.read(binary));
+    }
+}
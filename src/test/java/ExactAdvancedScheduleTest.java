@@ -0,0 +1,83 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.algorithm.BruteForceVerifier;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExactAdvancedScheduleTest {
+
+    @Test
+    public void testLongReleaseIsDropped() {
+
+        // Long release B delivered on day 2 blocks the sprint for the three short releases delivered on day 1
+        ReleaseTable releaseTable = new ReleaseTable();
+        releaseTable.add(1, 1);
+        releaseTable.add(2, 5);
+        releaseTable.add(1, 1);
+        releaseTable.add(1, 1);
+
+        ReleaseTable greedySchedule = Algorithm.releaseScheduleAdvanced(releaseTable.copy(), 6);
+        ReleaseTable exactSchedule = Algorithm.releaseScheduleAdvancedExact(releaseTable.copy(), 6);
+
+        assertEquals(2, greedySchedule.size());
+        assertEquals(3, exactSchedule.size());
+        assertDoesNotThrow(() -> BruteForceVerifier.verifyAdvancedSchedule(releaseTable, exactSchedule, 6));
+        assertThrows(IllegalStateException.class, () -> BruteForceVerifier.verifyAdvancedSchedule(releaseTable, greedySchedule, 6));
+    }
+
+    @Test
+    public void testDescriptionExample() {
+
+        ReleaseTable releaseTable = new ReleaseTable();
+        int[][] releases = {{1, 1}, {2, 1}, {3, 1}, {9, 1}, {10, 4}, {10, 2}, {9, 5}, {10, 3}, {4, 5}};
+        for (int[] release : releases) {
+            releaseTable.add(release[0], release[1]);
+        }
+
+        assertEquals(Algorithm.releaseScheduleAdvanced(releaseTable.copy(), 10).toReleaseList(),
+                Algorithm.releaseScheduleAdvancedExact(releaseTable.copy(), 10).toReleaseList());
+    }
+
+    @Test
+    public void testMatchesExhaustiveSearch() {
+
+        Random random = new Random(41);
+        for (int attempt = 0; attempt < 500; attempt++) {
+            int sprintDuration = 1 + random.nextInt(25);
+            ReleaseTable releaseTable = randomReleases(random, random.nextInt(15), sprintDuration, 1 + random.nextInt(10));
+
+            ReleaseTable schedule = Algorithm.releaseScheduleAdvancedExact(releaseTable.copy(), sprintDuration);
+
+            assertDoesNotThrow(() -> BruteForceVerifier.verifyAdvancedSchedule(releaseTable, schedule, sprintDuration));
+        }
+    }
+
+    @Test
+    public void testLargeInputIsValidAndNotWorseThanGreedy() {
+
+        Random random = new Random(42);
+        for (int sprintDuration : new int[]{10, 365, 100_000}) {
+            ReleaseTable releaseTable = randomReleases(random, 200_000, sprintDuration, 1 + sprintDuration / 5);
+
+            ReleaseTable schedule = Algorithm.releaseScheduleAdvancedExact(releaseTable.copy(), sprintDuration);
+            ReleaseTable greedySchedule = Algorithm.releaseScheduleAdvanced(releaseTable.copy(), sprintDuration);
+
+            assertDoesNotThrow(() -> BruteForceVerifier.verifyAdvancedSchedule(releaseTable, schedule, sprintDuration));
+            assertTrue(schedule.size() >= greedySchedule.size());
+        }
+    }
+
+    private static ReleaseTable randomReleases(Random random, int size, int sprintDuration, int maxTimeToTest) {
+        ReleaseTable releaseTable = new ReleaseTable();
+        for (int i = 0; i < size; i++) {
+            releaseTable.add(1 + random.nextInt(sprintDuration), 1 + random.nextInt(maxTimeToTest));
+        }
+        return releaseTable;
+    }
+}
@@ -0,0 +1,85 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.algorithm.ExternalSortScheduler;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.Release;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ExternalSortSchedulerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testDescriptionExample() throws IOException {
+
+        Path releasesFile = directory.resolve("releases.txt");
+        Files.writeString(releasesFile, "1 1\n2 1\n3 1\n9 1\n10 4\n10 2\n9 5\n10 3\n4 5 ");
+
+        assertSameOutput(releasesFile, 10);
+    }
+
+    @Test
+    public void testSpilledRunsMatchInMemorySchedule() throws IOException {
+
+        // With the smallest budget a run holds about 13 thousand releases, so this input is spilled in several runs
+        Path releasesFile = directory.resolve("releases.txt");
+        Random random = new Random(3);
+        try (BufferedWriter writer = Files.newBufferedWriter(releasesFile)) {
+            for (int i = 0; i < 100_000; i++) {
+                writer.write((1 + random.nextInt(400)) + " " + (1 + random.nextInt(20)));
+                writer.newLine();
+            }
+        }
+
+        assertSameOutput(releasesFile, 365);
+    }
+
+    @Test
+    public void testScheduleLongerThanAWriteBlock() throws IOException {
+
+        // Thousands of picked releases are formatted in several blocks
+        Path releasesFile = directory.resolve("releases.txt");
+        Random random = new Random(8);
+        try (BufferedWriter writer = Files.newBufferedWriter(releasesFile)) {
+            for (int i = 0; i < 50_000; i++) {
+                writer.write((1 + random.nextInt(20_000)) + " " + (1 + random.nextInt(2)));
+                writer.newLine();
+            }
+        }
+
+        assertSameOutput(releasesFile, 20_000);
+    }
+
+    private void assertSameOutput(Path releasesFile, int sprintDuration) throws IOException {
+        Path outputFile = directory.resolve("output.txt");
+        Path outputFileAdvanced = directory.resolve("output-advanced.txt");
+        Path expectedOutputFile = directory.resolve("expected-output.txt");
+        Path expectedOutputFileAdvanced = directory.resolve("expected-output-advanced.txt");
+
+        List<Release> expectedSchedule = Algorithm.createOptimalTestingSchedule(
+                FileUtils.readReleaseDetailsFromFile(releasesFile.toString()), sprintDuration);
+        FileUtils.writeReleaseListToFile(expectedSchedule, expectedOutputFile.toString(), false);
+        FileUtils.writeReleaseListToFile(expectedSchedule, expectedOutputFileAdvanced.toString(), true);
+
+        int count = new ExternalSortScheduler(1 << 20, directory)
+                .schedule(releasesFile, sprintDuration, outputFile, outputFileAdvanced);
+
+        assertEquals(expectedSchedule.size(), count);
+        assertArrayEquals(Files.readAllBytes(expectedOutputFile), Files.readAllBytes(outputFile));
+        assertArrayEquals(Files.readAllBytes(expectedOutputFileAdvanced), Files.readAllBytes(outputFileAdvanced));
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.filter(file -> file.toString().endsWith(".bin") || file.toString().endsWith(".part")).count());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.OffHeapReleaseTable;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GzipReleaseTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testGzippedInputAndOutputMatchText() throws Exception {
+
+        // Several megabytes of text, so the input spans many decompressed chunks
+        Random random = new Random(23);
+        StringBuilder releases = new StringBuilder();
+        for (int i = 0; i < 600_000; i++) {
+            releases.append(1 + random.nextInt(5000)).append(' ').append(1 + random.nextInt(20)).append('\n');
+        }
+        Path text = directory.resolve("releases.txt");
+        Files.writeString(text, releases);
+        Path gzip = directory.resolve("releases.txt.gz");
+        gzip(text, gzip);
+
+        assertTrue(FileUtils.isGzipped(gzip.toString()));
+        assertFalse(FileUtils.isGzipped(text.toString()));
+
+        ReleaseTable expected = FileUtils.readReleaseTableFromFile(text.toString());
+        ReleaseTable fromGzip = FileUtils.readReleaseTableFromFile(gzip.toString(), 4);
+        assertEquals(expected.size(), fromGzip.size());
+        ReleaseTable schedule = Algorithm.releaseScheduleAdvancedExact(expected, 10);
+        assertEquals(schedule.toReleaseList(), Algorithm.releaseScheduleAdvancedExact(fromGzip, 10).toReleaseList());
+        try (OffHeapReleaseTable offHeapTable = FileUtils.readOffHeapReleaseTableFromFile(gzip.toString(), directory)) {
+            assertEquals(Algorithm.createOptimalTestingSchedule(FileUtils.readReleaseTableFromFile(text.toString()), 10).toReleaseList(),
+                    Algorithm.createOptimalTestingSchedule(offHeapTable, 10).toReleaseList());
+        }
+
+        // Gzipped output decompresses into the plain output
+        FileUtils.writeScheduleToFiles(schedule, directory.resolve("output.txt").toString(),
+                directory.resolve("output-advanced.txt").toString());
+        FileUtils.writeScheduleToFiles(schedule, directory.resolve("output.txt.gz").toString(),
+                directory.resolve("output-advanced.txt.gz").toString());
+        assertArrayEquals(Files.readAllBytes(directory.resolve("output.txt")), gunzip(directory.resolve("output.txt.gz")));
+        assertArrayEquals(Files.readAllBytes(directory.resolve("output-advanced.txt")),
+                gunzip(directory.resolve("output-advanced.txt.gz")));
+    }
+
+    @Test
+    public void testCorruptGzipIsRejected() throws Exception {
+
+        Path text = directory.resolve("releases.txt");
+        Files.writeString(text, "1 1\n2 1\n3 1\n".repeat(1000));
+        Path gzip = directory.resolve("releases.txt.gz");
+        gzip(text, gzip);
+
+        byte[] bytes = Files.readAllBytes(gzip);
+        Files.write(gzip, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> FileUtils.readReleaseTableFromFile(gzip.toString()));
+
+        // Parsing errors stop the decompression thread and are reported as usual
+        Files.writeString(text, "1 1\nx 1\n");
+        gzip(text, gzip);
+        assertThrows(NumberFormatException.class, () -> FileUtils.readReleaseTableFromFile(gzip.toString()));
+    }
+
+    private static void gzip(Path source, Path target) throws IOException {
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(target))) {
+            Files.copy(source, output);
+        }
+    }
+
+    private static byte[] gunzip(Path source) throws IOException {
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(source))) {
+            return input.readAllBytes();
+        }
+    }
+}
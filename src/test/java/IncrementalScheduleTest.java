@@ -0,0 +1,269 @@
+import com.github.akuiz.happyqa.ReleaseWatcher;
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.algorithm.IncrementalScheduler;
+import com.github.akuiz.happyqa.algorithm.ScheduleChange;
+import com.github.akuiz.happyqa.algorithm.Scheduler;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IncrementalScheduleTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testSameScheduleAsFullRecomputeAfterEveryInsert() {
+
+        Random random = new Random(41);
+        for (int attempt = 0; attempt < 100; attempt++) {
+            int sprintDuration = 1 + random.nextInt(40);
+            IncrementalScheduler scheduler = new IncrementalScheduler(sprintDuration);
+            ReleaseTable releaseTable = new ReleaseTable();
+
+            for (int ordinal = 0; ordinal < 100; ordinal++) {
+                int deliveryDay = 1 + random.nextInt(sprintDuration + 5);
+                int timeToTest = 1 + random.nextInt(8);
+                scheduler.insert(deliveryDay, timeToTest, ordinal);
+                releaseTable.add(deliveryDay, timeToTest);
+
+                assertSameSchedule(Algorithm.createOptimalTestingScheduleNonDestructive(releaseTable, sprintDuration),
+                        scheduler.getSchedule());
+            }
+        }
+    }
+
+    @Test
+    public void testSameScheduleAsFullRecomputeAfterRemoveAndUpdate() {
+
+        Random random = new Random(42);
+        for (int attempt = 0; attempt < 100; attempt++) {
+            int sprintDuration = 1 + random.nextInt(40);
+            IncrementalScheduler scheduler = new IncrementalScheduler(sprintDuration);
+            Map<Integer, int[]> releases = new TreeMap<>();
+
+            for (int operation = 0; operation < 200; operation++) {
+                int ordinal = random.nextInt(60);
+                int deliveryDay = 1 + random.nextInt(sprintDuration + 5);
+                int timeToTest = 1 + random.nextInt(8);
+                if (!releases.containsKey(ordinal)) {
+                    scheduler.insert(deliveryDay, timeToTest, ordinal);
+                    releases.put(ordinal, new int[]{deliveryDay, timeToTest});
+                } else if (random.nextBoolean()) {
+                    scheduler.remove(ordinal);
+                    releases.remove(ordinal);
+                } else {
+                    scheduler.update(ordinal, deliveryDay, timeToTest);
+                    releases.put(ordinal, new int[]{deliveryDay, timeToTest});
+                }
+
+                assertEquals(releases.size(), scheduler.size());
+                assertSameSchedule(fullRecompute(releases, sprintDuration), scheduler.getSchedule());
+            }
+        }
+    }
+
+    @Test
+    public void testWhatIfQueriesMatchAppliedChanges() {
+
+        Random random = new Random(43);
+        for (int attempt = 0; attempt < 100; attempt++) {
+            int sprintDuration = 1 + random.nextInt(40);
+            IncrementalScheduler scheduler = new IncrementalScheduler(sprintDuration);
+            Map<Integer, int[]> releases = new TreeMap<>();
+            for (int ordinal = 0; ordinal < 60; ordinal += 1 + random.nextInt(2)) {
+                int[] release = {1 + random.nextInt(sprintDuration + 5), 1 + random.nextInt(8)};
+                scheduler.insert(release[0], release[1], ordinal);
+                releases.put(ordinal, release);
+            }
+
+            for (int query = 0; query < 100; query++) {
+                int ordinal = random.nextInt(60);
+                int deliveryDay = 1 + random.nextInt(sprintDuration + 5);
+                int timeToTest = 1 + random.nextInt(8);
+                Map<Integer, int[]> changed = new TreeMap<>(releases);
+                ScheduleChange change;
+                if (!releases.containsKey(ordinal)) {
+                    change = scheduler.whatIfInserted(deliveryDay, timeToTest, ordinal);
+                    changed.put(ordinal, new int[]{deliveryDay, timeToTest});
+                } else if (random.nextBoolean()) {
+                    change = scheduler.whatIfRemoved(ordinal);
+                    changed.remove(ordinal);
+                } else {
+                    // Slips are the typical query
+                    int[] release = releases.get(ordinal);
+                    int slip = random.nextInt(4);
+                    change = scheduler.whatIfUpdated(ordinal, release[0] + slip, release[1]);
+                    changed.put(ordinal, new int[]{release[0] + slip, release[1]});
+                }
+
+                Set<String> before = rows(scheduler.getSchedule());
+                Set<String> after = rows(fullRecompute(changed, sprintDuration));
+                Set<String> added = new HashSet<>(after);
+                added.removeAll(before);
+                Set<String> dropped = new HashSet<>(before);
+                dropped.removeAll(after);
+
+                assertEquals(added, rows(change.getAdded()));
+                assertEquals(dropped, rows(change.getDropped()));
+                assertEquals(after.size(), change.getScheduleSize());
+                // The query does not change the scheduler
+                assertSameSchedule(fullRecompute(releases, sprintDuration), scheduler.getSchedule());
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownAndDuplicateReleasesAreRejected() {
+
+        IncrementalScheduler scheduler = new IncrementalScheduler(10);
+        scheduler.insert(1, 2, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> scheduler.insert(3, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.remove(1));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.whatIfUpdated(1, 2, 2));
+        assertTrue(scheduler.whatIfUpdated(0, 1, 2).isEmpty());
+    }
+
+    @Test
+    public void testAppendedLinesAreParsedOnce() throws IOException {
+
+        Path releases = Files.writeString(directory.resolve("releases.txt"), "1 1\n2 1\n3 1\n9 1\n10 4\n");
+        Path output = directory.resolve("output.txt");
+        Path outputAdvanced = directory.resolve("output-advanced.txt");
+        ReleaseWatcher watcher = new ReleaseWatcher(releases, output, outputAdvanced,
+                new Scheduler(Scheduler.Type.BASIC, 10, 1, false, true));
+
+        assertEquals(5, watcher.update());
+        assertEquals(List.of("4", "1 1", "2 2", "3 3", "9 9"), Files.readAllLines(output));
+
+        // The last line is incomplete, it waits for its line break
+        Files.writeString(releases, "10 2\n9 5\n10 3\n4", StandardOpenOption.APPEND);
+        assertEquals(3, watcher.update());
+        Files.writeString(releases, " 5\n", StandardOpenOption.APPEND);
+        assertEquals(1, watcher.update());
+        assertEquals(0, watcher.update());
+
+        assertEquals(List.of("5", "1 1", "2 2", "3 3", "4 8", "9 9"), Files.readAllLines(output));
+        assertEquals("Release I {startTestingDay=4, endTestingDay=8, deliveryDay=4, timeToTest=5}",
+                Files.readAllLines(outputAdvanced).get(4));
+    }
+
+    @Test
+    public void testNonIncrementalSettingsRescheduleParsedReleases() throws IOException {
+
+        Path releases = Files.writeString(directory.resolve("releases.txt"), "1 1\n2 5\n");
+        Path output = directory.resolve("output.txt");
+        ReleaseWatcher watcher = new ReleaseWatcher(releases, output, directory.resolve("output-advanced.txt"),
+                new Scheduler(Scheduler.Type.ADVANCED, 6, 1, false, true));
+
+        watcher.update();
+        Files.writeString(releases, "1 1\n1 1\n", StandardOpenOption.APPEND);
+        watcher.update();
+
+        ReleaseTable releaseTable = new ReleaseTable();
+        int[][] days = {{1, 1}, {2, 5}, {1, 1}, {1, 1}};
+        for (int[] release : days) {
+            releaseTable.add(release[0], release[1]);
+        }
+        assertEquals(Algorithm.releaseScheduleAdvancedExact(releaseTable, 6).size() + 1, Files.readAllLines(output).size());
+    }
+
+    @Test
+    public void testTruncatedFileIsParsedAgain() throws IOException {
+
+        Path releases = Files.writeString(directory.resolve("releases.txt"), "1 1\n2 1\n3 1\n");
+        Path output = directory.resolve("output.txt");
+        ReleaseWatcher watcher = new ReleaseWatcher(releases, output, directory.resolve("output-advanced.txt"),
+                new Scheduler(Scheduler.Type.BASIC, 10, 1, false, true));
+
+        watcher.update();
+        Files.writeString(releases, "5 2\n");
+        assertEquals(1, watcher.update());
+        assertEquals(List.of("1", "5 6"), Files.readAllLines(output));
+    }
+
+    @Test
+    public void testInvalidAppendedLineIsSkipped() throws IOException {
+
+        Path releases = Files.writeString(directory.resolve("releases.txt"), "1 1\n");
+        Path output = directory.resolve("output.txt");
+        Path outputAdvanced = directory.resolve("output-advanced.txt");
+        ReleaseWatcher watcher = new ReleaseWatcher(releases, output, outputAdvanced,
+                new Scheduler(Scheduler.Type.BASIC, 10, 1, false, true));
+        watcher.update();
+
+        // A typo in the middle of the appended lines, then a good line in a later append
+        Files.writeString(releases, "2 1\n3 x1\n4 1 2 3\n", StandardOpenOption.APPEND);
+        assertEquals(1, watcher.update());
+        assertEquals(2, watcher.getSkippedLines());
+        Files.writeString(releases, "5 1\n", StandardOpenOption.APPEND);
+        assertEquals(1, watcher.update());
+
+        assertEquals(List.of("3", "1 1", "2 2", "5 5"), Files.readAllLines(output));
+        // Invalid lines don't take a release ID
+        assertEquals("Release C {startTestingDay=5, endTestingDay=5, deliveryDay=5, timeToTest=1}",
+                Files.readAllLines(outputAdvanced).get(3));
+    }
+
+    @Test
+    public void testGzippedOutputsStayGzipped() throws IOException {
+
+        Path releases = Files.writeString(directory.resolve("releases.txt"), "1 2\n4 1\n");
+        Path output = directory.resolve("output.txt.gz");
+        ReleaseWatcher watcher = new ReleaseWatcher(releases, output, directory.resolve("output-advanced.txt"),
+                new Scheduler(Scheduler.Type.BASIC, 10, 1, false, true));
+
+        watcher.update();
+        assertTrue(FileUtils.isGzipped(output.toString()));
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(output))) {
+            assertEquals("2\n1 2\n4 4\n", new String(input.readAllBytes()).replace(System.lineSeparator(), "\n"));
+        }
+        assertFalse(FileUtils.isGzipped(directory.resolve("output-advanced.txt").toString()));
+    }
+
+    private static ReleaseTable fullRecompute(Map<Integer, int[]> releases, int sprintDuration) {
+        ReleaseTable releaseTable = new ReleaseTable();
+        for (Map.Entry<Integer, int[]> release : releases.entrySet()) {
+            int[] days = release.getValue();
+            releaseTable.add(days[0], days[0], days[1], release.getKey());
+        }
+        return Algorithm.createOptimalTestingSchedule(releaseTable, sprintDuration);
+    }
+
+    private static Set<String> rows(ReleaseTable schedule) {
+        Set<String> rows = new HashSet<>();
+        for (int row = 0; row < schedule.size(); row++) {
+            rows.add(schedule.getOrdinal(row) + ":" + schedule.getStartTestingDay(row) + "-" + schedule.getEndTestingDay(row));
+        }
+        return rows;
+    }
+
+    private static void assertSameSchedule(ReleaseTable expected, ReleaseTable actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.getOrdinal(row), actual.getOrdinal(row));
+            assertEquals(expected.getStartTestingDay(row), actual.getStartTestingDay(row));
+            assertEquals(expected.getEndTestingDay(row), actual.getEndTestingDay(row));
+        }
+    }
+}
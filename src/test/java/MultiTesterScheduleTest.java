@@ -0,0 +1,165 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MultiTesterScheduleTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testDescriptionExampleWithTwoTesters() throws IOException {
+
+        ReleaseTable schedule = Algorithm.createOptimalTestingSchedule(descriptionExample(), 12, 2);
+
+        // A single tester takes 6 releases, the second one takes release H overlapping with F
+        assertEquals(6, Algorithm.createOptimalTestingSchedule(descriptionExample(), 12).size());
+        assertEquals(7, schedule.size());
+        assertFeasible(schedule, 12, 2, false);
+
+        Path outputFile = directory.resolve("output.txt");
+        Path outputFileAdvanced = directory.resolve("output-advanced.txt");
+        FileUtils.writeScheduleToFiles(schedule, outputFile.toString(), outputFileAdvanced.toString());
+
+        List<String> lines = Files.readAllLines(outputFile);
+        assertEquals("7", lines.get(0));
+        assertEquals("1 1 1", lines.get(1));
+        assertEquals("10 12 2", lines.get(7));
+        List<String> detailedLines = Files.readAllLines(outputFileAdvanced);
+        assertEquals("Release A {startTestingDay=1, endTestingDay=1, deliveryDay=1, timeToTest=1, tester=1}", detailedLines.get(1));
+    }
+
+    @Test
+    public void testSingleTesterMatchesSingleTesterAlgorithms() {
+
+        ReleaseTable basic = Algorithm.createOptimalTestingSchedule(descriptionExample(), 10, 1);
+        ReleaseTable advanced = Algorithm.releaseScheduleAdvanced(descriptionExample(), 10, 1);
+
+        assertEquals(Algorithm.createOptimalTestingSchedule(descriptionExample(), 10).toReleaseList(), basic.toReleaseList());
+        assertEquals(Algorithm.releaseScheduleAdvanced(descriptionExample(), 10).toReleaseList(), advanced.toReleaseList());
+        assertFalse(basic.hasTesters());
+        assertFalse(advanced.hasTesters());
+
+        assertThrows(IllegalArgumentException.class, () -> Algorithm.createOptimalTestingSchedule(descriptionExample(), 10, 0));
+    }
+
+    @Test
+    public void testBasicScheduleIsOptimal() {
+
+        Random random = new Random(21);
+        for (int attempt = 0; attempt < 300; attempt++) {
+            int sprintDuration = 1 + random.nextInt(15);
+            int testers = 2 + random.nextInt(3);
+            ReleaseTable releaseTable = randomReleases(random, random.nextInt(12), sprintDuration);
+
+            ReleaseTable schedule = Algorithm.createOptimalTestingSchedule(releaseTable.copy(), sprintDuration, testers);
+
+            assertFeasible(schedule, sprintDuration, testers, false);
+            assertEquals(bruteForceMaxBasic(releaseTable, sprintDuration, testers), schedule.size());
+        }
+    }
+
+    @Test
+    public void testAdvancedScheduleIsFeasibleAndUsesTesters() {
+
+        Random random = new Random(22);
+        for (int attempt = 0; attempt < 300; attempt++) {
+            int sprintDuration = 1 + random.nextInt(30);
+            int testers = 2 + random.nextInt(3);
+            ReleaseTable releaseTable = randomReleases(random, random.nextInt(60), sprintDuration);
+
+            ReleaseTable schedule = Algorithm.releaseScheduleAdvanced(releaseTable.copy(), sprintDuration, testers);
+            ReleaseTable singleTesterSchedule = Algorithm.releaseScheduleAdvanced(releaseTable.copy(), sprintDuration);
+
+            assertFeasible(schedule, sprintDuration, testers, true);
+            assertTrue(schedule.size() >= singleTesterSchedule.size());
+        }
+    }
+
+    private static ReleaseTable descriptionExample() {
+        ReleaseTable releaseTable = new ReleaseTable();
+        int[][] releases = {{1, 1}, {2, 1}, {3, 1}, {9, 1}, {10, 4}, {10, 2}, {9, 5}, {10, 3}, {4, 5}};
+        for (int[] release : releases) {
+            releaseTable.add(release[0], release[1]);
+        }
+        return releaseTable;
+    }
+
+    private static ReleaseTable randomReleases(Random random, int size, int sprintDuration) {
+        ReleaseTable releaseTable = new ReleaseTable();
+        for (int i = 0; i < size; i++) {
+            releaseTable.add(1 + random.nextInt(sprintDuration), 1 + random.nextInt(5));
+        }
+        return releaseTable;
+    }
+
+    /**
+     * Every release fits the sprint, starts not earlier than delivered and testers never test two releases at once
+     */
+    private static void assertFeasible(ReleaseTable schedule, int sprintDuration, int testers, boolean postponable) {
+        List<List<int[]>> testingDays = new ArrayList<>();
+        for (int tester = 0; tester < testers; tester++) {
+            testingDays.add(new ArrayList<>());
+        }
+        for (int row = 0; row < schedule.size(); row++) {
+            int tester = schedule.getTester(row);
+            assertTrue(tester >= 1 && tester <= testers);
+            assertTrue(schedule.getEndTestingDay(row) <= sprintDuration);
+            if (postponable) {
+                assertTrue(schedule.getStartTestingDay(row) >= schedule.getDeliveryDay(row));
+            } else {
+                assertEquals(schedule.getDeliveryDay(row), schedule.getStartTestingDay(row));
+            }
+            testingDays.get(tester - 1).add(new int[]{schedule.getStartTestingDay(row), schedule.getEndTestingDay(row)});
+        }
+        for (List<int[]> days : testingDays) {
+            days.sort((a, b) -> Integer.compare(a[0], b[0]));
+            for (int i = 1; i < days.size(); i++) {
+                assertTrue(days.get(i)[0] > days.get(i - 1)[1]);
+            }
+        }
+    }
+
+    /**
+     * Releases can be split between testers if and only if no day is covered by more releases than testers
+     */
+    private static int bruteForceMaxBasic(ReleaseTable releaseTable, int sprintDuration, int testers) {
+        int best = 0;
+        for (int subset = 0; subset < 1 << releaseTable.size(); subset++) {
+            int[] load = new int[sprintDuration + 2];
+            boolean feasible = true;
+            for (int row = 0; row < releaseTable.size() && feasible; row++) {
+                if ((subset & 1 << row) == 0) {
+                    continue;
+                }
+                if (releaseTable.getEndTestingDay(row) > sprintDuration) {
+                    feasible = false;
+                    break;
+                }
+                for (int day = releaseTable.getStartTestingDay(row); day <= releaseTable.getEndTestingDay(row); day++) {
+                    if (++load[day] > testers) {
+                        feasible = false;
+                    }
+                }
+            }
+            if (feasible) {
+                best = Math.max(best, Integer.bitCount(subset));
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,83 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.Release;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class NonDestructiveScheduleTest {
+
+    @Test
+    public void testDescriptionExampleLeavesInputUntouched() {
+
+        List<Release> inputReleases = new ArrayList<>(Arrays.asList(
+                new Release(1, 1),
+                new Release(2, 1),
+                new Release(3, 1),
+                new Release(9, 1),
+                new Release(10, 4),
+                new Release(10, 2),
+                new Release(9, 5),
+                new Release(10, 3),
+                new Release(4, 5)
+        ));
+        List<Release> initialReleases = new ArrayList<>(inputReleases);
+
+        List<Release> expectedBasic = new ArrayList<>(Arrays.asList(
+                new Release(1, 1),
+                new Release(2, 1),
+                new Release(3, 1),
+                new Release(4, 5),
+                new Release(9, 1)
+        ));
+        List<Release> expectedAdvanced = new ArrayList<>(Arrays.asList(
+                new Release(1, 2, 1),
+                new Release(2, 3, 1),
+                new Release(3, 4, 1),
+                new Release(4, 5, 5),
+                new Release(9, 10, 1)
+        ));
+
+        assertEquals(expectedBasic, Algorithm.createOptimalTestingScheduleNonDestructive(inputReleases, 10));
+        assertEquals(expectedAdvanced, Algorithm.releaseScheduleAdvancedNonDestructive(inputReleases, 10));
+        assertEquals(initialReleases, inputReleases);
+    }
+
+    @Test
+    public void testManySprintDurationsOnOneInput() {
+
+        Random random = new Random(11);
+        List<Release> releases = new LinkedList<>();
+        ReleaseTable releaseTable = new ReleaseTable();
+        for (int i = 0; i < 500; i++) {
+            int deliveryDay = 1 + random.nextInt(30);
+            int timeToTest = 1 + random.nextInt(8);
+            Release release = new Release(deliveryDay, timeToTest);
+            release.setId(FileUtils.generateId(i));
+            releases.add(release);
+            releaseTable.add(deliveryDay, timeToTest);
+        }
+        List<Release> initialReleases = new ArrayList<>(releases);
+        List<Release> initialTableReleases = releaseTable.toReleaseList();
+
+        for (int sprintDuration = 1; sprintDuration <= 40; sprintDuration++) {
+            List<Release> expectedBasic = Algorithm.createOptimalTestingSchedule(new ArrayList<>(releases), sprintDuration);
+            List<Release> expectedAdvanced = Algorithm.releaseScheduleAdvanced(new ArrayList<>(releases), sprintDuration);
+
+            assertEquals(expectedBasic, Algorithm.createOptimalTestingScheduleNonDestructive(releases, sprintDuration));
+            assertEquals(expectedAdvanced, Algorithm.releaseScheduleAdvancedNonDestructive(releases, sprintDuration));
+            assertEquals(expectedBasic, Algorithm.createOptimalTestingScheduleNonDestructive(releaseTable, sprintDuration).toReleaseList());
+            assertEquals(expectedAdvanced, Algorithm.releaseScheduleAdvancedNonDestructive(releaseTable, sprintDuration).toReleaseList());
+        }
+
+        assertEquals(initialReleases, releases);
+        assertEquals(initialTableReleases, releaseTable.toReleaseList());
+    }
+}
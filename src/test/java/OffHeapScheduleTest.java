@@ -0,0 +1,111 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.OffHeapReleaseTable;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OffHeapScheduleTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testDescriptionExampleFromFile() throws Exception {
+
+        Path releases = directory.resolve("releases.txt");
+        Files.writeString(releases, "1 1\n2 1\n3 1\n9 1\n10 4\n10 2\n9 5\n10 3\n4 5\n");
+
+        try (OffHeapReleaseTable releaseTable = FileUtils.readOffHeapReleaseTableFromFile(releases.toString(), directory)) {
+            assertEquals(9, releaseTable.size());
+            ReleaseTable expected = FileUtils.readReleaseTableFromFile(releases.toString());
+
+            assertEquals(Algorithm.createOptimalTestingSchedule(expected.copy(), 10).toReleaseList(),
+                    Algorithm.createOptimalTestingSchedule(releaseTable, 10).toReleaseList());
+            assertEquals(Algorithm.releaseScheduleAdvanced(expected.copy(), 10).toReleaseList(),
+                    Algorithm.releaseScheduleAdvanced(releaseTable, 10).toReleaseList());
+            assertEquals(Algorithm.releaseScheduleAdvancedExact(expected.copy(), 10).toReleaseList(),
+                    Algorithm.releaseScheduleAdvancedExact(releaseTable, 10).toReleaseList());
+        }
+        // Only the input is left, scratch files are deleted
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testRandomReleasesAcrossSegments() throws Exception {
+
+        Random random = new Random(21);
+        ReleaseTable releaseTable = new ReleaseTable();
+        // Segments of 1024 ints split records of 5 ints between segments
+        try (OffHeapReleaseTable offHeapTable = new OffHeapReleaseTable(directory, 10)) {
+            for (int i = 0; i < 5000; i++) {
+                int deliveryDay = 1 + random.nextInt(60);
+                int timeToTest = 1 + random.nextInt(8);
+                releaseTable.add(deliveryDay, timeToTest);
+                offHeapTable.add(deliveryDay, deliveryDay, timeToTest, i);
+            }
+            assertEquals(releaseTable.size(), offHeapTable.size());
+
+            for (int sprintDuration : new int[]{0, 5, 40, 70}) {
+                assertEquals(Algorithm.createOptimalTestingSchedule(releaseTable.copy(), sprintDuration).toReleaseList(),
+                        Algorithm.createOptimalTestingSchedule(offHeapTable, sprintDuration).toReleaseList());
+                assertEquals(Algorithm.releaseScheduleAdvanced(releaseTable.copy(), sprintDuration).toReleaseList(),
+                        Algorithm.releaseScheduleAdvanced(offHeapTable, sprintDuration).toReleaseList());
+                assertEquals(Algorithm.releaseScheduleAdvancedExact(releaseTable.copy(), sprintDuration).toReleaseList(),
+                        Algorithm.releaseScheduleAdvancedExact(offHeapTable, sprintDuration).toReleaseList());
+            }
+        }
+    }
+
+    @Test
+    public void testDaysSpreadOverMillionsOfDays() throws Exception {
+
+        // Counts of a single pass over 16M days would take 64 MB of heap, the range is sorted in two passes instead
+        ReleaseTable releaseTable = new ReleaseTable();
+        releaseTable.add(-16_000_000, 1);
+        releaseTable.add(1, 1);
+        releaseTable.add(-8_000_000, 9_000_000);
+        try (OffHeapReleaseTable offHeapTable = new OffHeapReleaseTable(directory, 10)) {
+            for (int row = 0; row < releaseTable.size(); row++) {
+                offHeapTable.add(releaseTable.getDeliveryDay(row), releaseTable.getDeliveryDay(row), releaseTable.getTimeToTest(row), row);
+            }
+            assertEquals(Algorithm.createOptimalTestingSchedule(releaseTable.copy(), 10).toReleaseList(),
+                    Algorithm.createOptimalTestingSchedule(offHeapTable, 10).toReleaseList());
+            assertEquals(Algorithm.releaseScheduleAdvanced(releaseTable.copy(), 10).toReleaseList(),
+                    Algorithm.releaseScheduleAdvanced(offHeapTable, 10).toReleaseList());
+        }
+    }
+
+    @Test
+    public void testDaysSpreadWiderThanCountingSortRange() throws Exception {
+
+        Random random = new Random(7);
+        ReleaseTable releaseTable = new ReleaseTable();
+        // Delivery days far in the past make the day range wider than a single counting sort takes
+        try (OffHeapReleaseTable offHeapTable = new OffHeapReleaseTable(directory, 10)) {
+            for (int i = 0; i < 3000; i++) {
+                int deliveryDay = random.nextInt(4) == 0 ? Integer.MIN_VALUE / 2 + random.nextInt(1 << 20) : 1 + random.nextInt(40);
+                int timeToTest = 1 + random.nextInt(random.nextInt(8) == 0 ? Integer.MAX_VALUE / 2 : 8);
+                releaseTable.add(deliveryDay, timeToTest);
+                offHeapTable.add(deliveryDay, deliveryDay, timeToTest, i);
+            }
+
+            for (int sprintDuration : new int[]{10, 40}) {
+                assertEquals(Algorithm.createOptimalTestingSchedule(releaseTable.copy(), sprintDuration).toReleaseList(),
+                        Algorithm.createOptimalTestingSchedule(offHeapTable, sprintDuration).toReleaseList());
+                assertEquals(Algorithm.releaseScheduleAdvanced(releaseTable.copy(), sprintDuration).toReleaseList(),
+                        Algorithm.releaseScheduleAdvanced(offHeapTable, sprintDuration).toReleaseList());
+                assertEquals(Algorithm.releaseScheduleAdvancedExact(releaseTable.copy(), sprintDuration).toReleaseList(),
+                        Algorithm.releaseScheduleAdvancedExact(offHeapTable, sprintDuration).toReleaseList());
+            }
+        }
+    }
+}
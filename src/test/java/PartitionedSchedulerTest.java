@@ -0,0 +1,107 @@
+import com.github.akuiz.happyqa.PartitionedScheduler;
+import com.github.akuiz.happyqa.algorithm.Scheduler;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PartitionedSchedulerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testSectionsMatchSeparateFiles() throws Exception {
+
+        // Lines of the teams are interleaved, keys are not in order
+        List<String> teams = List.of("web", "backend", "mobile-ios", "data");
+        Random random = new Random(25);
+        StringBuilder partitioned = new StringBuilder();
+        StringBuilder[] separate = new StringBuilder[teams.size()];
+        for (int i = 0; i < separate.length; i++) {
+            separate[i] = new StringBuilder();
+        }
+        for (int i = 0; i < 20_000; i++) {
+            int team = random.nextInt(teams.size());
+            String release = (1 + random.nextInt(40)) + " " + (1 + random.nextInt(6));
+            partitioned.append(teams.get(team)).append(' ').append(release).append('\n');
+            separate[team].append(release).append('\n');
+        }
+        Path releases = directory.resolve("releases.txt");
+        Files.writeString(releases, partitioned);
+
+        for (Scheduler.Type type : Scheduler.Type.values()) {
+            Scheduler scheduler = new Scheduler(type, 30, 1, false, true);
+            assertEquals(4, new PartitionedScheduler(scheduler, 3).schedule(releases,
+                    directory.resolve("output.txt"), directory.resolve("output-advanced.txt")));
+
+            // Sections are sorted by key and each is the output of a file with the lines of its team
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            ByteArrayOutputStream expectedAdvanced = new ByteArrayOutputStream();
+            for (String team : new String[]{"backend", "data", "mobile-ios", "web"}) {
+                Path teamReleases = directory.resolve(team + ".txt");
+                Files.writeString(teamReleases, separate[teams.indexOf(team)]);
+                ReleaseTable schedule = scheduler.schedule(FileUtils.readReleaseTableFromFile(teamReleases.toString()));
+                FileUtils.writeScheduleToFiles(schedule, directory.resolve("team.txt").toString(),
+                        directory.resolve("team-advanced.txt").toString());
+                byte[] header = ("[" + team + "]" + System.lineSeparator()).getBytes();
+                expected.write(header);
+                expected.write(Files.readAllBytes(directory.resolve("team.txt")));
+                expectedAdvanced.write(header);
+                expectedAdvanced.write(Files.readAllBytes(directory.resolve("team-advanced.txt")));
+            }
+            assertArrayEquals(expected.toByteArray(), Files.readAllBytes(directory.resolve("output.txt")));
+            assertArrayEquals(expectedAdvanced.toByteArray(), Files.readAllBytes(directory.resolve("output-advanced.txt")));
+        }
+    }
+
+    @Test
+    public void testFileWithoutKeysIsScheduledAsUsual() throws Exception {
+
+        Path releases = directory.resolve("releases.txt");
+        Files.writeString(releases, "1 1\n2 1\n3 1\n9 1\n10 4\n10 2\n9 5\n10 3\n4 5\n");
+        Scheduler scheduler = new Scheduler(Scheduler.Type.BASIC, 10, 1, false, true);
+
+        assertEquals(1, new PartitionedScheduler(scheduler, 2).schedule(releases,
+                directory.resolve("output.txt"), directory.resolve("output-advanced.txt")));
+        FileUtils.writeScheduleToFiles(scheduler.schedule(FileUtils.readReleaseTableFromFile(releases.toString())),
+                directory.resolve("expected.txt").toString(), directory.resolve("expected-advanced.txt").toString());
+        assertArrayEquals(Files.readAllBytes(directory.resolve("expected.txt")), Files.readAllBytes(directory.resolve("output.txt")));
+        assertArrayEquals(Files.readAllBytes(directory.resolve("expected-advanced.txt")),
+                Files.readAllBytes(directory.resolve("output-advanced.txt")));
+    }
+
+    @Test
+    public void testPartitionKeys() throws Exception {
+
+        Path releases = directory.resolve("releases.txt");
+        Files.writeString(releases, "qa 1 1\r\n\n2 3\nqa\t4 2 7\nops -1 3");
+        SortedMap<String, ReleaseTable> partitions = FileUtils.readPartitionedReleaseTablesFromFile(releases.toString());
+        assertEquals(List.of("", "ops", "qa"), List.copyOf(partitions.keySet()));
+        assertEquals(2, partitions.get("qa").size());
+        assertEquals(1, partitions.get("qa").getOrdinal(1));
+        assertEquals(7, partitions.get("qa").getWeight(1));
+        assertEquals(-1, partitions.get("ops").getDeliveryDay(0));
+
+        Files.writeString(releases, "qa 1 1\nqa\n");
+        assertThrows(NumberFormatException.class, () -> FileUtils.readPartitionedReleaseTablesFromFile(releases.toString()));
+        Files.writeString(releases, "qa ops 1 1\n");
+        assertThrows(NumberFormatException.class, () -> FileUtils.readPartitionedReleaseTablesFromFile(releases.toString()));
+
+        // Errors of the releases after a key are reported at the line of the input file
+        Files.writeString(releases, "qa 1 1\n\nops 2 x\n");
+        assertEquals("Invalid release at line 3: unexpected character 'x'", assertThrows(NumberFormatException.class,
+                () -> FileUtils.readPartitionedReleaseTablesFromFile(releases.toString())).getMessage());
+    }
+}
@@ -0,0 +1,88 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.algorithm.PipelineScheduler;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PipelineSchedulerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testDescriptionExample() throws Exception {
+
+        Path releases = directory.resolve("releases.txt");
+        Files.writeString(releases, "1 1\n2 1\n3 1\n9 1\n10 4\n10 2\n9 5\n10 3\n4 5\n");
+
+        assertEquals(5, new PipelineScheduler(1).schedule(releases, 10,
+                directory.resolve("output.txt"), directory.resolve("output-advanced.txt")));
+        assertSameOutput(releases, 10);
+    }
+
+    @Test
+    public void testRandomReleasesWithManyTies() throws Exception {
+
+        // Several input blocks with many releases ending on the same day
+        Random random = new Random(24);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            text.append(random.nextInt(120) - 10).append(' ').append(1 + random.nextInt(12)).append('\n');
+        }
+        Path releases = directory.resolve("releases.txt");
+        Files.writeString(releases, text);
+
+        for (int sprintDuration : new int[]{0, 7, 60, 200}) {
+            new PipelineScheduler(2).schedule(releases, sprintDuration,
+                    directory.resolve("output.txt"), directory.resolve("output-advanced.txt"));
+            assertSameOutput(releases, sprintDuration);
+        }
+    }
+
+    @Test
+    public void testDaysFarBeforeTheSprint() throws Exception {
+
+        // Only days that occur are kept, a delivery day far in the past doesn't take memory for the days in between
+        Random random = new Random(7);
+        StringBuilder text = new StringBuilder("-500000000 1\n1 1\n");
+        for (int i = 0; i < 3000; i++) {
+            int deliveryDay = random.nextInt(4) == 0 ? Integer.MIN_VALUE / 2 + random.nextInt(1 << 20) : 1 + random.nextInt(40);
+            text.append(deliveryDay).append(' ').append(1 + random.nextInt(8)).append('\n');
+        }
+        Path releases = directory.resolve("releases.txt");
+        Files.writeString(releases, text);
+
+        for (int sprintDuration : new int[]{10, 40}) {
+            new PipelineScheduler(2).schedule(releases, sprintDuration,
+                    directory.resolve("output.txt"), directory.resolve("output-advanced.txt"));
+            assertSameOutput(releases, sprintDuration);
+        }
+    }
+
+    @Test
+    public void testInvalidInputFailsThePipeline() throws Exception {
+
+        Path releases = directory.resolve("releases.txt");
+        Files.writeString(releases, "1 1\n2 x\n");
+
+        assertThrows(NumberFormatException.class, () -> new PipelineScheduler(1).schedule(releases, 10,
+                directory.resolve("output.txt"), directory.resolve("output-advanced.txt")));
+    }
+
+    private void assertSameOutput(Path releases, int sprintDuration) throws Exception {
+        FileUtils.writeScheduleToFiles(
+                Algorithm.createOptimalTestingSchedule(FileUtils.readReleaseTableFromFile(releases.toString()), sprintDuration),
+                directory.resolve("expected.txt").toString(), directory.resolve("expected-advanced.txt").toString());
+        assertArrayEquals(Files.readAllBytes(directory.resolve("expected.txt")), Files.readAllBytes(directory.resolve("output.txt")));
+        assertArrayEquals(Files.readAllBytes(directory.resolve("expected-advanced.txt")),
+                Files.readAllBytes(directory.resolve("output-advanced.txt")));
+    }
+}
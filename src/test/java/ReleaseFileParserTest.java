@@ -0,0 +1,161 @@
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.fileUtils.ParallelReleaseReader;
+import com.github.akuiz.happyqa.fileUtils.ReleaseDecoder;
+import com.github.akuiz.happyqa.release.Release;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReleaseFileParserTest {
+
+    private static final String DESCRIPTION_EXAMPLE = "1 1\n2 1\n3 1\n9 1\n10 4\n10 2\n9 5\n10 3\n4 5 ";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testDescriptionExampleMatchesLineReader() throws IOException {
+
+        Path releasesFile = write(DESCRIPTION_EXAMPLE);
+
+        List<Release> expectedOutput = FileUtils.readReleaseDetailsFromFile(releasesFile.toString());
+        List<Release> actualOutput = FileUtils.readReleaseTableFromFile(releasesFile.toString()).toReleaseList();
+
+        assertEquals(expectedOutput, actualOutput);
+        assertEquals(ids(expectedOutput), ids(actualOutput));
+    }
+
+    @Test
+    public void testCrlfTrailingSpacesAndEmptyLines() throws IOException {
+
+        Path releasesFile = write("1 1 \r\n\r\n 2  3\t\r\n10 4\r\n\n");
+
+        ReleaseTable releaseTable = FileUtils.readReleaseTableFromFile(releasesFile.toString());
+
+        List<Release> expectedOutput = new ArrayList<>(Arrays.asList(
+                new Release(1, 1),
+                new Release(2, 3),
+                new Release(10, 4)
+        ));
+
+        assertEquals(expectedOutput, releaseTable.toReleaseList());
+        assertEquals(Arrays.asList("A", "B", "C"), ids(releaseTable.toReleaseList()));
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+
+        Path releasesFile = write("");
+
+        assertEquals(0, FileUtils.readReleaseTableFromFile(releasesFile.toString()).size());
+    }
+
+    @Test
+    public void testLinesSplitBetweenBuffers() {
+
+        byte[] input = DESCRIPTION_EXAMPLE.getBytes(StandardCharsets.US_ASCII);
+        ReleaseTable releaseTable = new ReleaseTable();
+        ReleaseDecoder decoder = new ReleaseDecoder(releaseTable);
+
+        // Feed the input byte by byte, so that every number gets split
+        for (byte b : input) {
+            decoder.decode(ByteBuffer.wrap(new byte[]{b}));
+        }
+        decoder.finish();
+
+        assertEquals(9, releaseTable.size());
+        assertEquals(new Release(4, 5), releaseTable.toRelease(8));
+        assertEquals(new Release(10, 4), releaseTable.toRelease(4));
+    }
+
+    @Test
+    public void testInvalidLines() throws IOException {
+
+        Path missingTimeToTest = write("1 1\n2\n");
+        Path letters = write("1 1\n2 x\n");
+
+        assertThrows(NumberFormatException.class, () -> FileUtils.readReleaseTableFromFile(missingTimeToTest.toString()));
+        assertThrows(NumberFormatException.class, () -> FileUtils.readReleaseTableFromFile(letters.toString()));
+    }
+
+    @Test
+    public void testOptionalWeight() throws IOException {
+
+        Path releasesFile = write("1 1\n2 1 5\n3 1\n");
+        Path tooManyNumbers = write("1 1 2 3\n");
+
+        ReleaseTable releaseTable = FileUtils.readReleaseTableFromFile(releasesFile.toString());
+        assertEquals(1, releaseTable.getWeight(0));
+        assertEquals(5, releaseTable.getWeight(1));
+        assertEquals(1, releaseTable.getWeight(2));
+
+        // Weight given in the middle chunk only
+        ReleaseTable parallelTable = new ParallelReleaseReader(3, 1).read(releasesFile);
+        assertEquals(1, parallelTable.getWeight(0));
+        assertEquals(5, parallelTable.getWeight(1));
+        assertEquals(1, parallelTable.getWeight(2));
+
+        assertThrows(NumberFormatException.class, () -> FileUtils.readReleaseTableFromFile(tooManyNumbers.toString()));
+    }
+
+    @Test
+    public void testParallelReadMatchesSequentialRead() throws IOException {
+
+        Random random = new Random(7);
+        StringBuilder content = new StringBuilder();
+        for (int line = 0; line < 5000; line++) {
+            content.append(1 + random.nextInt(30)).append(' ').append(1 + random.nextInt(10));
+            content.append(random.nextInt(4) == 0 ? " \r\n" : "\n");
+            if (random.nextInt(50) == 0) {
+                content.append('\n');
+            }
+        }
+        content.append("7 3");
+        Path releasesFile = write(content.toString());
+
+        List<Release> expectedOutput = FileUtils.readReleaseTableFromFile(releasesFile.toString()).toReleaseList();
+
+        for (int chunkSize : new int[]{1, 7, 100, 4096}) {
+            List<Release> actualOutput = new ParallelReleaseReader(4, chunkSize).read(releasesFile).toReleaseList();
+            assertEquals(expectedOutput, actualOutput);
+            assertEquals(ids(expectedOutput), ids(actualOutput));
+        }
+    }
+
+    @Test
+    public void testParallelReadReportsInvalidLine() throws IOException {
+
+        Path releasesFile = write("1 1\n2 2\n3 3\n4\n5 5\n");
+
+        NumberFormatException error = assertThrows(NumberFormatException.class,
+                () -> new ParallelReleaseReader(4, 1).read(releasesFile));
+        assertEquals("Invalid release at line 4: time to test is missing", error.getMessage());
+    }
+
+    private Path write(String content) throws IOException {
+        Path releasesFile = Files.createTempFile(directory, "releases", ".txt");
+        Files.write(releasesFile, content.getBytes(StandardCharsets.US_ASCII));
+        return releasesFile;
+    }
+
+    private static List<String> ids(List<Release> releaseList) {
+        List<String> ids = new ArrayList<>();
+        for (Release release : releaseList) {
+            ids.add(release.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,95 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.release.Release;
+import com.github.akuiz.happyqa.release.ReleaseId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReleaseIdTest {
+
+    @Test
+    public void testIdsMatchLabelAlgorithm() {
+
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        int[] ordinals = {0, 25, 26, 701, 702, 18277, 18278, 475253, 475254, Integer.MAX_VALUE};
+        for (int ordinal : ordinals) {
+            assertIdOfOrdinal(buffer, ordinal);
+        }
+        for (int ordinal = 0; ordinal < 20_000; ordinal++) {
+            assertIdOfOrdinal(buffer, ordinal);
+        }
+
+        assertEquals("A", ReleaseId.toId(0));
+        assertEquals("ZZ", ReleaseId.toId(701));
+        assertEquals("AAA", ReleaseId.toId(702));
+        assertEquals("FXSHRXX", ReleaseId.toId(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testReleaseIdIsDerivedFromOrdinal() {
+
+        Release release = new Release(1, 2);
+        assertNull(release.getId());
+        assertEquals("Release null {startTestingDay=1, endTestingDay=2, deliveryDay=1, timeToTest=2}", release.toString(true));
+
+        release.setOrdinal(27);
+        assertEquals("AB", release.getId());
+
+        release.setId("ZZ");
+        assertEquals(701, release.getOrdinal());
+        assertEquals("Release ZZ {startTestingDay=1, endTestingDay=2, deliveryDay=1, timeToTest=2}", release.toString(true));
+
+        assertThrows(IllegalArgumentException.class, () -> ReleaseId.toOrdinal("a1"));
+        assertThrows(IllegalArgumentException.class, () -> ReleaseId.toOrdinal("FXSHRXY"));
+    }
+
+    @Test
+    public void testArbitraryIdIsKept() {
+
+        Release release = new Release(1, 2);
+        release.setId("PAY-42");
+        assertEquals("PAY-42", release.getId());
+        assertEquals(-1, release.getOrdinal());
+        assertEquals("Release PAY-42 {startTestingDay=1, endTestingDay=2, deliveryDay=1, timeToTest=2}", release.toString(true));
+
+        // Scheduled copies keep the ID
+        List<Release> schedule = Algorithm.releaseScheduleAdvanced(new ArrayList<>(List.of(release)), 10);
+        assertEquals("PAY-42", schedule.get(0).getId());
+
+        // An ordinal replaces the ID
+        release.setOrdinal(0);
+        assertEquals("A", release.getId());
+        release.setId(null);
+        assertNull(release.getId());
+    }
+
+    private static void assertIdOfOrdinal(ByteBuffer buffer, int ordinal) {
+        String expected = label(ordinal);
+        assertEquals(expected, ReleaseId.toId(ordinal));
+        assertEquals(ordinal, ReleaseId.toOrdinal(expected));
+
+        buffer.clear();
+        buffer.put((byte) '#');
+        ReleaseId.put(buffer, ordinal);
+        assertEquals("#" + expected, new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Reference implementation: A, B, ..., Z, AA, AB, ..., ZZ, AAA, and so on
+     */
+    private static String label(int index) {
+        StringBuilder label = new StringBuilder();
+        while (index >= 0) {
+            label.insert(0, (char) ('A' + index % 26));
+            index = index / 26 - 1;
+        }
+        return label.toString();
+    }
+}
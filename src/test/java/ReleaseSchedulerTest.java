@@ -0,0 +1,107 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import com.github.akuiz.happyqa.service.ReleaseScheduler;
+import com.github.akuiz.happyqa.service.ScheduleSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReleaseSchedulerTest {
+
+    @Test
+    public void testDescriptionExample() {
+
+        ReleaseScheduler scheduler = new ReleaseScheduler(10, 4);
+        int[][] releases = {{1, 1}, {2, 1}, {3, 1}, {9, 1}, {10, 4}, {10, 2}, {9, 5}, {10, 3}, {4, 5}};
+        for (int[] release : releases) {
+            scheduler.submit(release[0], release[1]);
+        }
+
+        ReleaseTable schedule = scheduler.snapshot().getSchedule();
+        assertEquals(5, schedule.size());
+        assertEquals(9, scheduler.getSubmittedCount());
+        assertEquals("I", schedule.toRelease(3).getId());
+    }
+
+    @Test
+    public void testSnapshotIsRecomputedOnlyAfterChange() {
+
+        ReleaseScheduler scheduler = new ReleaseScheduler(10, 2);
+        scheduler.submit(1, 2);
+        ScheduleSnapshot first = scheduler.snapshot();
+        assertSame(first, scheduler.snapshot());
+
+        // A 'too late to test' release does not change the schedule
+        scheduler.submit(9, 5);
+        assertSame(first, scheduler.snapshot());
+
+        scheduler.submit(4, 1);
+        ScheduleSnapshot second = scheduler.snapshot();
+        assertNotSame(first, second);
+        assertEquals(1, first.size());
+        assertEquals(2, second.size());
+    }
+
+    @Test
+    public void testConcurrentSubmissionsGiveSequentialSchedule() throws Exception {
+
+        int threads = 8;
+        int releasesPerThread = 5000;
+        int sprintDuration = 30;
+        ReleaseScheduler scheduler = new ReleaseScheduler(sprintDuration, 4);
+        int[][] submitted = new int[threads * releasesPerThread][];
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                Random random = new Random(50 + t);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < releasesPerThread; i++) {
+                        int deliveryDay = 1 + random.nextInt(sprintDuration);
+                        int timeToTest = 1 + random.nextInt(5);
+                        int ordinal = scheduler.submit(deliveryDay, timeToTest);
+                        submitted[ordinal] = new int[]{deliveryDay, timeToTest};
+                        // Readers run concurrently with writers
+                        if (i % 500 == 0) {
+                            assertTrue(scheduler.snapshot().size() <= sprintDuration);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        ReleaseTable releaseTable = new ReleaseTable();
+        for (int[] release : submitted) {
+            releaseTable.add(release[0], release[1]);
+        }
+        ReleaseTable expected = Algorithm.createOptimalTestingSchedule(releaseTable, sprintDuration);
+        ReleaseTable actual = scheduler.snapshot().getSchedule();
+
+        assertEquals(expected.size(), actual.size());
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.getOrdinal(row), actual.getOrdinal(row));
+            assertEquals(expected.getEndTestingDay(row), actual.getEndTestingDay(row));
+        }
+    }
+}
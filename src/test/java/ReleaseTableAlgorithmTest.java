@@ -0,0 +1,120 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.Release;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReleaseTableAlgorithmTest {
+
+    private static ReleaseTable descriptionExample() {
+        ReleaseTable releaseTable = new ReleaseTable();
+        releaseTable.add(1, 1);
+        releaseTable.add(2, 1);
+        releaseTable.add(3, 1);
+        releaseTable.add(9, 1);
+        releaseTable.add(10, 4);
+        releaseTable.add(10, 2);
+        releaseTable.add(9, 5);
+        releaseTable.add(10, 3);
+        releaseTable.add(4, 5);
+        return releaseTable;
+    }
+
+    @Test
+    public void testBasicAlgorithmDescriptionExample() {
+
+        List<Release> expectedOutput = new ArrayList<>(Arrays.asList(
+                new Release(1, 1),
+                new Release(2, 1),
+                new Release(3, 1),
+                new Release(4, 5),
+                new Release(9, 1)
+        ));
+
+        List<Release> actualOutput = Algorithm.createOptimalTestingSchedule(descriptionExample(), 10).toReleaseList();
+
+        assertEquals(expectedOutput, actualOutput);
+        assertEquals(Arrays.asList("A", "B", "C", "I", "D"), ids(actualOutput));
+    }
+
+    @Test
+    public void testAdvancedAlgorithmDescriptionExample() {
+
+        List<Release> expectedOutput = new ArrayList<>(Arrays.asList(
+                new Release(1, 2, 1),
+                new Release(2, 3, 1),
+                new Release(3, 4, 1),
+                new Release(4, 5, 5),
+                new Release(9, 10, 1)
+        ));
+
+        List<Release> actualOutput = Algorithm.releaseScheduleAdvanced(descriptionExample(), 10).toReleaseList();
+
+        assertEquals(expectedOutput, actualOutput);
+        assertEquals(Arrays.asList("A", "B", "C", "I", "D"), ids(actualOutput));
+    }
+
+    @Test
+    public void testTrimReleaseTableKeepsOrder() {
+
+        ReleaseTable releaseTable = descriptionExample();
+
+        Algorithm.trimReleaseTable(releaseTable, 10);
+
+        assertEquals(5, releaseTable.size());
+        assertEquals(Arrays.asList("A", "B", "C", "D", "I"), ids(releaseTable.toReleaseList()));
+    }
+
+    @Test
+    public void testTableSchedulesMatchListSchedules() {
+
+        Random random = new Random(42);
+        for (int attempt = 0; attempt < 200; attempt++) {
+            int sprintDuration = 1 + random.nextInt(20);
+            int size = random.nextInt(60);
+            ReleaseTable basicTable = new ReleaseTable();
+            ReleaseTable advancedTable = new ReleaseTable();
+            List<Release> basicList = new ArrayList<>();
+            List<Release> advancedList = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int deliveryDay = 1 + random.nextInt(sprintDuration);
+                int timeToTest = 1 + random.nextInt(sprintDuration);
+                basicTable.add(deliveryDay, timeToTest);
+                advancedTable.add(deliveryDay, timeToTest);
+                basicList.add(release(deliveryDay, timeToTest, i));
+                advancedList.add(release(deliveryDay, timeToTest, i));
+            }
+
+            List<Release> expectedBasic = Algorithm.createOptimalTestingSchedule(basicList, sprintDuration);
+            List<Release> actualBasic = Algorithm.createOptimalTestingSchedule(basicTable, sprintDuration).toReleaseList();
+            assertEquals(expectedBasic, actualBasic);
+            assertEquals(ids(expectedBasic), ids(actualBasic));
+
+            List<Release> expectedAdvanced = Algorithm.releaseScheduleAdvanced(advancedList, sprintDuration);
+            List<Release> actualAdvanced = Algorithm.releaseScheduleAdvanced(advancedTable, sprintDuration).toReleaseList();
+            assertEquals(expectedAdvanced, actualAdvanced);
+            assertEquals(ids(expectedAdvanced), ids(actualAdvanced));
+        }
+    }
+
+    private static Release release(int deliveryDay, int timeToTest, int index) {
+        Release release = new Release(deliveryDay, timeToTest);
+        release.setId(FileUtils.generateId(index));
+        return release;
+    }
+
+    private static List<String> ids(List<Release> releaseList) {
+        List<String> ids = new ArrayList<>();
+        for (Release release : releaseList) {
+            ids.add(release.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,142 @@
+import com.github.akuiz.happyqa.BatchScheduler;
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.algorithm.Scheduler;
+import com.github.akuiz.happyqa.cache.ScheduleCache;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScheduleCacheTest {
+
+    private static final String DESCRIPTION_EXAMPLE = "1 1\n2 1\n3 1\n9 1\n10 4\n10 2\n9 5\n10 3\n4 5\n";
+
+    private static final Scheduler BASIC = new Scheduler(Scheduler.Type.BASIC, 10, 1, false, true);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testKeyIsXxHash64OfTheInput() throws IOException {
+
+        // Reference values of xxHash64 with seed 0
+        assertTrue(ScheduleCache.key(write("empty.txt", ""), BASIC).endsWith("-0-ef46db3751d8e999"));
+        assertTrue(ScheduleCache.key(write("abc.txt", "abc"), BASIC).endsWith("-3-44bc2cf5ad770999"));
+        assertEquals("basic-s10-t1-39-2597e141413871c2", ScheduleCache.key(write("example.txt", DESCRIPTION_EXAMPLE), BASIC));
+    }
+
+    @Test
+    public void testKeyDependsOnSettingsChangingTheSchedule() throws IOException {
+
+        Path releases = write("releases.txt", DESCRIPTION_EXAMPLE);
+        String key = ScheduleCache.key(releases, BASIC);
+
+        assertEquals(key, ScheduleCache.key(releases, new Scheduler(Scheduler.Type.BASIC, 10, 1, false, false)));
+        assertNotEquals(key, ScheduleCache.key(releases, new Scheduler(Scheduler.Type.BASIC, 11, 1, false, true)));
+        assertNotEquals(key, ScheduleCache.key(releases, new Scheduler(Scheduler.Type.BASIC, 10, 2, false, true)));
+        assertNotEquals(key, ScheduleCache.key(releases, new Scheduler(Scheduler.Type.BASIC, 10, 1, true, true)));
+        assertNotEquals(ScheduleCache.key(releases, new Scheduler(Scheduler.Type.ADVANCED, 10, 1, false, true)),
+                ScheduleCache.key(releases, new Scheduler(Scheduler.Type.ADVANCED, 10, 1, false, false)));
+    }
+
+    @Test
+    public void testDiskTierIsSharedByLaterRuns() throws IOException {
+
+        Path releasesDirectory = Files.createDirectory(directory.resolve("releases"));
+        Files.writeString(releasesDirectory.resolve("team.txt"), DESCRIPTION_EXAMPLE);
+        Path cacheDirectory = directory.resolve("cache");
+
+        ScheduleCache firstRun = new ScheduleCache(1 << 20, cacheDirectory, 1 << 20);
+        new BatchScheduler(BASIC, 1, firstRun).schedule(releasesDirectory, "*.txt", directory.resolve("first"));
+        assertEquals(1, firstRun.getMisses());
+
+        ScheduleCache secondRun = new ScheduleCache(1 << 20, cacheDirectory, 1 << 20);
+        new BatchScheduler(BASIC, 1, secondRun).schedule(releasesDirectory, "*.txt", directory.resolve("second"));
+        new BatchScheduler(BASIC, 1, secondRun).schedule(releasesDirectory, "*.txt", directory.resolve("third"));
+        assertEquals(0, secondRun.getMisses());
+        assertEquals(1, secondRun.getDiskHits());
+        assertEquals(1, secondRun.getMemoryHits());
+
+        for (String output : new String[]{"team-output.txt", "team-output-advanced.txt"}) {
+            byte[] expected = Files.readAllBytes(directory.resolve("first").resolve(output));
+            assertArrayEquals(expected, Files.readAllBytes(directory.resolve("second").resolve(output)));
+            assertArrayEquals(expected, Files.readAllBytes(directory.resolve("third").resolve(output)));
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() throws IOException {
+
+        Path cacheDirectory = directory.resolve("cache");
+        Path output = write("output.txt", "1\n1 1\n");
+        Path outputAdvanced = write("output-advanced.txt", "1\nRelease A\n");
+        long entrySize = Files.size(output) + Files.size(outputAdvanced);
+
+        // Two entries fit both tiers, the third one evicts the least recently used one
+        ScheduleCache cache = new ScheduleCache(2 * entrySize, cacheDirectory, 2 * entrySize);
+        cache.put("first", output, outputAdvanced);
+        cache.put("second", output, outputAdvanced);
+        assertTrue(cache.copyTo("first", directory.resolve("copy.txt"), directory.resolve("copy-advanced.txt")));
+        // Access times of the disk tier have a coarse resolution, make the order explicit
+        Files.setLastModifiedTime(cacheDirectory.resolve("second.output.txt"), FileTime.fromMillis(0));
+        cache.put("third", output, outputAdvanced);
+
+        assertFalse(cache.copyTo("second", directory.resolve("copy.txt"), directory.resolve("copy-advanced.txt")));
+        assertTrue(cache.copyTo("first", directory.resolve("copy.txt"), directory.resolve("copy-advanced.txt")));
+        assertTrue(cache.copyTo("third", directory.resolve("copy.txt"), directory.resolve("copy-advanced.txt")));
+        assertFalse(Files.exists(cacheDirectory.resolve("second.output.txt")));
+        assertFalse(Files.exists(cacheDirectory.resolve("second.output-advanced.txt")));
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testGzippedAndPlainOutputsAreCachedApart() throws IOException {
+
+        Path releases = write("releases.txt", DESCRIPTION_EXAMPLE);
+        Path plain = directory.resolve("output.txt");
+        Path plainAdvanced = directory.resolve("output-advanced.txt");
+        Path gzip = directory.resolve("output.txt.gz");
+        Path gzipAdvanced = directory.resolve("output-advanced.txt.gz");
+        String plainKey = ScheduleCache.key(releases, BASIC, plain, plainAdvanced);
+        String gzipKey = ScheduleCache.key(releases, BASIC, gzip, gzipAdvanced);
+        assertEquals(ScheduleCache.key(releases, BASIC), plainKey);
+        assertNotEquals(plainKey, gzipKey);
+        assertNotEquals(gzipKey, ScheduleCache.key(releases, BASIC, gzip, plainAdvanced));
+
+        // A gzipped run is cached first, a later plain run must not get its bytes
+        ScheduleCache cache = new ScheduleCache(1 << 20, directory.resolve("cache"), 1 << 20);
+        ReleaseTable schedule = Algorithm.createOptimalTestingSchedule(FileUtils.readReleaseTableFromFile(releases.toString()), 10);
+        FileUtils.writeScheduleToFiles(schedule, gzip.toString(), gzipAdvanced.toString());
+        cache.put(gzipKey, gzip, gzipAdvanced);
+        assertFalse(cache.copyTo(plainKey, plain, plainAdvanced));
+        FileUtils.writeScheduleToFiles(schedule, plain.toString(), plainAdvanced.toString());
+        cache.put(plainKey, plain, plainAdvanced);
+
+        Path copy = directory.resolve("copy.txt");
+        Path copyAdvanced = directory.resolve("copy-advanced.txt");
+        assertTrue(cache.copyTo(plainKey, copy, copyAdvanced));
+        assertArrayEquals(Files.readAllBytes(plain), Files.readAllBytes(copy));
+        assertArrayEquals(Files.readAllBytes(plainAdvanced), Files.readAllBytes(copyAdvanced));
+
+        Path gzipCopy = directory.resolve("copy.txt.gz");
+        Path gzipCopyAdvanced = directory.resolve("copy-advanced.txt.gz");
+        assertTrue(cache.copyTo(gzipKey, gzipCopy, gzipCopyAdvanced));
+        assertTrue(FileUtils.isGzipped(gzipCopy.toString()));
+        assertTrue(FileUtils.isGzipped(gzipCopyAdvanced.toString()));
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+}
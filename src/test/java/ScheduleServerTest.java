@@ -0,0 +1,171 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.algorithm.Scheduler;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import com.github.akuiz.happyqa.server.ScheduleServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScheduleServerTest {
+
+    private static final String DESCRIPTION_EXAMPLE = "1 1\n2 1\n3 1\n9 1\n10 4\n10 2\n9 5\n10 3\n4 5 ";
+
+    @TempDir
+    Path directory;
+
+    private ScheduleServer server;
+
+    private HttpClient client;
+
+    @BeforeEach
+    public void startServer() throws IOException {
+        server = new ScheduleServer(new InetSocketAddress("127.0.0.1", 0), 2, 4);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testResponseContainsBothOutputs() throws Exception {
+
+        HttpResponse<String> response = post("algorithm=basic&sprintDuration=10", DESCRIPTION_EXAMPLE);
+
+        assertEquals(200, response.statusCode());
+        assertEquals(expectedJson(Algorithm.createOptimalTestingSchedule(descriptionExample(), 10)), response.body());
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        // Exact mode is opt-in, every other request uses it
+        for (int i = 0; i < 20; i++) {
+            String query = "algorithm=advanced&sprintDuration=" + (5 + i % 10) + (i % 2 == 1 ? "&exact=true" : "");
+            responses.add(client.sendAsync(request(query, DESCRIPTION_EXAMPLE), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            HttpResponse<String> response = responses.get(i).get();
+            assertEquals(200, response.statusCode());
+            ReleaseTable schedule = i % 2 == 1
+                    ? Algorithm.releaseScheduleAdvancedExact(descriptionExample(), 5 + i % 10)
+                    : Algorithm.releaseScheduleAdvanced(descriptionExample(), 5 + i % 10);
+            assertEquals(expectedJson(schedule), response.body());
+        }
+    }
+
+    @Test
+    public void testInvalidRequests() throws Exception {
+
+        HttpResponse<String> invalidLine = post("", "1 1\n2\n");
+        assertEquals(400, invalidLine.statusCode());
+        assertEquals("{\"error\":\"Invalid release at line 2: time to test is missing\"}", invalidLine.body());
+
+        assertEquals(400, post("algorithm=fastest", DESCRIPTION_EXAMPLE).statusCode());
+        assertEquals(400, post("sprintDuration=ten", DESCRIPTION_EXAMPLE).statusCode());
+
+        // Number of testers out of range is rejected before anything is allocated for the testers
+        assertEquals(400, post("testers=0", DESCRIPTION_EXAMPLE).statusCode());
+        assertEquals(400, post("testers=-3", DESCRIPTION_EXAMPLE).statusCode());
+        assertEquals("{\"error\":\"Number of testers must be between 1 and 1024: 1000000000\"}",
+                post("testers=1000000000", DESCRIPTION_EXAMPLE).body());
+        assertEquals(200, post("testers=1024", DESCRIPTION_EXAMPLE).statusCode());
+
+        HttpResponse<String> get = client.send(HttpRequest.newBuilder(uri("")).GET().build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, get.statusCode());
+
+        // Server keeps working after errors
+        assertTrue(post("", DESCRIPTION_EXAMPLE).body().startsWith("{\"count\":5,"));
+
+        // Default algorithm is the one of the launcher
+        assertEquals(post("algorithm=" + Scheduler.Type.DEFAULT, DESCRIPTION_EXAMPLE).body(), post("", DESCRIPTION_EXAMPLE).body());
+    }
+
+    @Test
+    public void testTooLargeBodyIsRejected() throws Exception {
+
+        ScheduleServer smallServer = new ScheduleServer(new InetSocketAddress("127.0.0.1", 0), 1, 1, 64,
+                ScheduleServer.DEFAULT_MAX_TESTERS);
+        smallServer.start();
+        try {
+            URI uri = URI.create("http://127.0.0.1:" + smallServer.getAddress().getPort() + ScheduleServer.SCHEDULE_PATH);
+            String releases = "1 1\n".repeat(100);
+
+            // Declared by Content-Length
+            HttpResponse<String> declared = client.send(HttpRequest.newBuilder(uri)
+                    .POST(HttpRequest.BodyPublishers.ofString(releases)).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(413, declared.statusCode());
+
+            // Chunked, the size is only known while reading
+            HttpResponse<String> chunked = client.send(HttpRequest.newBuilder(uri)
+                    .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(releases.getBytes()))).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(413, chunked.statusCode());
+
+            HttpResponse<String> small = client.send(HttpRequest.newBuilder(uri)
+                    .POST(HttpRequest.BodyPublishers.ofString("1 1\n2 1\n")).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, small.statusCode());
+        } finally {
+            smallServer.stop(0);
+        }
+    }
+
+    private HttpResponse<String> post(String query, String releases) throws Exception {
+        return client.send(request(query, releases), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String query, String releases) {
+        return HttpRequest.newBuilder(uri(query)).POST(HttpRequest.BodyPublishers.ofString(releases)).build();
+    }
+
+    private URI uri(String query) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + ScheduleServer.SCHEDULE_PATH + "?" + query);
+    }
+
+    private static ReleaseTable descriptionExample() {
+        ReleaseTable releaseTable = new ReleaseTable();
+        int[][] releases = {{1, 1}, {2, 1}, {3, 1}, {9, 1}, {10, 4}, {10, 2}, {9, 5}, {10, 3}, {4, 5}};
+        for (int[] release : releases) {
+            releaseTable.add(release[0], release[1]);
+        }
+        return releaseTable;
+    }
+
+    /**
+     * Builds the expected response from the output files the command line applications write
+     */
+    private String expectedJson(ReleaseTable schedule) throws IOException {
+        Path outputFile = directory.resolve("output.txt");
+        Path outputFileAdvanced = directory.resolve("output-advanced.txt");
+        FileUtils.writeScheduleToFiles(schedule, outputFile.toString(), outputFileAdvanced.toString());
+        return "{\"count\":" + schedule.size()
+                + ",\"output\":\"" + escape(Files.readString(outputFile))
+                + "\",\"outputAdvanced\":\"" + escape(Files.readString(outputFileAdvanced)) + "\"}";
+    }
+
+    private static String escape(String content) {
+        return content.replace("\r", "\\r").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,106 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.Release;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Schedules must not depend on the sorting strategy (counting, packed keys or merge sort),
+ * so they are compared with the comparator-based implementation.
+ */
+public class ScheduleSortingTest {
+
+    @Test
+    public void testFewSprintDaysManyReleases() {
+        compareWithComparatorSort(new Random(1), 5000, 10, 10);
+    }
+
+    @Test
+    public void testManySprintDaysFewReleases() {
+        compareWithComparatorSort(new Random(2), 50, 1000, 1000);
+    }
+
+    @Test
+    public void testWideKeys() {
+        compareWithComparatorSort(new Random(3), 200, Integer.MAX_VALUE / 2, Integer.MAX_VALUE / 4);
+    }
+
+    @Test
+    public void testRandomShapes() {
+        Random random = new Random(4);
+        for (int attempt = 0; attempt < 300; attempt++) {
+            int sprintDuration = 1 + random.nextInt(40);
+            compareWithComparatorSort(random, random.nextInt(80), sprintDuration, sprintDuration);
+        }
+    }
+
+    private static void compareWithComparatorSort(Random random, int size, int sprintDuration, int maxTimeToTest) {
+        List<Release> releases = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Release release = new Release(1 + random.nextInt(sprintDuration), 1 + random.nextInt(maxTimeToTest));
+            release.setId(FileUtils.generateId(i));
+            releases.add(release);
+        }
+
+        List<Release> expectedBasic = basicWithComparator(new ArrayList<>(releases), sprintDuration);
+        assertSameSchedule(expectedBasic, Algorithm.createOptimalTestingSchedule(new ArrayList<>(releases), sprintDuration));
+        assertSameSchedule(expectedBasic, Algorithm.createOptimalTestingSchedule(new LinkedList<>(releases), sprintDuration));
+        assertSameSchedule(expectedBasic,
+                Algorithm.createOptimalTestingSchedule(ReleaseTable.fromReleaseList(releases), sprintDuration).toReleaseList());
+
+        List<Release> expectedAdvanced = advancedWithComparator(new ArrayList<>(releases), sprintDuration);
+        assertSameSchedule(expectedAdvanced, Algorithm.releaseScheduleAdvanced(new ArrayList<>(releases), sprintDuration));
+        assertSameSchedule(expectedAdvanced, Algorithm.releaseScheduleAdvanced(new LinkedList<>(releases), sprintDuration));
+        assertSameSchedule(expectedAdvanced,
+                Algorithm.releaseScheduleAdvanced(ReleaseTable.fromReleaseList(releases), sprintDuration).toReleaseList());
+    }
+
+    private static void assertSameSchedule(List<Release> expected, List<Release> actual) {
+        assertEquals(expected, actual);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+        }
+    }
+
+    private static List<Release> basicWithComparator(List<Release> releaseList, int sprintDuration) {
+        releaseList.removeIf(release -> release.getEndTestingDay() > sprintDuration);
+        releaseList.sort(Comparator.comparingInt(Release::getEndTestingDay));
+        List<Release> schedule = new ArrayList<>();
+        int optimalEndTestingDay = 0;
+        for (Release release : releaseList) {
+            if (release.getStartTestingDay() > optimalEndTestingDay) {
+                optimalEndTestingDay = release.getEndTestingDay();
+                schedule.add(release);
+            }
+        }
+        return schedule;
+    }
+
+    private static List<Release> advancedWithComparator(List<Release> releaseList, int sprintDuration) {
+        releaseList.removeIf(release -> release.getEndTestingDay() > sprintDuration);
+        releaseList.sort(Comparator.comparingInt(Release::getStartTestingDay)
+                .thenComparing(Comparator.comparingInt(Release::getTimeToTest).reversed()));
+        List<Release> schedule = new ArrayList<>();
+        int optimalStartTestingDay = sprintDuration + 1;
+        for (int i = releaseList.size() - 1; i >= 0; i--) {
+            Release release = releaseList.get(i);
+            if (release.getEndTestingDay() < optimalStartTestingDay) {
+                optimalStartTestingDay -= release.getTimeToTest();
+                Release optimalRelease = new Release(release.getDeliveryDay(), optimalStartTestingDay, release.getTimeToTest());
+                optimalRelease.setId(release.getId());
+                schedule.add(optimalRelease);
+            }
+        }
+        Collections.reverse(schedule);
+        return schedule;
+    }
+}
@@ -0,0 +1,65 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class ScheduleWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testDescriptionExample() throws IOException {
+
+        ReleaseTable releaseTable = new ReleaseTable();
+        int[][] releases = {{1, 1}, {2, 1}, {3, 1}, {9, 1}, {10, 4}, {10, 2}, {9, 5}, {10, 3}, {4, 5}};
+        for (int[] release : releases) {
+            releaseTable.add(release[0], release[1]);
+        }
+
+        assertSameOutput(Algorithm.createOptimalTestingSchedule(releaseTable.copy(), 10));
+        assertSameOutput(Algorithm.releaseScheduleAdvanced(releaseTable, 10));
+    }
+
+    @Test
+    public void testEmptySchedule() throws IOException {
+        assertSameOutput(new ReleaseTable());
+    }
+
+    @Test
+    public void testLongIdsAndExtremeValuesSpanSeveralBuffers() throws IOException {
+
+        // Ordinals up to millions give IDs of several letters, extreme days test sign and width handling
+        Random random = new Random(9);
+        ReleaseTable schedule = new ReleaseTable();
+        int[] days = {0, -1, 9, 10, 99999, Integer.MAX_VALUE, Integer.MIN_VALUE + 1};
+        for (int i = 0; i < 20_000; i++) {
+            int ordinal = i < 1000 ? i : random.nextInt(Integer.MAX_VALUE);
+            schedule.add(days[random.nextInt(days.length)], random.nextInt(1 << 20) - (1 << 19), random.nextInt(1000), ordinal);
+        }
+
+        assertSameOutput(schedule);
+    }
+
+    private void assertSameOutput(ReleaseTable schedule) throws IOException {
+        Path outputFile = directory.resolve("output.txt");
+        Path outputFileAdvanced = directory.resolve("output-advanced.txt");
+        Path expectedOutputFile = directory.resolve("expected-output.txt");
+        Path expectedOutputFileAdvanced = directory.resolve("expected-output-advanced.txt");
+
+        FileUtils.writeReleaseListToFile(schedule.toReleaseList(), expectedOutputFile.toString(), false);
+        FileUtils.writeReleaseListToFile(schedule.toReleaseList(), expectedOutputFileAdvanced.toString(), true);
+        FileUtils.writeScheduleToFiles(schedule, outputFile.toString(), outputFileAdvanced.toString());
+
+        assertArrayEquals(Files.readAllBytes(expectedOutputFile), Files.readAllBytes(outputFile));
+        assertArrayEquals(Files.readAllBytes(expectedOutputFileAdvanced), Files.readAllBytes(outputFileAdvanced));
+    }
+}
@@ -0,0 +1,80 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.fileUtils.FileUtils;
+import com.github.akuiz.happyqa.metrics.Phase;
+import com.github.akuiz.happyqa.metrics.SchedulingMetrics;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SchedulingMetricsTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void resetMetrics() {
+        SchedulingMetrics.reset();
+    }
+
+    @Test
+    public void testPhasesOfDescriptionExample() throws Exception {
+
+        Path releases = directory.resolve("releases.txt");
+        Files.writeString(releases, "1 1\n2 1\n3 1\n9 1\n10 4\n10 2\n9 5\n10 3\n4 5\n");
+
+        ReleaseTable releaseTable = FileUtils.readReleaseTableFromFile(releases.toString());
+        ReleaseTable schedule = Algorithm.createOptimalTestingSchedule(releaseTable, 10);
+        FileUtils.writeScheduleToFiles(schedule, directory.resolve("output.txt").toString(),
+                directory.resolve("output-advanced.txt").toString());
+
+        assertEquals(9, SchedulingMetrics.getItems(Phase.PARSE));
+        assertEquals(Files.size(releases), SchedulingMetrics.getBytes(Phase.PARSE));
+        // 10 4, 10 2, 9 5 and 10 3 end after the sprint
+        assertEquals(4, SchedulingMetrics.getItems(Phase.TRIM));
+        assertEquals(5, SchedulingMetrics.getItems(Phase.SORT));
+        assertEquals(5, SchedulingMetrics.getItems(Phase.SCAN));
+        assertEquals(Files.size(directory.resolve("output.txt")) + Files.size(directory.resolve("output-advanced.txt")),
+                SchedulingMetrics.getBytes(Phase.WRITE));
+        for (Phase phase : Phase.values()) {
+            assertEquals(1, SchedulingMetrics.getRuns(phase));
+        }
+    }
+
+    @Test
+    public void testJsonSummaryAndMBean() throws Exception {
+
+        ReleaseTable releaseTable = new ReleaseTable();
+        releaseTable.add(1, 1, 3, 0);
+        releaseTable.add(2, 2, 2, 1);
+        releaseTable.add(8, 8, 5, 2);
+        Algorithm.releaseScheduleAdvanced(releaseTable, 10);
+
+        Path stats = directory.resolve("stats.json");
+        SchedulingMetrics.writeJson(stats, 42);
+        String json = Files.readString(stats);
+        assertTrue(json.contains("\"wallTimeNanos\": 42"));
+        assertTrue(json.contains("\"releasesTrimmed\": 1"));
+        assertTrue(json.contains("\"sort\": {\"runs\": 1,"));
+        assertTrue(json.contains("\"write\": {\"runs\": 0, \"timeNanos\": 0, \"items\": 0, \"bytes\": 0}"));
+
+        SchedulingMetrics.registerMBean();
+        SchedulingMetrics.registerMBean();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(SchedulingMetrics.MBEAN_NAME);
+        assertEquals(1L, server.getAttribute(name, "ReleasesTrimmed"));
+        assertEquals(SchedulingMetrics.getItems(Phase.SCAN), server.getAttribute(name, "ReleasesScheduled"));
+
+        server.invoke(name, "reset", null, null);
+        assertEquals(0, SchedulingMetrics.getRuns(Phase.TRIM));
+    }
+}
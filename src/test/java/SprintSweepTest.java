@@ -0,0 +1,109 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.algorithm.SprintSweep;
+import com.github.akuiz.happyqa.release.Release;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SprintSweepTest {
+
+    @Test
+    public void testDescriptionExample() {
+
+        ReleaseTable releaseTable = new ReleaseTable();
+        releaseTable.add(1, 1);
+        releaseTable.add(2, 1);
+        releaseTable.add(3, 1);
+        releaseTable.add(9, 1);
+        releaseTable.add(10, 4);
+        releaseTable.add(10, 2);
+        releaseTable.add(9, 5);
+        releaseTable.add(10, 3);
+        releaseTable.add(4, 5);
+
+        SprintSweep basicSweep = Algorithm.sweepSprintDurations(releaseTable, 10);
+        SprintSweep advancedSweep = Algorithm.sweepSprintDurationsAdvanced(releaseTable, 10);
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 3, 3, 3, 3, 4, 5, 5}, basicSweep.getScheduleSizes());
+        assertEquals(5, advancedSweep.getScheduleSize(10));
+    }
+
+    @Test
+    public void testSweepMatchesSingleDurationRuns() {
+
+        Random random = new Random(5);
+        for (int attempt = 0; attempt < 50; attempt++) {
+            int maxSprintDuration = 1 + random.nextInt(30);
+            ReleaseTable releaseTable = new ReleaseTable();
+            int size = random.nextInt(200);
+            for (int i = 0; i < size; i++) {
+                releaseTable.add(1 + random.nextInt(maxSprintDuration + 5), 1 + random.nextInt(10));
+            }
+
+            SprintSweep basicSweep = Algorithm.sweepSprintDurations(releaseTable, maxSprintDuration);
+            SprintSweep advancedSweep = Algorithm.sweepSprintDurationsAdvanced(releaseTable, maxSprintDuration);
+
+            for (int sprintDuration = 1; sprintDuration <= maxSprintDuration; sprintDuration++) {
+                List<Release> expectedBasic = Algorithm.createOptimalTestingSchedule(releaseTable.copy(), sprintDuration).toReleaseList();
+                List<Release> expectedAdvanced = Algorithm.releaseScheduleAdvanced(releaseTable.copy(), sprintDuration).toReleaseList();
+
+                assertEquals(expectedBasic.size(), basicSweep.getScheduleSize(sprintDuration));
+                assertEquals(expectedBasic, basicSweep.getSchedule(sprintDuration).toReleaseList());
+                assertEquals(expectedAdvanced.size(), advancedSweep.getScheduleSize(sprintDuration));
+                assertEquals(expectedAdvanced, advancedSweep.getSchedule(sprintDuration).toReleaseList());
+            }
+        }
+    }
+
+    @Test
+    public void testReleasesEndingBeforeTheFirstDay() {
+
+        ReleaseTable releaseTable = new ReleaseTable();
+        releaseTable.add(-3, 2);
+        releaseTable.add(3, 0);
+        releaseTable.add(5, -7);
+        releaseTable.add(2, 2);
+        releaseTable.add(4, 1);
+
+        SprintSweep basicSweep = Algorithm.sweepSprintDurations(releaseTable, 6);
+        for (int sprintDuration = 0; sprintDuration <= 6; sprintDuration++) {
+            List<Release> expected = Algorithm.createOptimalTestingSchedule(releaseTable.copy(), sprintDuration).toReleaseList();
+            assertEquals(expected.size(), basicSweep.getScheduleSize(sprintDuration));
+            assertEquals(expected, basicSweep.getSchedule(sprintDuration).toReleaseList());
+        }
+    }
+
+    @Test
+    public void testAdvancedSweepWithNoTimeToTest() {
+
+        // Delivered after the sprint end, but ends on its last day
+        ReleaseTable releaseTable = new ReleaseTable();
+        releaseTable.add(1, 2);
+        releaseTable.add(6, 0);
+        releaseTable.add(4, 1);
+        assertEquals(Algorithm.releaseScheduleAdvanced(releaseTable.copy(), 5).size(),
+                Algorithm.sweepSprintDurationsAdvanced(releaseTable, 5).getScheduleSize(5));
+
+        Random random = new Random(7);
+        for (int attempt = 0; attempt < 50; attempt++) {
+            int maxSprintDuration = 1 + random.nextInt(20);
+            releaseTable = new ReleaseTable();
+            int size = random.nextInt(100);
+            for (int i = 0; i < size; i++) {
+                releaseTable.add(random.nextInt(maxSprintDuration + 5) - 2, random.nextInt(8) - 2);
+            }
+
+            SprintSweep advancedSweep = Algorithm.sweepSprintDurationsAdvanced(releaseTable, maxSprintDuration);
+            for (int sprintDuration = 1; sprintDuration <= maxSprintDuration; sprintDuration++) {
+                List<Release> expected = Algorithm.releaseScheduleAdvanced(releaseTable.copy(), sprintDuration).toReleaseList();
+                assertEquals(expected.size(), advancedSweep.getScheduleSize(sprintDuration));
+                assertEquals(expected, advancedSweep.getSchedule(sprintDuration).toReleaseList());
+            }
+        }
+    }
+}
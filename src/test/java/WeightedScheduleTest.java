@@ -0,0 +1,114 @@
+import com.github.akuiz.happyqa.algorithm.Algorithm;
+import com.github.akuiz.happyqa.release.ReleaseTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WeightedScheduleTest {
+
+    @Test
+    public void testHeavyReleaseBeatsSeveralLightOnes() {
+
+        ReleaseTable releaseTable = new ReleaseTable();
+        releaseTable.add(1, 1);
+        releaseTable.add(2, 1);
+        releaseTable.add(3, 1);
+        int heavyRow = releaseTable.add(1, 5);
+        releaseTable.setWeight(heavyRow, 10);
+
+        ReleaseTable schedule = Algorithm.createOptimalWeightedTestingSchedule(releaseTable, 10);
+
+        assertEquals(1, schedule.size());
+        assertEquals(3, schedule.getOrdinal(0));
+        assertEquals(10, schedule.getWeight(0));
+    }
+
+    @Test
+    public void testUnitWeightsGiveMaximalNumberOfReleases() {
+
+        Random random = new Random(31);
+        for (int attempt = 0; attempt < 200; attempt++) {
+            int sprintDuration = 1 + random.nextInt(60);
+            ReleaseTable releaseTable = randomReleases(random, random.nextInt(300), sprintDuration, 1);
+
+            ReleaseTable weighted = Algorithm.createOptimalWeightedTestingSchedule(releaseTable.copy(), sprintDuration);
+            ReleaseTable basic = Algorithm.createOptimalTestingSchedule(releaseTable.copy(), sprintDuration);
+
+            assertEquals(basic.size(), weighted.size());
+            assertNonOverlapping(weighted, sprintDuration);
+        }
+    }
+
+    @Test
+    public void testMaximalTotalWeight() {
+
+        Random random = new Random(32);
+        for (int attempt = 0; attempt < 300; attempt++) {
+            int sprintDuration = 1 + random.nextInt(20);
+            ReleaseTable releaseTable = randomReleases(random, random.nextInt(14), sprintDuration, 20);
+
+            ReleaseTable schedule = Algorithm.createOptimalWeightedTestingSchedule(releaseTable.copy(), sprintDuration);
+
+            assertNonOverlapping(schedule, sprintDuration);
+            assertEquals(bruteForceMaxWeight(releaseTable, sprintDuration), totalWeight(schedule));
+        }
+    }
+
+    private static ReleaseTable randomReleases(Random random, int size, int sprintDuration, int maxWeight) {
+        ReleaseTable releaseTable = new ReleaseTable();
+        for (int i = 0; i < size; i++) {
+            int row = releaseTable.add(1 + random.nextInt(sprintDuration), 1 + random.nextInt(6));
+            if (maxWeight > 1) {
+                releaseTable.setWeight(row, random.nextInt(maxWeight + 1));
+            }
+        }
+        return releaseTable;
+    }
+
+    private static void assertNonOverlapping(ReleaseTable schedule, int sprintDuration) {
+        for (int row = 0; row < schedule.size(); row++) {
+            assertTrue(schedule.getEndTestingDay(row) <= sprintDuration);
+            if (row > 0) {
+                assertTrue(schedule.getStartTestingDay(row) > schedule.getEndTestingDay(row - 1));
+            }
+        }
+    }
+
+    private static long totalWeight(ReleaseTable schedule) {
+        long total = 0;
+        for (int row = 0; row < schedule.size(); row++) {
+            total += schedule.getWeight(row);
+        }
+        return total;
+    }
+
+    private static long bruteForceMaxWeight(ReleaseTable releaseTable, int sprintDuration) {
+        long best = 0;
+        for (int subset = 0; subset < 1 << releaseTable.size(); subset++) {
+            boolean[] busy = new boolean[sprintDuration + 1];
+            boolean feasible = true;
+            long weight = 0;
+            for (int row = 0; row < releaseTable.size() && feasible; row++) {
+                if ((subset & 1 << row) == 0) {
+                    continue;
+                }
+                if (releaseTable.getEndTestingDay(row) > sprintDuration) {
+                    feasible = false;
+                    break;
+                }
+                for (int day = releaseTable.getStartTestingDay(row); day <= releaseTable.getEndTestingDay(row); day++) {
+                    feasible &= !busy[day];
+                    busy[day] = true;
+                }
+                weight += releaseTable.getWeight(row);
+            }
+            if (feasible) {
+                best = Math.max(best, weight);
+            }
+        }
+        return best;
+    }
+}